@@ -1,5 +1,6 @@
 package org.quiltmc.enigma.network.packet.c2s;
 
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeUtil;
 import org.quiltmc.enigma.network.EnigmaServer;
 import org.quiltmc.enigma.network.ServerMessage;
 import org.quiltmc.enigma.network.ServerPacketHandler;
@@ -78,7 +79,7 @@ public class LoginC2SPacket implements Packet<ServerPacketHandler> {
 		handler.server().setUsername(handler.client(), this.username);
 		handler.server().log(this.username + " successfully logged in");
 
-		handler.sendPacket(new SyncMappingsS2CPacket(handler.server().getRemapper().getDeobfMappings()));
+		handler.sendPacket(new SyncMappingsS2CPacket(EntryTreeUtil.snapshot(handler.server().getRemapper().getDeobfMappings())));
 		handler.server().sendMessage(ServerMessage.connect(this.username));
 	}
 }
@@ -57,7 +57,7 @@ import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeUtil;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
@@ -226,15 +226,17 @@ public class GuiController implements ClientPacketHandler {
 			MappingSaveParameters saveParameters = this.enigma.getProfile().getMappingSaveParameters();
 
 			MappingDelta<EntryMapping> delta = mapper.takeMappingDelta();
+			// write from a snapshot, since the mappings can be edited while saving
+			EntryTree<EntryMapping> mappings = mapper.getMappingsSnapshot();
 			boolean saveAll = !path.equals(this.loadedMappingPath);
 
 			this.readWriteService = service;
 			this.loadedMappingPath = path;
 
 			if (saveAll) {
-				service.write(mapper.getMappings(), path, progress, saveParameters);
+				service.write(mappings, path, progress, saveParameters);
 			} else {
-				service.write(mapper.getMappings(), delta, path, progress, saveParameters);
+				service.write(mappings, delta, path, progress, saveParameters);
 			}
 		});
 	}
@@ -636,7 +638,10 @@ public class GuiController implements ClientPacketHandler {
 	}
 
 	public void createServer(String username, int port, char[] password) throws IOException {
-		this.server = new IntegratedEnigmaServer(this.project.getJarChecksum(), password, EntryRemapper.mapped(this.project.getJarIndex(), this.project.getMappingsIndex(), new HashEntryTree<>(this.project.getRemapper().getJarProposedMappings()), new HashEntryTree<>(this.project.getRemapper().getDeobfMappings()), this.project.getEnigma().getNameProposalServices()), port);
+		boolean concurrent = this.project.getEnigma().getProfile().hasConcurrentMappings();
+		// a concurrent remapper copies the mappings itself, any other one must not share the project's tree
+		EntryTree<EntryMapping> deobfMappings = concurrent ? this.project.getRemapper().getDeobfMappings() : EntryTreeUtil.snapshot(this.project.getRemapper().getDeobfMappings());
+		this.server = new IntegratedEnigmaServer(this.project.getJarChecksum(), password, EntryRemapper.mapped(this.project.getJarIndex(), this.project.getMappingsIndex(), this.project.getRemapper().getJarProposedMappings(), deobfMappings, this.project.getEnigma().getNameProposalServices(), concurrent), port);
 		this.server.start();
 		this.client = new IntegratedEnigmaClient(this, "127.0.0.1", port);
 		this.client.connect();
@@ -0,0 +1,57 @@
+package org.quiltmc.enigma.benchmark;
+
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the entries of a synthetic jar, shaped like an obfuscated one: every class has an inner class,
+ * and both have a few fields and methods, with a few parameters each.
+ */
+final class BenchmarkEntries {
+	static final int MEMBERS = 4;
+	static final int PARAMETERS = 3;
+	static final int ENTRIES_PER_CLASS = 2 * (1 + MEMBERS + MEMBERS * (1 + PARAMETERS));
+
+	private BenchmarkEntries() {
+	}
+
+	/**
+	 * Creates new entries on every call, so that the entries of two calls are equal but not identical,
+	 * like the entries of decompiled sources and those of the mappings.
+	 */
+	static List<Entry<?>> create(int classes) {
+		List<Entry<?>> entries = new ArrayList<>(classes * ENTRIES_PER_CLASS);
+		for (int i = 0; i < classes; i++) {
+			ClassEntry outerClass = new ClassEntry("net/minecraft/" + toName(i));
+			addClass(entries, outerClass);
+			addClass(entries, new ClassEntry(outerClass, toName(i + 1)));
+		}
+
+		return entries;
+	}
+
+	private static void addClass(List<Entry<?>> entries, ClassEntry classEntry) {
+		entries.add(classEntry);
+		for (int i = 0; i < MEMBERS; i++) {
+			entries.add(new FieldEntry(classEntry, toName(i), new TypeDescriptor("L" + classEntry.getFullName() + ";")));
+
+			MethodEntry method = new MethodEntry(classEntry, toName(i), new MethodDescriptor("(IL" + classEntry.getFullName() + ";Ljava/lang/String;)V"));
+			entries.add(method);
+			for (int j = 1; j <= PARAMETERS; j++) {
+				entries.add(new LocalVariableEntry(method, j));
+			}
+		}
+	}
+
+	private static String toName(int i) {
+		return Integer.toString(i, Character.MAX_RADIX);
+	}
+}
@@ -0,0 +1,70 @@
+package org.quiltmc.enigma.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hashing of entries, as done when looking them up in the maps of the indices,
+ * and the building of their names and descriptors, as done for every token of decompiled sources.
+ * The looked up entries are equal to the keys but not identical, and are reused across invocations like the entries of the indices are.
+ * Run with {@code -prof gc} to see the bytes allocated per entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntryHashingBenchmark {
+	private static final int CLASSES = 2_000;
+	private static final int ENTRIES = CLASSES * BenchmarkEntries.ENTRIES_PER_CLASS;
+
+	private Map<Entry<?>, Entry<?>> map;
+	private List<Entry<?>> lookups;
+
+	@Setup
+	public void setup() {
+		this.map = new HashMap<>();
+		for (Entry<?> entry : BenchmarkEntries.create(CLASSES)) {
+			this.map.put(entry, entry);
+		}
+
+		this.lookups = BenchmarkEntries.create(CLASSES);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public void hashMapGet(Blackhole blackhole) {
+		for (Entry<?> entry : this.lookups) {
+			blackhole.consume(this.map.get(entry));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public void names(Blackhole blackhole) {
+		for (Entry<?> entry : this.lookups) {
+			blackhole.consume(entry.getFullName());
+			if (entry instanceof MethodEntry method) {
+				blackhole.consume(method.getDesc().toString());
+			}
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package org.quiltmc.enigma.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.quiltmc.enigma.api.translation.MappingTranslator;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.VoidEntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.MergedEntryMappingTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups made when remapping decompiled sources: getting the mappings of entries from a merged tree of
+ * the mappings and proposed names, and translating entries with them.
+ * Run with {@code -prof gc} to see the bytes allocated per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntryTreeLookupBenchmark {
+	private static final int CLASSES = 2_000;
+	private static final int ENTRIES = CLASSES * BenchmarkEntries.ENTRIES_PER_CLASS;
+
+	private EntryTree<EntryMapping> mappings;
+	private Translator translator;
+	private List<Entry<?>> lookups;
+
+	@Setup
+	public void setup() {
+		EntryTree<EntryMapping> mainTree = new HashEntryTree<>();
+		EntryTree<EntryMapping> proposedTree = new HashEntryTree<>();
+		List<Entry<?>> entries = BenchmarkEntries.create(CLASSES);
+		for (int i = 0; i < entries.size(); i++) {
+			Entry<?> entry = entries.get(i);
+			String name = entry instanceof ClassEntry classEntry && !classEntry.isInnerClass() ? "net/minecraft/Named" + i : "named" + i;
+
+			// map half of the entries, and propose names for the others
+			(i % 2 == 0 ? mainTree : proposedTree).insert(entry, new EntryMapping(name));
+		}
+
+		this.mappings = new MergedEntryMappingTree(mainTree, proposedTree);
+		this.translator = new MappingTranslator(this.mappings, VoidEntryResolver.INSTANCE);
+		this.lookups = BenchmarkEntries.create(CLASSES);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public void get(Blackhole blackhole) {
+		for (Entry<?> entry : this.lookups) {
+			blackhole.consume(this.mappings.get(entry));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public void translate(Blackhole blackhole) {
+		for (Entry<?> entry : this.lookups) {
+			blackhole.consume(this.translator.translate(entry));
+		}
+	}
+}
@@ -1,21 +1,27 @@
 package org.quiltmc.enigma.api;
 
 import com.google.common.io.MoreFiles;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.LibrariesJarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
 import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
 import org.quiltmc.enigma.impl.analysis.ClassLoaderClassProvider;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+import org.quiltmc.enigma.impl.analysis.index.JarIndexSnapshotCache;
+import org.quiltmc.enigma.impl.bytecode.translator.SourceFixVisitor;
 import org.quiltmc.enigma.api.service.EnigmaService;
 import org.quiltmc.enigma.api.service.EnigmaServiceContext;
 import org.quiltmc.enigma.api.service.EnigmaServiceFactory;
 import org.quiltmc.enigma.api.service.EnigmaServiceType;
 import org.quiltmc.enigma.api.service.JarIndexerService;
-import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.CombiningClassProvider;
 import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.JdkClassProvider;
 import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
+import org.quiltmc.enigma.api.class_provider.ReadOnceClassProvider;
 import org.quiltmc.enigma.api.service.NameProposalService;
 import org.quiltmc.enigma.api.service.ReadWriteService;
 import org.quiltmc.enigma.api.source.TokenType;
@@ -23,12 +29,15 @@ import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.serde.FileType;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.util.Either;
 import org.quiltmc.enigma.util.I18n;
 import org.quiltmc.enigma.util.Utils;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableListMultimap;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Opcodes;
 import org.tinylog.Logger;
 
@@ -41,8 +50,11 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.sql.DriverManager;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -79,20 +91,56 @@ public class Enigma {
 
 	public EnigmaProject openJar(Path path, ClassProvider libraryClassProvider, ProgressListener progress) throws IOException {
 		JarClassProvider jarClassProvider = new JarClassProvider(path);
-		JarIndex index = MainJarIndex.empty();
+		JarIndexSnapshotCache snapshotCache = this.getIndexSnapshotCache();
+		// snapshots are keyed by a fingerprint, the project computes the exact checksum only when sharing it over the network
+		byte[] fingerprint = snapshotCache != null ? Utils.zipFingerprint(path) : null;
+		JarIndex snapshotIndex = null;
+		if (snapshotCache != null) {
+			snapshotIndex = snapshotCache.load(fingerprint, MainJarIndex::empty, progress);
+		}
+
+		JarIndex index = snapshotIndex != null ? snapshotIndex : MainJarIndex.empty();
 		JarIndex libIndex = LibrariesJarIndex.empty();
 
-		ClassLoaderClassProvider jreProvider = new ClassLoaderClassProvider(DriverManager.class.getClassLoader());
+		boolean indexJdk = this.profile.getIndexingParameters().indexJdk();
+		ClassProvider jreProvider = indexJdk ? new JdkClassProvider() : new ClassLoaderClassProvider(DriverManager.class.getClassLoader());
 		CombiningClassProvider librariesProvider = new CombiningClassProvider(jreProvider, libraryClassProvider);
-		ClassProvider mainProjectProvider = new ObfuscationFixClassProvider(new CachingClassProvider(jarClassProvider), index);
+		ObfuscationFixClassProvider mainProjectProvider = new ObfuscationFixClassProvider(jarClassProvider, index);
+		// only used while opening the jar, so that each class is read and fixed once for every indexing pass
+		ReadOnceClassProvider mainIndexingProvider = new ReadOnceClassProvider(mainProjectProvider);
+		ReadOnceClassProvider librariesIndexingProvider = new ReadOnceClassProvider(librariesProvider);
 
 		Set<String> mainScope = new HashSet<>(mainProjectProvider.getClassNames());
-		Set<String> librariesScope = new HashSet<>(librariesProvider.getClassNames());
 
 		// main index
-		this.index(index, mainProjectProvider, mainScope, progress, false);
+		if (snapshotIndex == null) {
+			if (snapshotCache != null && index instanceof AbstractJarIndex abstractIndex) {
+				snapshotCache.indexJar(path, fingerprint, abstractIndex, mainScope, mainIndexingProvider, progress, this.profile.getIndexingParameters().parallel());
+			} else {
+				this.indexJar(index, mainIndexingProvider, mainScope, progress);
+				if (snapshotCache != null) {
+					snapshotCache.save(fingerprint, index);
+				}
+			}
+		}
+
+		// the classes fixed while indexing were fixed against an incomplete index
+		mainProjectProvider.invalidateAll();
+		this.runIndexerServices(index, mainProjectProvider, mainIndexingProvider, mainScope, progress, false);
 		// lib index
-		this.index(libIndex, librariesProvider, librariesScope, progress, true);
+		boolean lazyLibraries = this.profile.getIndexingParameters().lazyLibraries();
+		Set<String> librariesScope = lazyLibraries
+				? findLibraryDependencies(index, mainScope, librariesIndexingProvider)
+				: new HashSet<>(librariesProvider.getClassNames());
+		// the few JDK classes lazy libraries need are cheaper to visit than the whole JDK journal is to load
+		if (indexJdk && !lazyLibraries && snapshotCache != null && libIndex instanceof AbstractJarIndex abstractLibIndex) {
+			Set<String> jdkClassNames = new HashSet<>(jreProvider.getClassNames());
+			snapshotCache.indexLibraries(abstractLibIndex, librariesScope, jdkClassNames, librariesIndexingProvider, progress, this.profile.getIndexingParameters().parallel());
+		} else {
+			this.indexJar(libIndex, librariesIndexingProvider, librariesScope, progress);
+		}
+
+		this.runIndexerServices(libIndex, librariesProvider, librariesIndexingProvider, librariesScope, progress, true);
 
 		// name proposal
 		var nameProposalServices = this.getNameProposalServices();
@@ -121,24 +169,120 @@ public class Enigma {
 		MappingsIndex mappingsIndex = MappingsIndex.empty();
 		mappingsIndex.indexMappings(proposedNames, progress);
 
-		return new EnigmaProject(this, path, mainProjectProvider, index, libIndex, mappingsIndex, proposedNames, Utils.zipSha1(path));
+		return new EnigmaProject(this, path, mainProjectProvider, index, libIndex, mappingsIndex, proposedNames, null);
 	}
 
-	private void index(JarIndex index, ClassProvider classProvider, Set<String> scope, ProgressListener progress, boolean libraries) {
-		String progressKey = libraries ? "libs" : "jar";
-		index.indexJar(scope, classProvider, progress);
+	@Nullable
+	private JarIndexSnapshotCache getIndexSnapshotCache() {
+		String directory = this.profile.getIndexingParameters().cacheDirectory();
+		return directory != null ? new JarIndexSnapshotCache(this.profile.resolvePath(Path.of(directory)), this.profile.toJson()) : null;
+	}
+
+	private void indexJar(JarIndex index, ClassProvider classProvider, Set<String> scope, ProgressListener progress) {
+		index.indexJar(scope, classProvider, progress, this.profile.getIndexingParameters().parallel());
+	}
+
+	/**
+	 * Finds the library classes the main jar depends on: the library classes it extends or references, and all of their ancestors.
+	 * Only the headers of those classes are read, through the read-once provider that is also used to index them,
+	 * so no other cache is needed and the bytecode is released once the libraries are indexed.
+	 *
+	 * @return the names of those classes, as reported by the libraries provider
+	 */
+	private static Set<String> findLibraryDependencies(JarIndex index, Set<String> mainScope, ClassProvider librariesProvider) {
+		// the JRE provider reports binary names
+		Map<String, String> libraryNames = new HashMap<>();
+		for (String name : librariesProvider.getClassNames()) {
+			libraryNames.putIfAbsent(name.replace('.', '/'), name);
+		}
+
+		Deque<String> queue = new ArrayDeque<>(List.of("java/lang/Object", "java/lang/Record"));
+		for (ClassEntry classEntry : index.getIndex(EntryIndex.class).getClasses()) {
+			ClassDefEntry definition = index.getIndex(EntryIndex.class).getDefinition(classEntry);
+			if (definition != null && definition.getSuperClass() != null) {
+				queue.add(definition.getSuperClass().getFullName());
+			}
+
+			if (definition != null) {
+				for (ClassEntry interfaceEntry : definition.getInterfaces()) {
+					queue.add(interfaceEntry.getFullName());
+				}
+			}
+		}
 
+		for (ClassEntry referencedClass : index.getIndex(ReferenceIndex.class).getReferencedClasses()) {
+			queue.add(referencedClass.getFullName());
+		}
+
+		Set<String> visited = new HashSet<>();
+		Set<String> dependencies = new HashSet<>();
+		while (!queue.isEmpty()) {
+			String name = queue.poll();
+			String libraryName = libraryNames.get(name);
+			if (!visited.add(name) || mainScope.contains(name) || libraryName == null) {
+				continue;
+			}
+
+			dependencies.add(libraryName);
+			librariesProvider.accept(libraryName, new ClassVisitor(ASM_VERSION) {
+				@Override
+				public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+					if (superName != null) {
+						queue.add(superName);
+					}
+
+					if (interfaces != null) {
+						queue.addAll(List.of(interfaces));
+					}
+				}
+			});
+		}
+
+		return dependencies;
+	}
+
+	/**
+	 * Runs every jar indexer service in order, each one over the whole scope like {@link JarIndexerService#acceptJar(Set, ClassProvider, JarIndex)} does.
+	 * Services with a visitor are passed the bytecode kept by the indexing provider, and the last of them releases each class once it is visited.
+	 */
+	private void runIndexerServices(JarIndex index, ClassProvider classProvider, ReadOnceClassProvider indexingProvider, Set<String> scope, ProgressListener progress, boolean libraries) {
+		String progressKey = libraries ? "libs" : "jar";
 		List<JarIndexerService> indexers = this.services.get(JarIndexerService.TYPE);
 		progress.init(indexers.size(), I18n.translate("progress." + progressKey + ".custom_indexing"));
 
+		Map<JarIndexerService, ClassVisitor> visitors = new HashMap<>();
+		JarIndexerService lastVisiting = null;
+		for (var service : indexers) {
+			ClassVisitor visitor = !(libraries && !service.shouldIndexLibraries()) ? service.getClassVisitor() : null;
+			if (visitor != null) {
+				// the indexing provider kept the classes as they were fixed before bridge methods were found
+				visitors.put(service, libraries ? visitor : new SourceFixVisitor(ASM_VERSION, visitor, index));
+				lastVisiting = service;
+			}
+		}
+
 		int i = 1;
 		for (var service : indexers) {
 			if (!(libraries && !service.shouldIndexLibraries())) {
 				progress.step(i++, I18n.translateFormatted("progress." + progressKey + ".custom_indexing.indexer", service.getId()));
-				service.acceptJar(scope, classProvider, index);
+
+				ClassVisitor visitor = visitors.get(service);
+				if (visitor != null) {
+					boolean last = service == lastVisiting;
+					for (String className : scope) {
+						indexingProvider.accept(className, visitor);
+						if (last) {
+							indexingProvider.release(className);
+						}
+					}
+				} else {
+					service.acceptJar(scope, classProvider, index);
+				}
 			}
 		}
 
+		// nothing reads the kept classes past this point
+		indexingProvider.releaseAll();
 		progress.step(i, I18n.translate("progress." + progressKey + ".custom_indexing.finished"));
 	}
 
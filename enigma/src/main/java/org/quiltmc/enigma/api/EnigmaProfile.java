@@ -8,8 +8,10 @@ import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import org.quiltmc.enigma.api.analysis.index.jar.IndexingParameters;
 import org.quiltmc.enigma.api.service.EnigmaServiceType;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingFileNameFormat;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
@@ -34,6 +36,7 @@ public final class EnigmaProfile {
 	public static final EnigmaProfile EMPTY = new EnigmaProfile(new ServiceContainer(Map.of()));
 
 	private static final MappingSaveParameters DEFAULT_MAPPING_SAVE_PARAMETERS = new MappingSaveParameters(MappingFileNameFormat.BY_DEOBF, false, null, null);
+	private static final IndexingParameters DEFAULT_INDEXING_PARAMETERS = new IndexingParameters(false, null, false, false);
 	private static final Gson GSON = new GsonBuilder()
 			.registerTypeAdapter(ServiceContainer.class, (JsonDeserializer<ServiceContainer>) EnigmaProfile::loadServiceContainer)
 			.create();
@@ -46,8 +49,16 @@ public final class EnigmaProfile {
 	@SerializedName("mapping_save_parameters")
 	private final MappingSaveParameters mappingSaveParameters = null;
 
+	@SerializedName("indexing_parameters")
+	private final IndexingParameters indexingParameters = null;
+
+	@SerializedName("concurrent_mappings")
+	private final Boolean concurrentMappings = null;
+
 	@Nullable
 	private Path sourcePath;
+	// the profile as it was parsed, which identifies everything it configures
+	private transient String json = "{}";
 
 	private EnigmaProfile(ServiceContainer serviceProfiles) {
 		this.serviceProfiles = serviceProfiles;
@@ -69,7 +80,13 @@ public final class EnigmaProfile {
 	}
 
 	public static EnigmaProfile parse(Reader reader) {
-		return GSON.fromJson(reader, EnigmaProfile.class);
+		JsonElement json = JsonParser.parseReader(reader);
+		EnigmaProfile profile = GSON.fromJson(json, EnigmaProfile.class);
+		if (profile != null) {
+			profile.json = json.toString();
+		}
+
+		return profile;
 	}
 
 	private static ServiceContainer loadServiceContainer(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -104,6 +121,32 @@ public final class EnigmaProfile {
 		return this.mappingSaveParameters == null ? EnigmaProfile.DEFAULT_MAPPING_SAVE_PARAMETERS : this.mappingSaveParameters;
 	}
 
+	public IndexingParameters getIndexingParameters() {
+		//noinspection ConstantConditions - this field is parsed by GSON
+		return this.indexingParameters == null ? EnigmaProfile.DEFAULT_INDEXING_PARAMETERS : this.indexingParameters;
+	}
+
+	/**
+	 * Controls whether the mappings of projects are kept in concurrent trees, which decompiler, export and stats threads
+	 * can safely read while the mappings are being edited. Enabled unless the profile sets {@code "concurrent_mappings": false}.
+	 * Without it, the mappings are kept in persistent trees, which still take
+	 * {@linkplain org.quiltmc.enigma.api.translation.mapping.EntryRemapper#getMappingsSnapshot() snapshots} in constant time
+	 * rather than in time proportional to the number of classes, but which serialize all writes.
+	 *
+	 * @return whether mappings are kept in concurrent trees
+	 */
+	public boolean hasConcurrentMappings() {
+		//noinspection ConstantConditions - this field is parsed by GSON
+		return this.concurrentMappings == null || this.concurrentMappings;
+	}
+
+	/**
+	 * {@return the contents of this profile, in a normalized form}
+	 */
+	String toJson() {
+		return this.json;
+	}
+
 	private EnigmaProfile withSourcePath(Path sourcePath) {
 		this.sourcePath = sourcePath;
 		return this;
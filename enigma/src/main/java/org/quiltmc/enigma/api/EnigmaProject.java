@@ -11,6 +11,7 @@ import org.quiltmc.enigma.api.service.ObfuscationTestService;
 import org.quiltmc.enigma.api.source.TokenType;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeUtil;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.impl.bytecode.translator.TranslationClassVisitor;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
@@ -29,6 +30,7 @@ import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.util.I18n;
+import org.quiltmc.enigma.util.Utils;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
 import org.tinylog.Logger;
@@ -38,6 +40,7 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
@@ -57,13 +60,17 @@ public class EnigmaProject {
 	private final ClassProvider classProvider;
 	private final JarIndex jarIndex;
 	private final JarIndex libIndex;
-	private final byte[] jarChecksum;
+	@Nullable
+	private volatile byte[] jarChecksum;
 
 	private EntryRemapper remapper;
 	private MappingsIndex mappingsIndex;
 
-	public EnigmaProject(Enigma enigma, Path jarPath, ClassProvider classProvider, JarIndex jarIndex, JarIndex libIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedNames, byte[] jarChecksum) {
-		Preconditions.checkArgument(jarChecksum.length == 20);
+	/**
+	 * @param jarChecksum the SHA-1 of the jar as computed by {@link Utils#zipSha1}, or {@code null} to compute it when it is first needed
+	 */
+	public EnigmaProject(Enigma enigma, Path jarPath, ClassProvider classProvider, JarIndex jarIndex, JarIndex libIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedNames, @Nullable byte[] jarChecksum) {
+		Preconditions.checkArgument(jarChecksum == null || jarChecksum.length == 20);
 		this.enigma = enigma;
 		this.jarPath = jarPath;
 		this.classProvider = classProvider;
@@ -72,7 +79,7 @@ public class EnigmaProject {
 		this.jarChecksum = jarChecksum;
 
 		this.mappingsIndex = mappingsIndex;
-		this.remapper = EntryRemapper.mapped(jarIndex, this.mappingsIndex, proposedNames, new HashEntryTree<>(), this.enigma.getNameProposalServices());
+		this.remapper = EntryRemapper.mapped(jarIndex, this.mappingsIndex, proposedNames, new PersistentEntryTree<>(), this.enigma.getNameProposalServices(), this.hasConcurrentMappings());
 	}
 
 	/**
@@ -91,18 +98,22 @@ public class EnigmaProject {
 			EntryTree<EntryMapping> mergedTree = EntryTreeUtil.merge(jarProposedMappings, mappings);
 
 			this.mappingsIndex.indexMappings(mergedTree, progress);
-			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, mappings, this.enigma.getNameProposalServices());
+			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, mappings, this.enigma.getNameProposalServices(), this.hasConcurrentMappings());
 		} else if (!jarProposedMappings.isEmpty()) {
 			this.mappingsIndex.indexMappings(jarProposedMappings, progress);
-			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, new HashEntryTree<>(), this.enigma.getNameProposalServices());
+			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, new PersistentEntryTree<>(), this.enigma.getNameProposalServices(), this.hasConcurrentMappings());
 		} else {
-			this.remapper = EntryRemapper.empty(this.jarIndex, this.enigma.getNameProposalServices());
+			this.remapper = EntryRemapper.empty(this.jarIndex, this.enigma.getNameProposalServices(), this.hasConcurrentMappings());
 		}
 
 		// update dynamically proposed names
 		this.remapper.insertDynamicallyProposedMappings(null, null, null);
 	}
 
+	private boolean hasConcurrentMappings() {
+		return this.enigma.getProfile().hasConcurrentMappings();
+	}
+
 	public Enigma getEnigma() {
 		return this.enigma;
 	}
@@ -123,8 +134,25 @@ public class EnigmaProject {
 		return this.mappingsIndex;
 	}
 
+	/**
+	 * Gets the SHA-1 of the classes of the jar, as computed by {@link Utils#zipSha1}.
+	 * It is only computed the first time it is needed, since it requires reading the whole jar.
+	 *
+	 * @return the checksum of the jar
+	 */
 	public byte[] getJarChecksum() {
-		return this.jarChecksum;
+		byte[] checksum = this.jarChecksum;
+		if (checksum == null) {
+			try {
+				checksum = Utils.zipSha1(this.jarPath);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to compute the checksum of " + this.jarPath, e);
+			}
+
+			this.jarChecksum = checksum;
+		}
+
+		return checksum;
 	}
 
 	public EntryRemapper getRemapper() {
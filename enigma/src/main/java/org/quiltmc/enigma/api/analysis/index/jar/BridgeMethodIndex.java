@@ -10,6 +10,7 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,6 +45,18 @@ public class BridgeMethodIndex implements JarIndexer {
 		}
 	}
 
+	@Override
+	public boolean isShardable() {
+		return true;
+	}
+
+	@Nullable
+	@Override
+	public JarIndexer createShard() {
+		// bridge methods are only found once all classes have been visited
+		return null;
+	}
+
 	@Override
 	public void processIndex(JarIndex index) {
 		Map<MethodEntry, MethodEntry> copiedAccessToBridge = new HashMap<>(this.specializedToBridge);
@@ -60,6 +73,23 @@ public class BridgeMethodIndex implements JarIndexer {
 		}
 	}
 
+	@Override
+	public boolean isSnapshotable() {
+		return true;
+	}
+
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		writer.writeEntryMap(this.bridgeToSpecialized);
+		writer.writeEntryMap(this.specializedToBridge);
+	}
+
+	@Override
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		reader.readEntryMap(this.bridgeToSpecialized);
+		reader.readEntryMap(this.specializedToBridge);
+	}
+
 	private void indexSyntheticMethod(MethodDefEntry syntheticMethod, AccessFlags access) {
 		MethodEntry specializedMethod = this.findSpecializedMethod(syntheticMethod);
 		if (specializedMethod == null) {
@@ -143,7 +173,7 @@ public class BridgeMethodIndex implements JarIndexer {
 	private MethodEntry getHigherMethod(MethodEntry bridgeMethod1, MethodEntry bridgeMethod2) {
 		ClassEntry parent1 = bridgeMethod1.getParent();
 		ClassEntry parent2 = bridgeMethod2.getParent();
-		return this.inheritanceIndex.getDescendants(parent1).contains(parent2) ? bridgeMethod1 : bridgeMethod2;
+		return this.inheritanceIndex.isAncestor(parent1, parent2) ? bridgeMethod1 : bridgeMethod2;
 	}
 
 	public boolean isBridgeMethod(MethodEntry entry) {
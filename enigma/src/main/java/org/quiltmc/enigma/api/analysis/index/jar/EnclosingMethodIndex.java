@@ -4,6 +4,7 @@ import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +16,46 @@ public class EnclosingMethodIndex implements JarIndexer {
 		this.enclosingMethodData.put(classEntry, enclosingMethodData);
 	}
 
+	@Override
+	public boolean isShardable() {
+		return true;
+	}
+
+	@Override
+	public EnclosingMethodIndex createShard() {
+		return new EnclosingMethodIndex();
+	}
+
+	@Override
+	public void mergeShard(JarIndexer shard) {
+		this.enclosingMethodData.putAll(((EnclosingMethodIndex) shard).enclosingMethodData);
+	}
+
+	@Override
+	public boolean isSnapshotable() {
+		return true;
+	}
+
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		writer.writeInt(this.enclosingMethodData.size());
+		for (Map.Entry<ClassDefEntry, EnclosingMethodData> entry : this.enclosingMethodData.entrySet()) {
+			writer.writeEntry(entry.getKey());
+			writer.writeString(entry.getValue().owner());
+			writer.writeString(entry.getValue().name());
+			writer.writeString(entry.getValue().descriptor());
+		}
+	}
+
+	@Override
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		int size = reader.readInt();
+		for (int i = 0; i < size; i++) {
+			ClassDefEntry classEntry = reader.readEntry();
+			this.enclosingMethodData.put(classEntry, new EnclosingMethodData(reader.readString(), reader.readString(), reader.readString()));
+		}
+	}
+
 	@Nullable
 	public EnclosingMethodData getEnclosingMethodData(ClassEntry entry) {
 		return this.enclosingMethodData.get(entry);
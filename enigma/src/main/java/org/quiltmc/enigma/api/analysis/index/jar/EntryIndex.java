@@ -14,8 +14,11 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class EntryIndex implements JarIndexer {
@@ -40,8 +43,30 @@ public class EntryIndex implements JarIndexer {
 		this.fieldDefinitions.put(fieldEntry, fieldEntry);
 	}
 
+	@Override
+	public boolean isShardable() {
+		return true;
+	}
+
+	@Override
+	public EntryIndex createShard() {
+		return new EntryIndex();
+	}
+
+	@Override
+	public void mergeShard(JarIndexer shard) {
+		EntryIndex entryShard = (EntryIndex) shard;
+		this.fieldDefinitions.putAll(entryShard.fieldDefinitions);
+		this.methodDefinitions.putAll(entryShard.methodDefinitions);
+		this.classDefinitions.putAll(entryShard.classDefinitions);
+	}
+
 	@Override
 	public void processIndex(JarIndex index) {
+		this.buildTree();
+	}
+
+	private void buildTree() {
 		for (ClassEntry entry : this.getClasses()) {
 			this.tree.insert(entry, null);
 		}
@@ -55,6 +80,35 @@ public class EntryIndex implements JarIndexer {
 		}
 	}
 
+	@Override
+	public boolean isSnapshotable() {
+		return true;
+	}
+
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		writer.writeEntries(this.classDefinitions.values());
+		writer.writeEntries(this.fieldDefinitions.values());
+		writer.writeEntries(this.methodDefinitions.values());
+	}
+
+	@Override
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		List<ClassDefEntry> classes = new ArrayList<>();
+		reader.readEntries(classes);
+		classes.forEach(this::indexClass);
+
+		List<FieldDefEntry> fields = new ArrayList<>();
+		reader.readEntries(fields);
+		fields.forEach(this::indexField);
+
+		List<MethodDefEntry> methods = new ArrayList<>();
+		reader.readEntries(methods);
+		methods.forEach(this::indexMethod);
+
+		this.buildTree();
+	}
+
 	public boolean hasClass(ClassEntry entry) {
 		return this.classDefinitions.containsKey(entry);
 	}
@@ -0,0 +1,212 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import com.google.common.collect.Multimap;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.translation.representation.AccessFlags;
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.Signature;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.EntryPool;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a snapshot written by an {@link IndexSnapshotWriter}.
+ * Values must be read back in the same order they were written.
+ *
+ * @see JarIndexer#readSnapshot(IndexSnapshotReader)
+ */
+public class IndexSnapshotReader {
+	private final DataInputStream in;
+	private final List<String> strings = new ArrayList<>();
+	private final List<Entry<?>> entries = new ArrayList<>();
+	@Nullable
+	private final EntryPool entryPool;
+
+	public IndexSnapshotReader(DataInputStream in) {
+		this(in, null);
+	}
+
+	/**
+	 * @param entryPool the pool to get plain class, field and method entries from, or {@code null} to create them
+	 */
+	public IndexSnapshotReader(DataInputStream in, @Nullable EntryPool entryPool) {
+		this.in = in;
+		this.entryPool = entryPool;
+	}
+
+	public int readInt() throws IOException {
+		return this.in.readInt();
+	}
+
+	public boolean readBoolean() throws IOException {
+		return this.in.readBoolean();
+	}
+
+	@Nullable
+	public String readString() throws IOException {
+		int index = this.in.readInt();
+		if (index == IndexSnapshotWriter.NULL) {
+			return null;
+		} else if (index != IndexSnapshotWriter.NEW) {
+			return this.strings.get(index);
+		}
+
+		byte[] bytes = new byte[this.in.readInt()];
+		this.in.readFully(bytes);
+		String value = new String(bytes, StandardCharsets.UTF_8);
+		this.strings.add(value);
+		return value;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <E extends Entry<?>> E readEntry() throws IOException {
+		int index = this.in.readInt();
+		if (index == IndexSnapshotWriter.NULL) {
+			return null;
+		} else if (index != IndexSnapshotWriter.NEW) {
+			return (E) this.entries.get(index);
+		}
+
+		byte kind = this.in.readByte();
+		Entry<?> entry = switch (kind) {
+			case IndexSnapshotWriter.CLASS -> {
+				String name = this.readString();
+				yield this.entryPool != null ? this.entryPool.getClassEntry(name) : new ClassEntry(name);
+			}
+			case IndexSnapshotWriter.CLASS_DEF -> {
+				String name = this.readString();
+				AccessFlags access = new AccessFlags(this.in.readInt());
+				Signature signature = Signature.createSignature(this.readString());
+				ClassEntry superClass = this.readEntry();
+				List<ClassEntry> interfaces = new ArrayList<>();
+				this.readEntries(interfaces);
+				yield new ClassDefEntry(name, signature, access, superClass, interfaces.toArray(ClassEntry[]::new));
+			}
+			case IndexSnapshotWriter.FIELD -> {
+				ClassEntry owner = this.readEntry();
+				String name = this.readString();
+				String desc = this.readString();
+				yield this.entryPool != null ? this.entryPool.intern(new FieldEntry(owner, name, this.entryPool.getTypeDescriptor(desc))) : new FieldEntry(owner, name, new TypeDescriptor(desc));
+			}
+			case IndexSnapshotWriter.FIELD_DEF -> {
+				ClassEntry owner = this.readEntry();
+				String name = this.readString();
+				TypeDescriptor desc = new TypeDescriptor(this.readString());
+				AccessFlags access = new AccessFlags(this.in.readInt());
+				yield new FieldDefEntry(owner, name, desc, Signature.createTypedSignature(this.readString()), access);
+			}
+			case IndexSnapshotWriter.METHOD -> {
+				ClassEntry owner = this.readEntry();
+				String name = this.readString();
+				String desc = this.readString();
+				yield this.entryPool != null ? this.entryPool.intern(new MethodEntry(owner, name, this.entryPool.getMethodDescriptor(desc))) : new MethodEntry(owner, name, new MethodDescriptor(desc));
+			}
+			case IndexSnapshotWriter.METHOD_DEF -> {
+				ClassEntry owner = this.readEntry();
+				String name = this.readString();
+				MethodDescriptor desc = new MethodDescriptor(this.readString());
+				AccessFlags access = new AccessFlags(this.in.readInt());
+				Signature signature = Signature.createSignature(this.readString());
+				for (ArgumentDescriptor argument : desc.getArgumentDescs()) {
+					int flags = this.in.readInt();
+					if (flags != ParameterAccessFlags.DEFAULT.getFlags()) {
+						argument.setAccess(new ParameterAccessFlags(flags));
+					}
+				}
+
+				yield new MethodDefEntry(owner, name, desc, signature, access);
+			}
+			default -> throw new IOException("Unknown entry kind in index snapshot: " + kind);
+		};
+
+		this.entries.add(entry);
+		return (E) entry;
+	}
+
+	public <E extends Entry<?>> void readEntries(Collection<? super E> into) throws IOException {
+		int size = this.in.readInt();
+		for (int i = 0; i < size; i++) {
+			into.add(this.readEntry());
+		}
+	}
+
+	public <K extends Entry<?>, V extends Entry<?>> void readEntryMap(Map<? super K, ? super V> into) throws IOException {
+		int size = this.in.readInt();
+		for (int i = 0; i < size; i++) {
+			K key = this.readEntry();
+			V value = this.readEntry();
+			into.put(key, value);
+		}
+	}
+
+	public <K extends Entry<?>, V extends Entry<?>> void readEntryMultimap(Multimap<? super K, ? super V> into) throws IOException {
+		int size = this.in.readInt();
+		for (int i = 0; i < size; i++) {
+			K key = this.readEntry();
+			List<V> values = new ArrayList<>();
+			this.readEntries(values);
+			into.putAll(key, values);
+		}
+	}
+
+	public <E extends Entry<?>, C extends Entry<?>> EntryReference<E, C> readReference() throws IOException {
+		E entry = this.readEntry();
+		C context = this.readEntry();
+		boolean declaration = this.in.readBoolean();
+		boolean named = this.in.readBoolean();
+		ReferenceTargetType targetType = this.readTargetType();
+
+		// a reference is named when created with a non-empty source name, unless it is a constructor called by a keyword
+		// the entry's name always has the same outcome as the name it was created with
+		String sourceName = named ? entry.getName() : null;
+		if (declaration) {
+			return EntryReference.declaration(entry, sourceName);
+		}
+
+		return new EntryReference<>(entry, sourceName, context, targetType);
+	}
+
+	@Nullable
+	public ReferenceTargetType readTargetType() throws IOException {
+		byte kind = this.in.readByte();
+		if (kind == IndexSnapshotWriter.NULL) {
+			return null;
+		}
+
+		return switch (ReferenceTargetType.Kind.values()[kind]) {
+			case NONE -> ReferenceTargetType.none();
+			case UNINITIALIZED -> ReferenceTargetType.uninitialized();
+			case CLASS_TYPE -> ReferenceTargetType.classType(this.readEntry());
+		};
+	}
+
+	public <K extends Entry<?>, E extends Entry<?>, C extends Entry<?>> void readReferenceMultimap(Multimap<K, EntryReference<E, C>> into) throws IOException {
+		int size = this.in.readInt();
+		for (int i = 0; i < size; i++) {
+			K key = this.readEntry();
+			int referenceCount = this.in.readInt();
+			for (int j = 0; j < referenceCount; j++) {
+				into.put(key, this.readReference());
+			}
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import com.google.common.collect.Multimap;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import javax.annotation.Nullable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the state of processed {@link JarIndexer indexers} to a binary snapshot, which can be loaded back with an {@link IndexSnapshotReader}.
+ * Strings and entries are only written once, and referred to by their index afterwards.
+ *
+ * @see JarIndexer#writeSnapshot(IndexSnapshotWriter)
+ */
+public class IndexSnapshotWriter {
+	static final int NULL = -1;
+	static final int NEW = -2;
+
+	static final byte CLASS = 0;
+	static final byte CLASS_DEF = 1;
+	static final byte FIELD = 2;
+	static final byte FIELD_DEF = 3;
+	static final byte METHOD = 4;
+	static final byte METHOD_DEF = 5;
+
+	private final DataOutputStream out;
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final Map<EntryKey, Integer> entries = new HashMap<>();
+
+	public IndexSnapshotWriter(DataOutputStream out) {
+		this.out = out;
+	}
+
+	public void writeInt(int value) throws IOException {
+		this.out.writeInt(value);
+	}
+
+	public void writeBoolean(boolean value) throws IOException {
+		this.out.writeBoolean(value);
+	}
+
+	public void writeString(@Nullable String value) throws IOException {
+		if (value == null) {
+			this.out.writeInt(NULL);
+			return;
+		}
+
+		Integer index = this.strings.get(value);
+		if (index != null) {
+			this.out.writeInt(index);
+			return;
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		this.out.writeInt(NEW);
+		this.out.writeInt(bytes.length);
+		this.out.write(bytes);
+		this.strings.put(value, this.strings.size());
+	}
+
+	/**
+	 * Writes an entry, or a reference to it if an identical entry was already written.
+	 * Only class, field and method entries, and their definitions, are supported.
+	 *
+	 * @param entry the entry to write
+	 */
+	public void writeEntry(@Nullable Entry<?> entry) throws IOException {
+		if (entry == null) {
+			this.out.writeInt(NULL);
+			return;
+		}
+
+		EntryKey key = EntryKey.of(entry);
+		Integer index = this.entries.get(key);
+		if (index != null) {
+			this.out.writeInt(index);
+			return;
+		}
+
+		this.out.writeInt(NEW);
+		if (entry instanceof ClassDefEntry classDef) {
+			this.out.writeByte(CLASS_DEF);
+			this.writeString(classDef.getFullName());
+			this.out.writeInt(classDef.getAccess().getFlags());
+			this.writeString(classDef.getSignature().getSignature());
+			this.writeEntry(classDef.getSuperClass());
+			this.writeEntries(List.of(classDef.getInterfaces()));
+		} else if (entry instanceof ClassEntry classEntry) {
+			this.out.writeByte(CLASS);
+			this.writeString(classEntry.getFullName());
+		} else if (entry instanceof FieldDefEntry fieldDef) {
+			this.out.writeByte(FIELD_DEF);
+			this.writeEntry(fieldDef.getParent());
+			this.writeString(fieldDef.getName());
+			this.writeString(fieldDef.getDesc().toString());
+			this.out.writeInt(fieldDef.getAccess().getFlags());
+			this.writeString(fieldDef.getSignature().getSignature());
+		} else if (entry instanceof FieldEntry fieldEntry) {
+			this.out.writeByte(FIELD);
+			this.writeEntry(fieldEntry.getParent());
+			this.writeString(fieldEntry.getName());
+			this.writeString(fieldEntry.getDesc().toString());
+		} else if (entry instanceof MethodDefEntry methodDef) {
+			this.out.writeByte(METHOD_DEF);
+			this.writeEntry(methodDef.getParent());
+			this.writeString(methodDef.getName());
+			this.writeString(methodDef.getDesc().toString());
+			this.out.writeInt(methodDef.getAccess().getFlags());
+			this.writeString(methodDef.getSignature().getSignature());
+			for (ArgumentDescriptor argument : methodDef.getDesc().getArgumentDescs()) {
+				this.out.writeInt(argument.getAccess().getFlags());
+			}
+		} else if (entry instanceof MethodEntry methodEntry) {
+			this.out.writeByte(METHOD);
+			this.writeEntry(methodEntry.getParent());
+			this.writeString(methodEntry.getName());
+			this.writeString(methodEntry.getDesc().toString());
+		} else {
+			throw new IllegalArgumentException("Cannot write entry of type " + entry.getClass().getName() + " to an index snapshot: " + entry);
+		}
+
+		// registered after the entry's own components, the reader assigns indices in the same order
+		this.entries.put(key, this.entries.size());
+	}
+
+	public void writeEntries(Collection<? extends Entry<?>> entries) throws IOException {
+		this.out.writeInt(entries.size());
+		for (Entry<?> entry : entries) {
+			this.writeEntry(entry);
+		}
+	}
+
+	public void writeEntryMap(Map<? extends Entry<?>, ? extends Entry<?>> map) throws IOException {
+		this.out.writeInt(map.size());
+		for (Map.Entry<? extends Entry<?>, ? extends Entry<?>> mapEntry : map.entrySet()) {
+			this.writeEntry(mapEntry.getKey());
+			this.writeEntry(mapEntry.getValue());
+		}
+	}
+
+	public void writeEntryMultimap(Multimap<? extends Entry<?>, ? extends Entry<?>> multimap) throws IOException {
+		this.out.writeInt(multimap.keySet().size());
+		for (Map.Entry<? extends Entry<?>, ? extends Collection<? extends Entry<?>>> mapEntry : multimap.asMap().entrySet()) {
+			this.writeEntry(mapEntry.getKey());
+			this.writeEntries(mapEntry.getValue());
+		}
+	}
+
+	public void writeReference(EntryReference<?, ?> reference) throws IOException {
+		this.writeEntry(reference.entry);
+		this.writeEntry(reference.context);
+		this.out.writeBoolean(reference.isDeclaration());
+		this.out.writeBoolean(reference.isNamed());
+		this.writeTargetType(reference.targetType);
+	}
+
+	public void writeTargetType(@Nullable ReferenceTargetType targetType) throws IOException {
+		this.out.writeByte(targetType == null ? NULL : targetType.getKind().ordinal());
+		if (targetType instanceof ReferenceTargetType.ClassType classType) {
+			this.writeEntry(classType.getEntry());
+		}
+	}
+
+	public void writeReferenceMultimap(Multimap<? extends Entry<?>, ? extends EntryReference<?, ?>> multimap) throws IOException {
+		this.out.writeInt(multimap.keySet().size());
+		for (Map.Entry<? extends Entry<?>, ? extends Collection<? extends EntryReference<?, ?>>> mapEntry : multimap.asMap().entrySet()) {
+			this.writeEntry(mapEntry.getKey());
+			this.out.writeInt(mapEntry.getValue().size());
+			for (EntryReference<?, ?> reference : mapEntry.getValue()) {
+				this.writeReference(reference);
+			}
+		}
+	}
+
+	/**
+	 * Entries are compared by type as well, so that an entry and its definition are not merged.
+	 * Definitions created while visiting references do not carry parameter access flags, so those are compared as well.
+	 */
+	private record EntryKey(Class<?> type, Entry<?> entry, @Nullable List<Integer> parameterAccess) {
+		static EntryKey of(Entry<?> entry) {
+			List<Integer> parameterAccess = entry instanceof MethodDefEntry methodDef
+					? methodDef.getDesc().getArgumentDescs().stream().map(argument -> argument.getAccess().getFlags()).toList()
+					: null;
+			return new EntryKey(entry.getClass(), entry, parameterAccess);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import com.google.gson.annotations.SerializedName;
+
+import javax.annotation.Nullable;
+
+public record IndexingParameters(
+		@SerializedName("parallel") boolean parallel,
+		@SerializedName("cache_directory") @Nullable String cacheDirectory,
+		@SerializedName("lazy_libraries") boolean lazyLibraries,
+		@SerializedName("index_jdk") boolean indexJdk
+) {
+	/**
+	 * Controls whether classes will be indexed on multiple threads.
+	 * Only has an effect when every indexer of the jar index is {@linkplain JarIndexer#isShardable() shardable}.
+	 */
+	@Override
+	public boolean parallel() {
+		return this.parallel;
+	}
+
+	/**
+	 * The directory in which snapshots of the main jar index are stored, relative to the profile.
+	 * When set, a jar that was already indexed is loaded from its snapshot instead of being indexed again,
+	 * and a new version of a jar only visits the classes that changed since the last indexed jar.
+	 * Snapshots are only used when every indexer of the jar index is {@linkplain JarIndexer#isSnapshotable() snapshotable}.
+	 */
+	@Override
+	@Nullable
+	public String cacheDirectory() {
+		return this.cacheDirectory;
+	}
+
+	/**
+	 * Controls whether only the library classes the main jar depends on are indexed, instead of every class of the libraries.
+	 * Those are the library classes the main jar extends or references, along with all of their ancestors.
+	 * Indexing time and memory then scale with the main jar rather than with its classpath.
+	 *
+	 * <p>
+	 * The classes are found once, when the project is opened, rather than when they are first looked up:
+	 * indices are processed after indexing, and can't take any more classes afterwards.
+	 * Library classes the main jar doesn't depend on are never read.
+	 */
+	@Override
+	public boolean lazyLibraries() {
+		return this.lazyLibraries;
+	}
+
+	/**
+	 * Controls whether every class of the running JDK is provided as a library, read from its {@code jrt:/} filesystem,
+	 * instead of only {@code java.lang.Object} and {@code java.lang.Record}.
+	 * When a {@linkplain #cacheDirectory() cache directory} is set and libraries are not {@linkplain #lazyLibraries() lazy},
+	 * the JDK classes are only visited once per JDK version, and replayed into the library index of every later project.
+	 */
+	@Override
+	public boolean indexJdk() {
+		return this.indexJdk;
+	}
+}
@@ -2,13 +2,22 @@ package org.quiltmc.enigma.api.analysis.index.jar;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 
+import java.io.IOException;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class InheritanceIndex implements JarIndexer {
@@ -17,16 +26,14 @@ public class InheritanceIndex implements JarIndexer {
 	private final Multimap<ClassEntry, ClassEntry> classParents = HashMultimap.create();
 	private final Multimap<ClassEntry, ClassEntry> classChildren = HashMultimap.create();
 
+	private volatile Closure closure;
+
 	public InheritanceIndex(EntryIndex entryIndex) {
 		this.entryIndex = entryIndex;
 	}
 
 	@Override
 	public void indexClass(ClassDefEntry classEntry) {
-		if (classEntry.isJre()) {
-			return;
-		}
-
 		ClassEntry superClass = classEntry.getSuperClass();
 		if (superClass != null && !superClass.getName().equals("java/lang/Object")) {
 			this.indexParent(classEntry, superClass);
@@ -40,58 +47,87 @@ public class InheritanceIndex implements JarIndexer {
 	private void indexParent(ClassEntry childEntry, ClassEntry parentEntry) {
 		this.classParents.put(childEntry, parentEntry);
 		this.classChildren.put(parentEntry, childEntry);
+		this.invalidateClosure();
 	}
 
-	public Collection<ClassEntry> getParents(ClassEntry classEntry) {
-		return this.classParents.get(classEntry);
+	@Override
+	public boolean isShardable() {
+		return true;
 	}
 
-	public Collection<ClassEntry> getChildren(ClassEntry classEntry) {
-		return this.classChildren.get(classEntry);
+	@Override
+	public InheritanceIndex createShard() {
+		return new InheritanceIndex(this.entryIndex);
 	}
 
-	public Collection<ClassEntry> getDescendants(ClassEntry classEntry) {
-		Collection<ClassEntry> descendants = new HashSet<>();
-
-		LinkedList<ClassEntry> descendantQueue = new LinkedList<>();
-		descendantQueue.push(classEntry);
+	@Override
+	public void mergeShard(JarIndexer shard) {
+		InheritanceIndex inheritanceShard = (InheritanceIndex) shard;
+		this.classParents.putAll(inheritanceShard.classParents);
+		this.classChildren.putAll(inheritanceShard.classChildren);
+		this.invalidateClosure();
+	}
 
-		while (!descendantQueue.isEmpty()) {
-			ClassEntry descendant = descendantQueue.pop();
-			Collection<ClassEntry> children = this.getChildren(descendant);
+	@Override
+	public boolean isSnapshotable() {
+		return true;
+	}
 
-			children.forEach(descendantQueue::push);
-			descendants.addAll(children);
-		}
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		writer.writeEntryMultimap(this.classParents);
+		writer.writeEntryMultimap(this.classChildren);
+	}
 
-		return descendants;
+	@Override
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		reader.readEntryMultimap(this.classParents);
+		reader.readEntryMultimap(this.classChildren);
+		this.invalidateClosure();
 	}
 
-	public Set<ClassEntry> getAncestors(ClassEntry classEntry) {
-		Set<ClassEntry> ancestors = Sets.newHashSet();
+	public Collection<ClassEntry> getParents(ClassEntry classEntry) {
+		return this.classParents.get(classEntry);
+	}
 
-		LinkedList<ClassEntry> ancestorQueue = new LinkedList<>();
-		ancestorQueue.push(classEntry);
+	public Collection<ClassEntry> getChildren(ClassEntry classEntry) {
+		return this.classChildren.get(classEntry);
+	}
 
-		while (!ancestorQueue.isEmpty()) {
-			ClassEntry ancestor = ancestorQueue.pop();
-			Collection<ClassEntry> parents = this.getParents(ancestor);
+	/**
+	 * {@return an immutable view of all descendants of a class}
+	 * Closer descendants are generally iterated first.
+	 */
+	public Collection<ClassEntry> getDescendants(ClassEntry classEntry) {
+		return this.getClosure().getDescendants(classEntry);
+	}
 
-			parents.forEach(ancestorQueue::push);
-			ancestors.addAll(parents);
-		}
+	/**
+	 * {@return an immutable view of all ancestors of a class}
+	 * Ancestors are iterated in reverse topological order, so each ancestor comes before its own ancestors.
+	 */
+	public Set<ClassEntry> getAncestors(ClassEntry classEntry) {
+		return this.getClosure().getAncestors(classEntry);
+	}
 
-		return ancestors;
+	/**
+	 * Checks whether a class is a strict ancestor of another, without building their ancestry.
+	 *
+	 * @param ancestor the potential ancestor
+	 * @param classEntry the potential descendant
+	 * @return whether {@code classEntry} extends or implements {@code ancestor}, directly or not
+	 */
+	public boolean isAncestor(ClassEntry ancestor, ClassEntry classEntry) {
+		return this.getClosure().isAncestor(ancestor, classEntry);
 	}
 
 	public Relation computeClassRelation(ClassEntry classEntry, ClassEntry potentialAncestor) {
 		if (potentialAncestor.getName().equals("java/lang/Object")) return Relation.RELATED;
 		if (!this.entryIndex.hasClass(classEntry)) return Relation.UNKNOWN;
+		if (this.isAncestor(potentialAncestor, classEntry)) return Relation.RELATED;
 
 		for (ClassEntry ancestor : this.getAncestors(classEntry)) {
-			if (potentialAncestor.equals(ancestor)) {
-				return Relation.RELATED;
-			} else if (!this.entryIndex.hasClass(ancestor)) {
+			if (!this.entryIndex.hasClass(ancestor)) {
 				return Relation.UNKNOWN;
 			}
 		}
@@ -108,6 +144,27 @@ public class InheritanceIndex implements JarIndexer {
 		return !parents.isEmpty();
 	}
 
+	private Closure getClosure() {
+		Closure closure = this.closure;
+		if (closure == null) {
+			synchronized (this) {
+				closure = this.closure;
+				if (closure == null) {
+					closure = new Closure(this.classParents, this.classChildren);
+					this.closure = closure;
+				}
+			}
+		}
+
+		return closure;
+	}
+
+	private void invalidateClosure() {
+		if (this.closure != null) {
+			this.closure = null;
+		}
+	}
+
 	@Override
 	public String getTranslationKey() {
 		return "progress.jar.indexing.process.inheritance";
@@ -118,4 +175,193 @@ public class InheritanceIndex implements JarIndexer {
 		UNRELATED,
 		UNKNOWN
 	}
+
+	/**
+	 * The transitive closure of the inheritance graph. It is built on first use after indexing, and discarded whenever the graph changes.
+	 *
+	 * <p>
+	 * Classes are given dense ids in topological order, so that parents have lower ids than their children.
+	 * The ancestors and descendants of each class are sorted arrays of ids,
+	 * returned as immutable set views, and checking ancestry is a binary search over the few ancestors of a class.
+	 */
+	private static final class Closure {
+		private static final int[] NONE = new int[0];
+
+		private final Map<ClassEntry, Integer> ids;
+		private final ClassEntry[] classes;
+		private final int[][] ancestors;
+		private final int[][] descendants;
+
+		Closure(Multimap<ClassEntry, ClassEntry> parents, Multimap<ClassEntry, ClassEntry> children) {
+			this.classes = sortTopologically(parents, children);
+			this.ids = new HashMap<>(this.classes.length * 4 / 3 + 1);
+			for (int id = 0; id < this.classes.length; id++) {
+				this.ids.put(this.classes[id], id);
+			}
+
+			int[][] parentIds = new int[this.classes.length][];
+			for (int id = 0; id < this.classes.length; id++) {
+				parentIds[id] = parents.get(this.classes[id]).stream().mapToInt(this.ids::get).toArray();
+			}
+
+			this.ancestors = new int[this.classes.length][];
+			int[] visited = new int[this.classes.length];
+			int[] stack = new int[this.classes.length];
+			int[] descendantCounts = new int[this.classes.length];
+			for (int id = 0; id < this.classes.length; id++) {
+				// visits are marked with the id of the class plus one, so the marks never need clearing
+				int mark = id + 1;
+				int found = 0;
+				int size = 0;
+				for (int parent : parentIds[id]) {
+					if (visited[parent] != mark) {
+						visited[parent] = mark;
+						stack[size++] = parent;
+					}
+				}
+
+				int[] ancestors = new int[8];
+				while (size > 0) {
+					int ancestor = stack[--size];
+					if (found == ancestors.length) {
+						ancestors = Arrays.copyOf(ancestors, found * 2);
+					}
+
+					ancestors[found++] = ancestor;
+					descendantCounts[ancestor]++;
+					for (int parent : parentIds[ancestor]) {
+						if (visited[parent] != mark) {
+							visited[parent] = mark;
+							stack[size++] = parent;
+						}
+					}
+				}
+
+				if (found == 0) {
+					this.ancestors[id] = NONE;
+				} else {
+					this.ancestors[id] = Arrays.copyOf(ancestors, found);
+					Arrays.sort(this.ancestors[id]);
+				}
+			}
+
+			this.descendants = new int[this.classes.length][];
+			for (int id = 0; id < this.classes.length; id++) {
+				this.descendants[id] = descendantCounts[id] == 0 ? NONE : new int[descendantCounts[id]];
+			}
+
+			// filled in increasing order of descendant ids, so they are sorted
+			int[] filled = new int[this.classes.length];
+			for (int id = 0; id < this.classes.length; id++) {
+				for (int ancestor : this.ancestors[id]) {
+					this.descendants[ancestor][filled[ancestor]++] = id;
+				}
+			}
+		}
+
+		/**
+		 * Sorts classes with Kahn's algorithm, parents first.
+		 * Cyclic inheritance is invalid, but classes in a cycle are still appended at the end.
+		 */
+		private static ClassEntry[] sortTopologically(Multimap<ClassEntry, ClassEntry> parents, Multimap<ClassEntry, ClassEntry> children) {
+			Set<ClassEntry> classes = new HashSet<>(parents.keySet());
+			classes.addAll(children.keySet());
+
+			Map<ClassEntry, Integer> remainingParents = new HashMap<>();
+			Deque<ClassEntry> ready = new ArrayDeque<>();
+			for (ClassEntry classEntry : classes) {
+				int parentCount = parents.get(classEntry).size();
+				if (parentCount == 0) {
+					ready.add(classEntry);
+				} else {
+					remainingParents.put(classEntry, parentCount);
+				}
+			}
+
+			List<ClassEntry> sorted = new ArrayList<>(classes.size());
+			while (!ready.isEmpty()) {
+				ClassEntry classEntry = ready.poll();
+				sorted.add(classEntry);
+				for (ClassEntry child : children.get(classEntry)) {
+					if (remainingParents.merge(child, -1, Integer::sum) == 0) {
+						ready.add(child);
+					}
+				}
+			}
+
+			if (sorted.size() < classes.size()) {
+				remainingParents.forEach((classEntry, remaining) -> {
+					if (remaining > 0) {
+						sorted.add(classEntry);
+					}
+				});
+			}
+
+			return sorted.toArray(ClassEntry[]::new);
+		}
+
+		Set<ClassEntry> getAncestors(ClassEntry classEntry) {
+			Integer id = this.ids.get(classEntry);
+			return id == null ? Set.of() : new ClassSet(this.ancestors[id], true);
+		}
+
+		Set<ClassEntry> getDescendants(ClassEntry classEntry) {
+			Integer id = this.ids.get(classEntry);
+			return id == null ? Set.of() : new ClassSet(this.descendants[id], false);
+		}
+
+		boolean isAncestor(ClassEntry ancestor, ClassEntry classEntry) {
+			Integer id = this.ids.get(classEntry);
+			if (id == null) {
+				return false;
+			}
+
+			Integer ancestorId = this.ids.get(ancestor);
+			return ancestorId != null && Arrays.binarySearch(this.ancestors[id], ancestorId) >= 0;
+		}
+
+		private final class ClassSet extends AbstractSet<ClassEntry> {
+			private final int[] ids;
+			private final boolean reversed;
+
+			ClassSet(int[] ids, boolean reversed) {
+				this.ids = ids;
+				this.reversed = reversed;
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				Integer id = o instanceof ClassEntry classEntry ? Closure.this.ids.get(classEntry) : null;
+				return id != null && Arrays.binarySearch(this.ids, id) >= 0;
+			}
+
+			@Override
+			public Iterator<ClassEntry> iterator() {
+				return new Iterator<>() {
+					private int index;
+
+					@Override
+					public boolean hasNext() {
+						return this.index < ClassSet.this.ids.length;
+					}
+
+					@Override
+					public ClassEntry next() {
+						if (!this.hasNext()) {
+							throw new NoSuchElementException();
+						}
+
+						int[] ids = ClassSet.this.ids;
+						int i = this.index++;
+						return Closure.this.classes[ids[ClassSet.this.reversed ? ids.length - 1 - i : i]];
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return this.ids.length;
+			}
+		}
+	}
 }
@@ -23,7 +23,20 @@ public interface JarIndex extends JarIndexer {
 	 * @param classProvider a class provider containing all classes in the jar
 	 * @param progress a progress listener to track index completion
 	 */
-	void indexJar(Set<String> classNames, ClassProvider classProvider, ProgressListener progress);
+	default void indexJar(Set<String> classNames, ClassProvider classProvider, ProgressListener progress) {
+		this.indexJar(classNames, classProvider, progress, false);
+	}
+
+	/**
+	 * Runs every configured indexer over the provided jar.
+	 * If {@code parallel} is set and every indexer is {@linkplain JarIndexer#isShardable() shardable},
+	 * classes are visited on multiple threads, in which case the class provider must be safe to use concurrently.
+	 * @param classNames the obfuscated names of each class in the jar
+	 * @param classProvider a class provider containing all classes in the jar
+	 * @param progress a progress listener to track index completion
+	 * @param parallel whether classes may be visited on multiple threads
+	 */
+	void indexJar(Set<String> classNames, ClassProvider classProvider, ProgressListener progress, boolean parallel);
 
 	/**
 	 * {@return an entry resolver with this index's contents as context}
@@ -9,6 +9,9 @@ import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+
 public interface JarIndexer {
 	default void indexClass(ClassDefEntry classEntry) {
 	}
@@ -37,6 +40,69 @@ public interface JarIndexer {
 	default void processIndex(JarIndex index) {
 	}
 
+	/**
+	 * Whether this indexer can be split into shards, which are filled independently from each other and then merged back together.
+	 * When every indexer of a {@link JarIndex} is shardable, classes can be visited on multiple threads at once.
+	 * Otherwise, classes are visited on a single thread, and {@link #createShard()} and {@link #mergeShard(JarIndexer)} are never called.
+	 *
+	 * @return whether this indexer supports sharding
+	 */
+	default boolean isShardable() {
+		return false;
+	}
+
+	/**
+	 * Creates an empty shard of this indexer. The shard will only receive the data of a subset of classes,
+	 * and will then be {@linkplain #mergeShard(JarIndexer) merged} back into this indexer before {@link #processIndex(JarIndex)} is called.
+	 * A shard will only ever be accessed from a single thread. Only called if this indexer is {@linkplain #isShardable() shardable}.
+	 *
+	 * @return the new shard, or {@code null} if this indexer does not collect any data while classes are visited
+	 */
+	@Nullable
+	default JarIndexer createShard() {
+		return null;
+	}
+
+	/**
+	 * Merges the data collected by a shard into this indexer.
+	 * Shards are always merged in the same order, so that the result does not depend on how the work was scheduled.
+	 * Only called if this indexer is {@linkplain #isShardable() shardable}.
+	 *
+	 * @param shard a shard previously created by {@link #createShard()}
+	 */
+	default void mergeShard(JarIndexer shard) {
+	}
+
+	/**
+	 * Whether the processed state of this indexer can be saved to a snapshot, and restored from it in place of indexing.
+	 * When any indexer of a {@link JarIndex} is not snapshotable, the jar is always indexed,
+	 * and {@link #writeSnapshot(IndexSnapshotWriter)} and {@link #readSnapshot(IndexSnapshotReader)} are never called.
+	 *
+	 * @return whether this indexer supports snapshots
+	 */
+	default boolean isSnapshotable() {
+		return false;
+	}
+
+	/**
+	 * Writes the state of this indexer, after {@link #processIndex(JarIndex)} has been called.
+	 * Only called if this indexer is {@linkplain #isSnapshotable() snapshotable}.
+	 *
+	 * @param writer the snapshot to write to
+	 */
+	default void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+	}
+
+	/**
+	 * Restores the state written by {@link #writeSnapshot(IndexSnapshotWriter)} into this empty indexer.
+	 * Once read, the indexer must be in the same state as if it had indexed and processed the jar itself.
+	 * Only called if this indexer is {@linkplain #isSnapshotable() snapshotable}.
+	 *
+	 * @param reader the snapshot to read from
+	 */
+	default void readSnapshot(IndexSnapshotReader reader) throws IOException {
+	}
+
 	String getTranslationKey();
 
 	record EnclosingMethodData(String owner, String name, String descriptor) {
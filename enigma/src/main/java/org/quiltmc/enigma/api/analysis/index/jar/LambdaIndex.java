@@ -1,6 +1,8 @@
 package org.quiltmc.enigma.api.analysis.index.jar;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
 import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
 import org.quiltmc.enigma.api.translation.representation.AccessFlags;
 import org.quiltmc.enigma.api.translation.representation.Lambda;
@@ -8,6 +10,7 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +28,23 @@ public class LambdaIndex implements JarIndexer {
 		this.lambdasBuilder.put(callerEntry, implMethod);
 	}
 
+	@Override
+	public boolean isShardable() {
+		return true;
+	}
+
+	@Override
+	public LambdaIndex createShard() {
+		return new LambdaIndex();
+	}
+
+	@Override
+	public void mergeShard(JarIndexer shard) {
+		LambdaIndex lambdaShard = (LambdaIndex) shard;
+		this.callers.putAll(lambdaShard.callers);
+		this.lambdasBuilder.putAll(lambdaShard.lambdasBuilder.build());
+	}
+
 	@Override
 	public void processIndex(JarIndex index) {
 		var nestedLambdas = this.lambdasBuilder.build();
@@ -57,6 +77,26 @@ public class LambdaIndex implements JarIndexer {
 		this.lambdas = multilevelLambdasBuilder.build();
 	}
 
+	@Override
+	public boolean isSnapshotable() {
+		return true;
+	}
+
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		writer.writeEntryMap(this.callers);
+		writer.writeEntryMultimap(this.lambdas);
+	}
+
+	@Override
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		reader.readEntryMap(this.callers);
+
+		ListMultimap<MethodEntry, MethodEntry> lambdas = ArrayListMultimap.create();
+		reader.readEntryMultimap(lambdas);
+		this.lambdas = ImmutableListMultimap.copyOf(lambdas);
+	}
+
 	/**
 	 * {@return the top-level method that contains the given lambda}
 	 * @param lambda the lambda to get the caller for
@@ -1,8 +1,5 @@
 package org.quiltmc.enigma.api.analysis.index.jar;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
 import org.quiltmc.enigma.api.translation.representation.AccessFlags;
@@ -12,13 +9,17 @@ import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 public class PackageVisibilityIndex implements JarIndexer {
 	private static boolean requiresSamePackage(AccessFlags entryAcc, EntryReference<?, ?> ref, InheritanceIndex inheritanceIndex) {
@@ -30,7 +31,7 @@ public class PackageVisibilityIndex implements JarIndexer {
 			ClassEntry contextClass = ref.context.getContainingClass();
 			ClassEntry referencedClass = ref.entry.getContainingClass();
 
-			if (!inheritanceIndex.getAncestors(contextClass).contains(referencedClass)) {
+			if (!inheritanceIndex.isAncestor(referencedClass, contextClass)) {
 				return true; // access to protected member not in superclass
 			}
 
@@ -41,67 +42,76 @@ public class PackageVisibilityIndex implements JarIndexer {
 			// access to instance member only valid if target's class assignable to context class
 			return !(ref.targetType.getKind() == ReferenceTargetType.Kind.UNINITIALIZED
 					|| ((ReferenceTargetType.ClassType) ref.targetType).getEntry().equals(contextClass)
-					|| inheritanceIndex.getAncestors(((ReferenceTargetType.ClassType) ref.targetType).getEntry()).contains(contextClass));
+					|| inheritanceIndex.isAncestor(contextClass, ((ReferenceTargetType.ClassType) ref.targetType).getEntry()));
 		}
 
 		return true;
 	}
 
-	private final HashMultimap<ClassEntry, ClassEntry> connections = HashMultimap.create();
 	private final List<Set<ClassEntry>> partitions = new ArrayList<>();
-	private final Map<ClassEntry, Set<ClassEntry>> classPartitions = Maps.newHashMap();
+	private final Map<ClassEntry, Integer> classIds = new HashMap<>();
+	private int[] classPartitions = new int[0];
 
-	private void addConnection(ClassEntry classA, ClassEntry classB) {
-		if (classA != classB) {
-			this.connections.put(classA, classB);
-			this.connections.put(classB, classA);
-		}
-	}
+	/**
+	 * Finds the connections between classes that must stay in the same package.
+	 * Fields, methods and classes are checked in parallel, as the indices are only read by now.
+	 */
+	private List<Connections> findConnections(EntryIndex entryIndex, ReferenceIndex referenceIndex, InheritanceIndex inheritanceIndex) {
+		List<Supplier<Connections>> tasks = List.of(
+				() -> this.findFieldConnections(entryIndex, referenceIndex, inheritanceIndex),
+				() -> this.findMethodConnections(entryIndex, referenceIndex, inheritanceIndex),
+				() -> this.findClassConnections(entryIndex, referenceIndex, inheritanceIndex)
+		);
 
-	private void buildPartition(Set<ClassEntry> unassignedClasses, Set<ClassEntry> partition, ClassEntry member) {
-		for (ClassEntry connected : this.connections.get(member)) {
-			if (unassignedClasses.remove(connected)) {
-				partition.add(connected);
-				this.buildPartition(unassignedClasses, partition, connected);
-			}
-		}
+		return tasks.parallelStream().map(Supplier::get).toList();
 	}
 
-	private void addConnections(EntryIndex entryIndex, ReferenceIndex referenceIndex, InheritanceIndex inheritanceIndex) {
+	private Connections findFieldConnections(EntryIndex entryIndex, ReferenceIndex referenceIndex, InheritanceIndex inheritanceIndex) {
+		Connections connections = new Connections();
 		for (FieldEntry entry : entryIndex.getFields()) {
 			AccessFlags entryAcc = entryIndex.getFieldAccess(entry);
 			if (!entryAcc.isPublic() && !entryAcc.isPrivate()) {
 				for (EntryReference<FieldEntry, MethodDefEntry> ref : referenceIndex.getReferencesToField(entry)) {
 					if (requiresSamePackage(entryAcc, ref, inheritanceIndex)) {
-						this.addConnection(ref.entry.getContainingClass(), ref.context.getContainingClass());
+						connections.add(ref.entry.getContainingClass(), ref.context.getContainingClass());
 					}
 				}
 			}
 		}
 
+		return connections;
+	}
+
+	private Connections findMethodConnections(EntryIndex entryIndex, ReferenceIndex referenceIndex, InheritanceIndex inheritanceIndex) {
+		Connections connections = new Connections();
 		for (MethodEntry entry : entryIndex.getMethods()) {
 			AccessFlags entryAcc = entryIndex.getMethodAccess(entry);
 			if (!entryAcc.isPublic() && !entryAcc.isPrivate()) {
 				for (EntryReference<MethodEntry, MethodDefEntry> ref : referenceIndex.getReferencesToMethod(entry)) {
 					if (requiresSamePackage(entryAcc, ref, inheritanceIndex)) {
-						this.addConnection(ref.entry.getContainingClass(), ref.context.getContainingClass());
+						connections.add(ref.entry.getContainingClass(), ref.context.getContainingClass());
 					}
 				}
 			}
 		}
 
+		return connections;
+	}
+
+	private Connections findClassConnections(EntryIndex entryIndex, ReferenceIndex referenceIndex, InheritanceIndex inheritanceIndex) {
+		Connections connections = new Connections();
 		for (ClassEntry entry : entryIndex.getClasses()) {
 			AccessFlags entryAcc = entryIndex.getClassAccess(entry);
 			if (!entryAcc.isPublic() && !entryAcc.isPrivate()) {
 				for (EntryReference<ClassEntry, FieldDefEntry> ref : referenceIndex.getFieldTypeReferencesToClass(entry)) {
 					if (requiresSamePackage(entryAcc, ref, inheritanceIndex)) {
-						this.addConnection(ref.entry.getContainingClass(), ref.context.getContainingClass());
+						connections.add(ref.entry.getContainingClass(), ref.context.getContainingClass());
 					}
 				}
 
 				for (EntryReference<ClassEntry, MethodDefEntry> ref : referenceIndex.getMethodTypeReferencesToClass(entry)) {
 					if (requiresSamePackage(entryAcc, ref, inheritanceIndex)) {
-						this.addConnection(ref.entry.getContainingClass(), ref.context.getContainingClass());
+						connections.add(ref.entry.getContainingClass(), ref.context.getContainingClass());
 					}
 				}
 			}
@@ -109,40 +119,77 @@ public class PackageVisibilityIndex implements JarIndexer {
 			for (ClassEntry parent : inheritanceIndex.getParents(entry)) {
 				AccessFlags parentAcc = entryIndex.getClassAccess(parent);
 				if (parentAcc != null && !parentAcc.isPublic() && !parentAcc.isPrivate()) {
-					this.addConnection(entry, parent);
+					connections.add(entry, parent);
 				}
 			}
 
 			ClassEntry outerClass = entry.getOuterClass();
 			if (outerClass != null) {
-				this.addConnection(entry, outerClass);
+				connections.add(entry, outerClass);
 			}
 		}
+
+		return connections;
 	}
 
-	private void addPartitions(EntryIndex entryIndex) {
-		Set<ClassEntry> unassignedClasses = Sets.newHashSet(entryIndex.getClasses());
-		while (!unassignedClasses.isEmpty()) {
-			Iterator<ClassEntry> iterator = unassignedClasses.iterator();
-			ClassEntry initialEntry = iterator.next();
-			iterator.remove();
+	/**
+	 * Partitions the indexed classes by merging connected classes in a disjoint-set forest.
+	 * Classes which are not indexed are left out, and do not connect the classes connected to them.
+	 */
+	private void addPartitions(EntryIndex entryIndex, List<Connections> connections) {
+		for (ClassEntry entry : entryIndex.getClasses()) {
+			this.classIds.putIfAbsent(entry, this.classIds.size());
+		}
 
-			HashSet<ClassEntry> partition = Sets.newHashSet();
-			partition.add(initialEntry);
-			this.buildPartition(unassignedClasses, partition, initialEntry);
-			this.partitions.add(partition);
-			for (ClassEntry entry : partition) {
-				this.classPartitions.put(entry, partition);
+		ClassEntry[] classes = new ClassEntry[this.classIds.size()];
+		this.classIds.forEach((entry, id) -> classes[id] = entry);
+
+		DisjointSets sets = new DisjointSets(classes.length);
+		for (Connections classConnections : connections) {
+			for (int i = 0; i < classConnections.size; i += 2) {
+				Integer a = this.classIds.get(classConnections.classes[i]);
+				Integer b = this.classIds.get(classConnections.classes[i + 1]);
+				if (a != null && b != null) {
+					sets.union(a, b);
+				}
 			}
 		}
+
+		this.classPartitions = new int[classes.length];
+		int[] rootPartitions = new int[classes.length];
+		Arrays.fill(rootPartitions, -1);
+		for (int id = 0; id < classes.length; id++) {
+			int root = sets.find(id);
+			if (rootPartitions[root] == -1) {
+				rootPartitions[root] = this.partitions.size();
+				this.partitions.add(new HashSet<>());
+			}
+
+			this.classPartitions[id] = rootPartitions[root];
+			this.partitions.get(rootPartitions[root]).add(classes[id]);
+		}
 	}
 
 	public Collection<Set<ClassEntry>> getPartitions() {
 		return this.partitions;
 	}
 
+	@Nullable
 	public Set<ClassEntry> getPartition(ClassEntry classEntry) {
-		return this.classPartitions.get(classEntry);
+		Integer id = this.classIds.get(classEntry);
+		return id == null ? null : this.partitions.get(this.classPartitions[id]);
+	}
+
+	@Override
+	public boolean isShardable() {
+		return true;
+	}
+
+	@Nullable
+	@Override
+	public JarIndexer createShard() {
+		// partitions are only built once all references have been indexed
+		return null;
 	}
 
 	@Override
@@ -150,12 +197,106 @@ public class PackageVisibilityIndex implements JarIndexer {
 		EntryIndex entryIndex = index.getIndex(EntryIndex.class);
 		ReferenceIndex referenceIndex = index.getIndex(ReferenceIndex.class);
 		InheritanceIndex inheritanceIndex = index.getIndex(InheritanceIndex.class);
-		this.addConnections(entryIndex, referenceIndex, inheritanceIndex);
-		this.addPartitions(entryIndex);
+		this.addPartitions(entryIndex, this.findConnections(entryIndex, referenceIndex, inheritanceIndex));
+	}
+
+	@Override
+	public boolean isSnapshotable() {
+		return true;
+	}
+
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		// connections are never kept, they are only needed to build the partitions
+		writer.writeInt(this.partitions.size());
+		for (Set<ClassEntry> partition : this.partitions) {
+			writer.writeEntries(partition);
+		}
+	}
+
+	@Override
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		int size = reader.readInt();
+		List<Integer> classPartitions = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Set<ClassEntry> partition = new HashSet<>();
+			reader.readEntries(partition);
+			this.partitions.add(partition);
+			for (ClassEntry entry : partition) {
+				this.classIds.put(entry, classPartitions.size());
+				classPartitions.add(i);
+			}
+		}
+
+		this.classPartitions = classPartitions.stream().mapToInt(Integer::intValue).toArray();
 	}
 
 	@Override
 	public String getTranslationKey() {
 		return "progress.jar.indexing.process.package_visibility";
 	}
+
+	/**
+	 * Pairs of connected classes, found on a single thread.
+	 */
+	private static final class Connections {
+		private ClassEntry[] classes = new ClassEntry[32];
+		private int size;
+
+		void add(ClassEntry classA, ClassEntry classB) {
+			if (classA == classB) {
+				return;
+			}
+
+			if (this.size == this.classes.length) {
+				this.classes = Arrays.copyOf(this.classes, this.size * 2);
+			}
+
+			this.classes[this.size++] = classA;
+			this.classes[this.size++] = classB;
+		}
+	}
+
+	/**
+	 * A union-find structure over class ids, with union by size and path halving.
+	 */
+	private static final class DisjointSets {
+		private final int[] parents;
+		private final int[] sizes;
+
+		DisjointSets(int count) {
+			this.parents = new int[count];
+			this.sizes = new int[count];
+			for (int i = 0; i < count; i++) {
+				this.parents[i] = i;
+				this.sizes[i] = 1;
+			}
+		}
+
+		int find(int element) {
+			while (this.parents[element] != element) {
+				this.parents[element] = this.parents[this.parents[element]];
+				element = this.parents[element];
+			}
+
+			return element;
+		}
+
+		void union(int a, int b) {
+			int rootA = this.find(a);
+			int rootB = this.find(b);
+			if (rootA == rootB) {
+				return;
+			}
+
+			if (this.sizes[rootA] < this.sizes[rootB]) {
+				int swap = rootA;
+				rootA = rootB;
+				rootB = swap;
+			}
+
+			this.parents[rootB] = rootA;
+			this.sizes[rootA] += this.sizes[rootB];
+		}
+	}
 }
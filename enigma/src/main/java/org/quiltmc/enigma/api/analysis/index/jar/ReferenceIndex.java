@@ -4,6 +4,7 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.representation.Lambda;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
@@ -14,10 +15,29 @@ import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+import org.quiltmc.enigma.impl.analysis.index.EntryPool;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
+/**
+ * Indexes the references between entries.
+ *
+ * <p>
+ * References are collected into multimaps while indexing.
+ * Once processed, they are resolved and moved to compact {@link ReferenceTable}s, after which no more references can be indexed,
+ * and lookups return read-only views.
+ */
 public class ReferenceIndex implements JarIndexer {
 	private Multimap<MethodEntry, MethodEntry> methodReferences = HashMultimap.create();
 
@@ -27,8 +47,16 @@ public class ReferenceIndex implements JarIndexer {
 	private Multimap<ClassEntry, EntryReference<ClassEntry, FieldDefEntry>> fieldTypeReferences = HashMultimap.create();
 	private Multimap<ClassEntry, EntryReference<ClassEntry, MethodDefEntry>> methodTypeReferences = HashMultimap.create();
 
+	private ReferenceTable<MethodEntry, MethodEntry> methodReferencesTable;
+	private ReferenceTable<MethodEntry, MethodDefEntry> referencesToMethodsTable;
+	private ReferenceTable<ClassEntry, MethodDefEntry> referencesToClassesTable;
+	private ReferenceTable<FieldEntry, MethodDefEntry> referencesToFieldsTable;
+	private ReferenceTable<ClassEntry, FieldDefEntry> fieldTypeReferencesTable;
+	private ReferenceTable<ClassEntry, MethodDefEntry> methodTypeReferencesTable;
+
 	@Override
 	public void indexMethod(MethodDefEntry methodEntry) {
+		this.checkNotProcessed();
 		this.indexMethodDescriptor(methodEntry, methodEntry.getDesc());
 	}
 
@@ -51,6 +79,7 @@ public class ReferenceIndex implements JarIndexer {
 
 	@Override
 	public void indexField(FieldDefEntry fieldEntry) {
+		this.checkNotProcessed();
 		this.indexFieldTypeDescriptor(fieldEntry, fieldEntry.getDesc());
 	}
 
@@ -65,11 +94,13 @@ public class ReferenceIndex implements JarIndexer {
 
 	@Override
 	public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
+		this.checkNotProcessed();
 		this.referencesToClasses.put(referencedEntry, new EntryReference<>(referencedEntry, referencedEntry.getName(), callerEntry, targetType));
 	}
 
 	@Override
 	public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
+		this.checkNotProcessed();
 		this.referencesToMethods.put(referencedEntry, new EntryReference<>(referencedEntry, referencedEntry.getName(), callerEntry, targetType));
 		this.methodReferences.put(callerEntry, referencedEntry);
 
@@ -81,6 +112,7 @@ public class ReferenceIndex implements JarIndexer {
 
 	@Override
 	public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
+		this.checkNotProcessed();
 		this.referencesToFields.put(referencedEntry, new EntryReference<>(referencedEntry, referencedEntry.getName(), callerEntry, targetType));
 	}
 
@@ -97,66 +129,210 @@ public class ReferenceIndex implements JarIndexer {
 		this.indexMethodDescriptor(callerEntry, lambda.instantiatedMethodType());
 	}
 
+	@Override
+	public boolean isShardable() {
+		return true;
+	}
+
+	@Override
+	public ReferenceIndex createShard() {
+		return new ReferenceIndex();
+	}
+
+	@Override
+	public void mergeShard(JarIndexer shard) {
+		this.checkNotProcessed();
+		ReferenceIndex referenceShard = (ReferenceIndex) shard;
+		this.methodReferences.putAll(referenceShard.methodReferences);
+		this.referencesToMethods.putAll(referenceShard.referencesToMethods);
+		this.referencesToClasses.putAll(referenceShard.referencesToClasses);
+		this.referencesToFields.putAll(referenceShard.referencesToFields);
+		this.fieldTypeReferences.putAll(referenceShard.fieldTypeReferences);
+		this.methodTypeReferences.putAll(referenceShard.methodTypeReferences);
+	}
+
 	@Override
 	public void processIndex(JarIndex index) {
-		this.methodReferences = this.remapReferences(index, this.methodReferences);
-		this.referencesToMethods = this.remapReferencesTo(index, this.referencesToMethods);
-		this.referencesToClasses = this.remapReferencesTo(index, this.referencesToClasses);
-		this.referencesToFields = this.remapReferencesTo(index, this.referencesToFields);
-		this.fieldTypeReferences = this.remapReferencesTo(index, this.fieldTypeReferences);
-		this.methodTypeReferences = this.remapReferencesTo(index, this.methodTypeReferences);
+		this.buildTables(index);
 	}
 
-	private <K extends Entry<?>, V extends Entry<?>> Multimap<K, V> remapReferences(JarIndex index, Multimap<K, V> multimap) {
-		final int keySetSize = multimap.keySet().size();
-		Multimap<K, V> resolved = HashMultimap.create(multimap.keySet().size(), keySetSize == 0 ? 0 : multimap.size() / keySetSize);
-		for (Map.Entry<K, V> entry : multimap.entries()) {
-			resolved.put(this.remap(index, entry.getKey()), this.remap(index, entry.getValue()));
+	@Override
+	public boolean isSnapshotable() {
+		return true;
+	}
+
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		if (this.methodReferencesTable == null) {
+			throw new IllegalStateException("Cannot snapshot an unprocessed reference index");
 		}
 
-		return resolved;
+		this.methodReferencesTable.writeEntries(writer);
+		this.referencesToMethodsTable.writeReferences(writer);
+		this.referencesToClassesTable.writeReferences(writer);
+		this.referencesToFieldsTable.writeReferences(writer);
+		this.fieldTypeReferencesTable.writeReferences(writer);
+		this.methodTypeReferencesTable.writeReferences(writer);
 	}
 
-	private <E extends Entry<?>, C extends Entry<?>> Multimap<E, EntryReference<E, C>> remapReferencesTo(JarIndex index, Multimap<E, EntryReference<E, C>> multimap) {
-		final int keySetSize = multimap.keySet().size();
-		Multimap<E, EntryReference<E, C>> resolved = HashMultimap.create(keySetSize, keySetSize == 0 ? 0 : multimap.size() / keySetSize);
-		for (Map.Entry<E, EntryReference<E, C>> entry : multimap.entries()) {
-			resolved.put(this.remap(index, entry.getKey()), this.remap(index, entry.getValue()));
+	@Override
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		reader.readEntryMultimap(this.methodReferences);
+		reader.readReferenceMultimap(this.referencesToMethods);
+		reader.readReferenceMultimap(this.referencesToClasses);
+		reader.readReferenceMultimap(this.referencesToFields);
+		reader.readReferenceMultimap(this.fieldTypeReferences);
+		reader.readReferenceMultimap(this.methodTypeReferences);
+
+		// snapshots are taken of processed indices, so the references are already resolved
+		this.buildTables(null);
+	}
+
+	private void checkNotProcessed() {
+		if (this.methodReferencesTable != null) {
+			throw new IllegalStateException("Cannot index references once the reference index has been processed");
+		}
+	}
+
+	/**
+	 * Moves the references to compact tables, resolving them first if an index is given, and releases the multimaps.
+	 * The tables are built in parallel, only sharing the ids of their values.
+	 */
+	private void buildTables(@Nullable JarIndex index) {
+		Map<Entry<?>, Entry<?>> resolved = index != null ? this.resolveEntries(index) : null;
+
+		ReferenceTable.EntryIds ids = new ReferenceTable.EntryIds();
+		List<Runnable> builds = List.of(
+				() -> this.methodReferencesTable = this.buildTable(resolved, ids, this.methodReferences),
+				() -> this.referencesToMethodsTable = this.buildReferenceTable(resolved, ids, this.referencesToMethods),
+				() -> this.referencesToClassesTable = this.buildReferenceTable(resolved, ids, this.referencesToClasses),
+				() -> this.referencesToFieldsTable = this.buildReferenceTable(resolved, ids, this.referencesToFields),
+				() -> this.fieldTypeReferencesTable = this.buildReferenceTable(resolved, ids, this.fieldTypeReferences),
+				() -> this.methodTypeReferencesTable = this.buildReferenceTable(resolved, ids, this.methodTypeReferences)
+		);
+		builds.parallelStream().forEach(Runnable::run);
+		ids.finish();
+
+		this.methodReferences = null;
+		this.referencesToMethods = null;
+		this.referencesToClasses = null;
+		this.referencesToFields = null;
+		this.fieldTypeReferences = null;
+		this.methodTypeReferences = null;
+	}
+
+	/**
+	 * Resolves every distinct entry of all references once, in parallel.
+	 * Many references share the same entry or context, and resolving walks up the class hierarchy,
+	 * so the results are memoised and looked up when building the tables.
+	 *
+	 * <p>
+	 * Entries are compared by identity, which is cheaper than hashing them,
+	 * and keeps apart equal entries of different types like a method and its definition.
+	 * Referenced entries are pooled, and contexts are shared by all references of a method, so few are resolved twice.
+	 *
+	 * @return the resolved entries, keyed by the entries they were resolved from
+	 */
+	private Map<Entry<?>, Entry<?>> resolveEntries(JarIndex index) {
+		Set<Entry<?>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+		this.methodReferences.forEach((caller, method) -> {
+			distinct.add(caller);
+			distinct.add(method);
+		});
+
+		List<Multimap<? extends Entry<?>, ? extends EntryReference<?, ?>>> references = List.of(this.referencesToMethods, this.referencesToClasses, this.referencesToFields, this.fieldTypeReferences, this.methodTypeReferences);
+		for (Multimap<? extends Entry<?>, ? extends EntryReference<?, ?>> multimap : references) {
+			multimap.forEach((entry, reference) -> {
+				// the key of a reference is its entry
+				distinct.add(entry);
+				if (reference.context != null) {
+					distinct.add(reference.context);
+				}
+			});
+		}
+
+		EntryResolver resolver = index.getEntryResolver();
+		EntryPool pool = index instanceof AbstractJarIndex abstractIndex ? abstractIndex.getEntryPool() : new EntryPool();
+		List<Entry<?>> entries = new ArrayList<>(distinct);
+		Entry<?>[] results = new Entry<?>[entries.size()];
+		IntStream.range(0, results.length).parallel().forEach(i -> results[i] = pool.intern(resolver.resolveFirstEntry(entries.get(i), ResolutionStrategy.RESOLVE_CLOSEST)));
+
+		Map<Entry<?>, Entry<?>> resolved = new IdentityHashMap<>(results.length);
+		for (int i = 0; i < results.length; i++) {
+			resolved.put(entries.get(i), results[i]);
 		}
 
 		return resolved;
 	}
 
-	private <E extends Entry<?>> E remap(JarIndex index, E entry) {
-		return index.getEntryResolver().resolveFirstEntry(entry, ResolutionStrategy.RESOLVE_CLOSEST);
+	private <K extends Entry<?>, V extends Entry<?>> ReferenceTable<K, V> buildTable(@Nullable Map<Entry<?>, Entry<?>> resolved, ReferenceTable.EntryIds ids, Multimap<K, V> multimap) {
+		ReferenceTable.Builder<K, V> builder = new ReferenceTable.Builder<>(ids);
+		for (Map.Entry<K, V> entry : multimap.entries()) {
+			builder.add(this.remap(resolved, entry.getKey()), this.remap(resolved, entry.getValue()));
+		}
+
+		return builder.build(false);
+	}
+
+	private <E extends Entry<?>, C extends Entry<?>> ReferenceTable<E, C> buildReferenceTable(@Nullable Map<Entry<?>, Entry<?>> resolved, ReferenceTable.EntryIds ids, Multimap<E, EntryReference<E, C>> multimap) {
+		ReferenceTable.Builder<E, C> builder = new ReferenceTable.Builder<>(ids);
+		for (Map.Entry<E, EntryReference<E, C>> entry : multimap.entries()) {
+			builder.add(this.remap(resolved, entry.getKey()), this.remap(resolved, entry.getValue().context), entry.getValue());
+		}
+
+		return builder.build(true);
 	}
 
-	private <E extends Entry<?>, C extends Entry<?>> EntryReference<E, C> remap(JarIndex index, EntryReference<E, C> reference) {
-		return index.getEntryResolver().resolveFirstReference(reference, ResolutionStrategy.RESOLVE_CLOSEST);
+	@SuppressWarnings("unchecked")
+	private <E extends Entry<?>> E remap(@Nullable Map<Entry<?>, Entry<?>> resolved, E entry) {
+		if (resolved == null || entry == null) {
+			return entry;
+		}
+
+		return (E) resolved.get(entry);
 	}
 
 	public Collection<MethodEntry> getMethodsReferencedBy(MethodEntry entry) {
-		return this.methodReferences.get(entry);
+		// bridge methods are found from the unprocessed index
+		return this.methodReferencesTable != null ? this.methodReferencesTable.getValues(entry) : this.methodReferences.get(entry);
 	}
 
 	public Collection<EntryReference<FieldEntry, MethodDefEntry>> getReferencesToField(FieldEntry entry) {
-		return this.referencesToFields.get(entry);
+		return this.referencesToFieldsTable != null ? this.referencesToFieldsTable.getReferences(entry) : this.referencesToFields.get(entry);
 	}
 
 	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getReferencesToClass(ClassEntry entry) {
-		return this.referencesToClasses.get(entry);
+		return this.referencesToClassesTable != null ? this.referencesToClassesTable.getReferences(entry) : this.referencesToClasses.get(entry);
 	}
 
 	public Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferencesToMethod(MethodEntry entry) {
-		return this.referencesToMethods.get(entry);
+		return this.referencesToMethodsTable != null ? this.referencesToMethodsTable.getReferences(entry) : this.referencesToMethods.get(entry);
 	}
 
 	public Collection<EntryReference<ClassEntry, FieldDefEntry>> getFieldTypeReferencesToClass(ClassEntry entry) {
-		return this.fieldTypeReferences.get(entry);
+		return this.fieldTypeReferencesTable != null ? this.fieldTypeReferencesTable.getReferences(entry) : this.fieldTypeReferences.get(entry);
 	}
 
 	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry) {
-		return this.methodTypeReferences.get(entry);
+		return this.methodTypeReferencesTable != null ? this.methodTypeReferencesTable.getReferences(entry) : this.methodTypeReferences.get(entry);
+	}
+
+	/**
+	 * {@return the classes containing every referenced entry} Only available once the index has been processed.
+	 */
+	public Set<ClassEntry> getReferencedClasses() {
+		if (this.methodReferencesTable == null) {
+			throw new IllegalStateException("Referenced classes are only known once the reference index has been processed");
+		}
+
+		Set<ClassEntry> classes = new HashSet<>();
+		for (ReferenceTable<? extends Entry<?>, ?> table : List.of(this.referencesToMethodsTable, this.referencesToClassesTable, this.referencesToFieldsTable, this.fieldTypeReferencesTable, this.methodTypeReferencesTable)) {
+			for (Entry<?> entry : table.getKeys()) {
+				classes.add(entry.getContainingClass());
+			}
+		}
+
+		return classes;
 	}
 
 	@Override
@@ -0,0 +1,333 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A read-only, compact multimap of entries, used by a processed {@link ReferenceIndex}.
+ *
+ * <p>
+ * Values are given dense int ids by an {@link EntryIds} table, which can be shared between multiple tables.
+ * Keys are given dense row numbers, and the ids of the values of row {@code r}
+ * are stored CSR-style at {@code [offsets[r], offsets[r + 1])} of a single {@code int[]}.
+ * Reference tables also store the target type and whether the reference is named in a packed {@code int} per reference,
+ * with the target types kept in a small side table.
+ * Lookups return lightweight list views, which create {@link EntryReference}s on access.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values, or of the contexts of references
+ */
+final class ReferenceTable<K extends Entry<?>, V extends Entry<?>> {
+	private static final int NAMED = 1;
+
+	private final EntryIds ids;
+	private final Map<Entry<?>, Integer> rows;
+	private final Entry<?>[] keys;
+	private final int[] offsets;
+	private final int[] values;
+	@Nullable
+	private final int[] flags;
+
+	private ReferenceTable(EntryIds ids, Map<Entry<?>, Integer> rows, Entry<?>[] keys, int[] offsets, int[] values, @Nullable int[] flags) {
+		this.ids = ids;
+		this.rows = rows;
+		this.keys = keys;
+		this.offsets = offsets;
+		this.values = values;
+		this.flags = flags;
+	}
+
+	List<V> getValues(Entry<?> key) {
+		Integer row = this.rows.get(key);
+		return row == null ? List.of() : this.getRowValues(row);
+	}
+
+	List<EntryReference<K, V>> getReferences(Entry<?> key) {
+		Integer row = this.rows.get(key);
+		return row == null ? List.of() : this.getRowReferences(row);
+	}
+
+	@SuppressWarnings("unchecked")
+	List<K> getKeys() {
+		return (List<K>) Arrays.asList(this.keys);
+	}
+
+	/**
+	 * Writes this table in the format of {@link IndexSnapshotWriter#writeEntryMultimap}.
+	 */
+	void writeEntries(IndexSnapshotWriter writer) throws IOException {
+		writer.writeInt(this.keys.length);
+		for (int row = 0; row < this.keys.length; row++) {
+			writer.writeEntry(this.keys[row]);
+			writer.writeEntries(this.getRowValues(row));
+		}
+	}
+
+	/**
+	 * Writes this reference table in the format of {@link IndexSnapshotWriter#writeReferenceMultimap}.
+	 */
+	void writeReferences(IndexSnapshotWriter writer) throws IOException {
+		writer.writeInt(this.keys.length);
+		for (int row = 0; row < this.keys.length; row++) {
+			writer.writeEntry(this.keys[row]);
+
+			List<EntryReference<K, V>> references = this.getRowReferences(row);
+			writer.writeInt(references.size());
+			for (EntryReference<K, V> reference : references) {
+				writer.writeReference(reference);
+			}
+		}
+	}
+
+	private List<V> getRowValues(int row) {
+		int start = this.offsets[row];
+		int size = this.offsets[row + 1] - start;
+		return new AbstractList<>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public V get(int index) {
+				return (V) ReferenceTable.this.ids.getEntry(ReferenceTable.this.values[start + checkIndex(index, size)]);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<EntryReference<K, V>> getRowReferences(int row) {
+		if (this.flags == null) {
+			throw new IllegalStateException("Not a reference table");
+		}
+
+		K entry = (K) this.keys[row];
+		int start = this.offsets[row];
+		int size = this.offsets[row + 1] - start;
+		return new AbstractList<>() {
+			@Override
+			public EntryReference<K, V> get(int index) {
+				ReferenceTable<K, V> table = ReferenceTable.this;
+				int i = start + checkIndex(index, size);
+				int flags = table.flags[i];
+
+				// the entry's name always has the same outcome as the name the reference was created with, see IndexSnapshotReader#readReference
+				String sourceName = (flags & NAMED) != 0 ? entry.getName() : null;
+				return new EntryReference<>(entry, sourceName, (V) table.ids.getEntry(table.values[i]), table.ids.getTargetType(flags >>> 1));
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	private static int checkIndex(int index, int size) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Gives dense int ids to the values of one or more {@link ReferenceTable}s, and to their reference target types.
+	 * Equal entries of different types, such as a method and its definition, get distinct ids,
+	 * so that every value is read back with the type it was added with.
+	 *
+	 * <p>
+	 * Ids can be given from multiple threads, so that the tables sharing them can be built in parallel.
+	 * The entries are only looked up by id once {@linkplain #finish() finished}.
+	 */
+	static final class EntryIds {
+		// the key of references without a target type, since null can't be a key of a concurrent map
+		private static final Object NO_TARGET_TYPE = new Object();
+
+		private Map<TypedEntry, Integer> entryIds = new ConcurrentHashMap<>();
+		private Map<Object, IdentifiedTargetType> targetTypeIds = new ConcurrentHashMap<>();
+		private final AtomicInteger nextEntryId = new AtomicInteger();
+		private final AtomicInteger nextTargetTypeId = new AtomicInteger();
+		private Entry<?>[] entries;
+		private ReferenceTargetType[] targetTypes;
+
+		private int getId(Entry<?> entry) {
+			TypedEntry key = new TypedEntry(entry.getClass(), entry);
+			Integer id = this.entryIds.get(key);
+			return id != null ? id : this.entryIds.computeIfAbsent(key, k -> this.nextEntryId.getAndIncrement());
+		}
+
+		private int getTargetTypeId(@Nullable ReferenceTargetType targetType) {
+			// only class types carry state, the other kinds are singletons
+			Object key = targetType instanceof ReferenceTargetType.ClassType classType ? classType.getEntry() : targetType;
+			return this.targetTypeIds.computeIfAbsent(key != null ? key : NO_TARGET_TYPE, k -> new IdentifiedTargetType(this.nextTargetTypeId.getAndIncrement(), targetType)).id();
+		}
+
+		private Entry<?> getEntry(int id) {
+			return this.entries[id];
+		}
+
+		@Nullable
+		private ReferenceTargetType getTargetType(int id) {
+			return this.targetTypes[id];
+		}
+
+		/**
+		 * Lays the entries out by id and releases the lookup tables once all tables have been built.
+		 * No more ids can be given afterwards.
+		 */
+		void finish() {
+			this.entries = new Entry<?>[this.nextEntryId.get()];
+			this.entryIds.forEach((key, id) -> this.entries[id] = key.entry());
+			this.targetTypes = new ReferenceTargetType[this.nextTargetTypeId.get()];
+			this.targetTypeIds.values().forEach(targetType -> this.targetTypes[targetType.id()] = targetType.targetType());
+
+			this.entryIds = null;
+			this.targetTypeIds = null;
+		}
+
+		private record TypedEntry(Class<?> type, Entry<?> entry) {
+		}
+
+		private record IdentifiedTargetType(int id, @Nullable ReferenceTargetType targetType) {
+		}
+	}
+
+	static final class Builder<K extends Entry<?>, V extends Entry<?>> {
+		/**
+		 * Rows up to this size are deduplicated by scanning them, larger ones with a set.
+		 */
+		private static final int SCANNED_ROW_SIZE = 16;
+
+		private final EntryIds ids;
+		private final Map<Entry<?>, Integer> rows = new HashMap<>();
+		private final List<Entry<?>> keys = new ArrayList<>();
+
+		private int[] entryRows = new int[16];
+		private int[] values = new int[16];
+		private int[] flags = new int[16];
+		private int size;
+
+		Builder(EntryIds ids) {
+			this.ids = ids;
+		}
+
+		void add(K key, V value) {
+			this.add(key, value, 0);
+		}
+
+		/**
+		 * Adds a reference to an entry from a context, with the target type and naming of an existing reference.
+		 * References are deduplicated by their context like in a {@link Set} of {@link EntryReference}s.
+		 * Declarations are not supported.
+		 */
+		void add(K key, V context, EntryReference<?, ?> reference) {
+			int flags = this.ids.getTargetTypeId(reference.targetType) << 1 | (reference.isNamed() ? NAMED : 0);
+			this.add(key, context, flags);
+		}
+
+		private void add(K key, V value, int flags) {
+			Integer row = this.rows.get(key);
+			if (row == null) {
+				row = this.keys.size();
+				this.rows.put(key, row);
+				this.keys.add(key);
+			}
+
+			if (this.size == this.values.length) {
+				int capacity = this.size * 2;
+				this.entryRows = Arrays.copyOf(this.entryRows, capacity);
+				this.values = Arrays.copyOf(this.values, capacity);
+				this.flags = Arrays.copyOf(this.flags, capacity);
+			}
+
+			this.entryRows[this.size] = row;
+			this.values[this.size] = this.ids.getId(value);
+			this.flags[this.size] = flags;
+			this.size++;
+		}
+
+		ReferenceTable<K, V> build(boolean references) {
+			int rowCount = this.keys.size();
+			int[] offsets = new int[rowCount + 1];
+			for (int i = 0; i < this.size; i++) {
+				offsets[this.entryRows[i] + 1]++;
+			}
+
+			for (int row = 0; row < rowCount; row++) {
+				offsets[row + 1] += offsets[row];
+			}
+
+			// stable counting sort by row, so values keep the order they were added in
+			int[] next = Arrays.copyOf(offsets, rowCount);
+			int[] sortedValues = new int[this.size];
+			int[] sortedFlags = references ? new int[this.size] : null;
+			for (int i = 0; i < this.size; i++) {
+				int index = next[this.entryRows[i]]++;
+				sortedValues[index] = this.values[i];
+				if (sortedFlags != null) {
+					sortedFlags[index] = this.flags[i];
+				}
+			}
+
+			// drop duplicate values in each row, keeping the first one like a set would
+			int size = 0;
+			Set<Integer> rowValues = new HashSet<>();
+			for (int row = 0; row < rowCount; row++) {
+				int start = offsets[row];
+				int end = offsets[row + 1];
+				int rowStart = size;
+				offsets[row] = rowStart;
+
+				boolean scanned = end - start <= SCANNED_ROW_SIZE;
+				rowValues.clear();
+				for (int i = start; i < end; i++) {
+					int value = sortedValues[i];
+					if (scanned ? contains(sortedValues, rowStart, size, value) : !rowValues.add(value)) {
+						continue;
+					}
+
+					sortedValues[size] = value;
+					if (sortedFlags != null) {
+						sortedFlags[size] = sortedFlags[i];
+					}
+
+					size++;
+				}
+			}
+
+			offsets[rowCount] = size;
+			if (size < this.size) {
+				sortedValues = Arrays.copyOf(sortedValues, size);
+				sortedFlags = sortedFlags != null ? Arrays.copyOf(sortedFlags, size) : null;
+			}
+
+			return new ReferenceTable<>(this.ids, this.rows, this.keys.toArray(Entry<?>[]::new), offsets, sortedValues, sortedFlags);
+		}
+
+		private static boolean contains(int[] array, int from, int to, int value) {
+			for (int i = from; i < to; i++) {
+				if (array[i] == value) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+	}
+}
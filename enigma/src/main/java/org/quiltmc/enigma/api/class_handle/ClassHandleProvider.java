@@ -2,7 +2,6 @@ package org.quiltmc.enigma.api.class_handle;
 
 import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
-import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
 import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
 import org.quiltmc.enigma.api.event.ClassHandleListener;
 import org.quiltmc.enigma.api.source.DecompiledClassSource;
@@ -94,7 +93,8 @@ public final class ClassHandleProvider {
 	}
 
 	private Decompiler createDecompiler() {
-		return this.ds.create(new CachingClassProvider(new ObfuscationFixClassProvider(this.project.getClassProvider(), this.project.getJarIndex())), new SourceSettings(true, true));
+		// the fixing provider shares the bytecode cache of the project's provider, so the classes aren't cached a second time
+		return this.ds.create(new ObfuscationFixClassProvider(this.project.getClassProvider(), this.project.getJarIndex()), new SourceSettings(true, true));
 	}
 
 	/**
@@ -2,39 +2,138 @@ package org.quiltmc.enigma.api.class_provider;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.quiltmc.enigma.util.AsmUtil;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Wraps a ClassProvider to provide caching and synchronization.
+ *
+ * <p>
+ * The cache is bounded by the approximate retained size of the cached classes rather than by their count,
+ * and can be used from multiple threads without serializing them.
+ * It can either keep the {@linkplain ClassNode}s of the wrapped provider,
+ * or only keep the bytecode of each class, which is several times smaller but has to be parsed again on every {@link #get}.
  */
 public class CachingClassProvider implements ClassProvider {
+	/**
+	 * The default maximum retained size of the cached classes, in bytes.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 64L * 1024 * 1024;
+
+	// rough retained sizes of the parts of a cached class in bytes, for a 64-bit JVM with compressed references,
+	// including the strings, lists and descriptors each part usually holds on to
+	private static final int CHAR_SIZE = 2;
+	private static final int ARRAY_HEADER_SIZE = 16;
+	private static final int CLASS_NODE_SIZE = 800;
+	private static final int FIELD_NODE_SIZE = 160;
+	private static final int INNER_CLASS_NODE_SIZE = 80;
+	private static final int METHOD_NODE_SIZE = 400;
+	private static final int INSTRUCTION_SIZE = 80;
+	private static final int TRY_CATCH_BLOCK_SIZE = 80;
+	private static final int LOCAL_VARIABLE_SIZE = 100;
+
 	private final ClassProvider classProvider;
-	private final Cache<String, Optional<ClassNode>> cache = CacheBuilder.newBuilder()
-			.maximumSize(128)
-			.expireAfterAccess(1, TimeUnit.MINUTES)
-			.concurrencyLevel(1)
-			.build();
+	private final boolean cacheBytecode;
+	// either the ClassNode of a class or its bytecode, depending on cacheBytecode
+	private final Cache<String, Optional<Object>> cache;
 
 	public CachingClassProvider(ClassProvider classProvider) {
+		this(classProvider, DEFAULT_MAXIMUM_SIZE, false);
+	}
+
+	/**
+	 * Creates a caching class provider.
+	 *
+	 * @param classProvider the provider to cache the classes of
+	 * @param maximumSize the maximum retained size of the cached classes, in bytes
+	 * @param cacheBytecode whether to cache the bytecode of classes instead of their {@linkplain ClassNode}s
+	 */
+	public CachingClassProvider(ClassProvider classProvider, long maximumSize, boolean cacheBytecode) {
 		this.classProvider = classProvider;
+		this.cacheBytecode = cacheBytecode;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumWeight(maximumSize)
+				.weigher((String name, Optional<Object> value) -> name.length() * CHAR_SIZE + value.map(CachingClassProvider::estimateSize).orElse(0))
+				.concurrencyLevel(Runtime.getRuntime().availableProcessors())
+				.recordStats()
+				.build();
 	}
 
 	@Override
 	@Nullable
 	public ClassNode get(String name) {
+		Object value = this.load(name);
+		if (value instanceof byte[] bytes) {
+			return AsmUtil.bytesToNode(bytes);
+		}
+
+		return (ClassNode) value;
+	}
+
+	@Override
+	public boolean accept(String name, ClassVisitor visitor) {
+		Object value = this.load(name);
+		if (value instanceof byte[] bytes) {
+			new ClassReader(bytes).accept(visitor, 0);
+			return true;
+		} else if (value instanceof ClassNode node) {
+			node.accept(visitor);
+			return true;
+		}
+
+		return false;
+	}
+
+	@Nullable
+	private Object load(String name) {
 		try {
-			return this.cache.get(name, () -> Optional.ofNullable(this.classProvider.get(name))).orElse(null);
+			return this.cache.get(name, () -> {
+				if (!this.cacheBytecode) {
+					return Optional.ofNullable(this.classProvider.get(name));
+				}
+
+				ClassWriter writer = new ClassWriter(0);
+				return this.classProvider.accept(name, writer) ? Optional.of(writer.toByteArray()) : Optional.empty();
+			}).orElse(null);
 		} catch (ExecutionException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * Gets the statistics of the cache, which can be used to size it.
+	 * The load time covers getting classes from the wrapped provider.
+	 *
+	 * @return a snapshot of the hit, miss, eviction and load time statistics
+	 */
+	public CacheStats getStats() {
+		return this.cache.stats();
+	}
+
+	/**
+	 * {@return the number of currently cached classes}
+	 */
+	public long size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Discards all cached classes.
+	 */
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
 	@Override
 	public Collection<String> getClassNames() {
 		return this.classProvider.getClassNames();
@@ -44,4 +143,30 @@ public class CachingClassProvider implements ClassProvider {
 	public Collection<String> getClasses(String className) {
 		return this.classProvider.getClasses(className);
 	}
+
+	/**
+	 * Estimates the retained size of a cached class, in bytes.
+	 * Bytecode is weighed exactly, class nodes by counting their members and instructions,
+	 * which is far cheaper than measuring them and close enough to bound the cache.
+	 */
+	private static int estimateSize(Object value) {
+		if (value instanceof byte[] bytes) {
+			return ARRAY_HEADER_SIZE + bytes.length;
+		}
+
+		ClassNode node = (ClassNode) value;
+		long size = CLASS_NODE_SIZE + (long) node.fields.size() * FIELD_NODE_SIZE + (long) node.innerClasses.size() * INNER_CLASS_NODE_SIZE;
+		for (MethodNode method : node.methods) {
+			size += METHOD_NODE_SIZE + (long) method.instructions.size() * INSTRUCTION_SIZE;
+			if (method.tryCatchBlocks != null) {
+				size += (long) method.tryCatchBlocks.size() * TRY_CATCH_BLOCK_SIZE;
+			}
+
+			if (method.localVariables != null) {
+				size += (long) method.localVariables.size() * LOCAL_VARIABLE_SIZE;
+			}
+		}
+
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
 }
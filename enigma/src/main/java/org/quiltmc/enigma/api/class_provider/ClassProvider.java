@@ -1,5 +1,6 @@
 package org.quiltmc.enigma.api.class_provider;
 
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.tree.ClassNode;
 
 import javax.annotation.Nullable;
@@ -18,6 +19,24 @@ public interface ClassProvider {
 	@Nullable
 	ClassNode get(String name);
 
+	/**
+	 * Passes a class through a visitor. Providers that keep the bytecode of their classes
+	 * may stream it to the visitor instead of building a {@linkplain ClassNode}.
+	 *
+	 * @param name the internal name of the class
+	 * @param visitor the visitor to pass the class through
+	 * @return whether the class was found
+	 */
+	default boolean accept(String name, ClassVisitor visitor) {
+		ClassNode node = this.get(name);
+		if (node == null) {
+			return false;
+		}
+
+		node.accept(visitor);
+		return true;
+	}
+
 	Collection<String> getClassNames();
 
 	/**
@@ -1,39 +1,36 @@
 package org.quiltmc.enigma.api.class_provider;
 
 import com.google.common.collect.ImmutableSet;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.quiltmc.enigma.util.AsmUtil;
 import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.util.MappedZipFile;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
 
 /**
  * Provides classes by loading them from a JAR file.
+ * The JAR is memory-mapped, and classes can be loaded from multiple threads at once.
  */
 public class JarClassProvider implements AutoCloseable, ClassProvider {
-	private final FileSystem fileSystem;
+	private final MappedZipFile zip;
 	private final Set<String> classNames;
 
 	public JarClassProvider(Path jarPath) throws IOException {
-		this.fileSystem = FileSystems.newFileSystem(jarPath, (ClassLoader) null);
-		this.classNames = collectClassNames(this.fileSystem);
+		this.zip = MappedZipFile.open(jarPath);
+		this.classNames = collectClassNames(this.zip);
 	}
 
-	private static ImmutableSet<String> collectClassNames(FileSystem fileSystem) throws IOException {
+	private static ImmutableSet<String> collectClassNames(MappedZipFile zip) {
 		ImmutableSet.Builder<String> classNames = ImmutableSet.builder();
-		for (Path root : fileSystem.getRootDirectories()) {
-			Files.walk(root).map(Path::toString)
-					.forEach(path -> {
-						if (path.endsWith(".class")) {
-							String name = path.substring(1, path.length() - ".class".length());
-							classNames.add(name);
-						}
-					});
+		for (String path : zip.getNames()) {
+			if (path.endsWith(".class")) {
+				classNames.add(path.substring(0, path.length() - ".class".length()));
+			}
 		}
 
 		return classNames.build();
@@ -47,12 +44,29 @@ public class JarClassProvider implements AutoCloseable, ClassProvider {
 	@Nullable
 	@Override
 	public ClassNode get(String name) {
+		byte[] bytes = this.getBytes(name);
+		return bytes != null ? AsmUtil.bytesToNode(bytes) : null;
+	}
+
+	@Override
+	public boolean accept(String name, ClassVisitor visitor) {
+		byte[] bytes = this.getBytes(name);
+		if (bytes == null) {
+			return false;
+		}
+
+		new ClassReader(bytes).accept(visitor, 0);
+		return true;
+	}
+
+	@Nullable
+	private byte[] getBytes(String name) {
 		if (!this.classNames.contains(name)) {
 			return null;
 		}
 
 		try {
-			return AsmUtil.bytesToNode(Files.readAllBytes(this.fileSystem.getPath(name + ".class")));
+			return this.zip.readBytes(name + ".class");
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
@@ -60,6 +74,6 @@ public class JarClassProvider implements AutoCloseable, ClassProvider {
 
 	@Override
 	public void close() throws Exception {
-		this.fileSystem.close();
+		this.zip.close();
 	}
 }
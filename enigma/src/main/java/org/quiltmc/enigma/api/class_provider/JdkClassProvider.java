@@ -0,0 +1,90 @@
+package org.quiltmc.enigma.api.class_provider;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.util.AsmUtil;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Provides the classes of the running JDK, by reading them from its {@code jrt:/} filesystem.
+ * Classes of every module of the runtime image are provided, under their internal names.
+ */
+public class JdkClassProvider implements ClassProvider {
+	private final Map<String, Path> classes;
+
+	public JdkClassProvider() throws IOException {
+		FileSystem fileSystem = FileSystems.getFileSystem(URI.create("jrt:/"));
+		Map<String, Path> classes = new HashMap<>();
+		try (Stream<Path> modules = Files.list(fileSystem.getPath("/modules"))) {
+			for (Path module : modules.toList()) {
+				try (Stream<Path> files = Files.walk(module)) {
+					files.forEach(file -> {
+						String path = module.relativize(file).toString();
+						if (path.endsWith(".class") && !path.equals("module-info.class")) {
+							classes.putIfAbsent(path.substring(0, path.length() - ".class".length()), file);
+						}
+					});
+				}
+			}
+		}
+
+		this.classes = classes;
+	}
+
+	/**
+	 * {@return a string identifying the running JDK, which changes whenever its classes may have changed}
+	 */
+	public static String getJdkVersion() {
+		return System.getProperty("java.vendor") + " " + Runtime.version();
+	}
+
+	@Nullable
+	@Override
+	public ClassNode get(String name) {
+		byte[] bytes = this.getBytes(name);
+		return bytes != null ? AsmUtil.bytesToNode(bytes) : null;
+	}
+
+	@Override
+	public boolean accept(String name, ClassVisitor visitor) {
+		byte[] bytes = this.getBytes(name);
+		if (bytes == null) {
+			return false;
+		}
+
+		new ClassReader(bytes).accept(visitor, 0);
+		return true;
+	}
+
+	@Nullable
+	private byte[] getBytes(String name) {
+		Path file = this.classes.get(name);
+		if (file == null) {
+			return null;
+		}
+
+		try {
+			return Files.readAllBytes(file);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public Set<String> getClassNames() {
+		return Collections.unmodifiableSet(this.classes.keySet());
+	}
+}
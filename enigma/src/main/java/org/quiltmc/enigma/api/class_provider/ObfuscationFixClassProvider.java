@@ -1,17 +1,23 @@
 package org.quiltmc.enigma.api.class_provider;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.quiltmc.enigma.api.Enigma;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.impl.bytecode.translator.LocalVariableFixVisitor;
 import org.quiltmc.enigma.impl.bytecode.translator.SourceFixVisitor;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
+import org.quiltmc.enigma.util.AsmUtil;
 
 import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import javax.annotation.Nullable;
 
 /**
@@ -30,25 +36,97 @@ import javax.annotation.Nullable;
  *
  * <p>
  * These fixes are only applied to classes that were indexed by the JarIndex provided, and not library classes.
+ *
+ * <p>
+ * Since the fixes only depend on the class and the index, the bytecode of fixed classes is cached,
+ * and later requests only have to parse it again. The cache is shared with the wrapped provider
+ * if it already fixes classes with the same index. It must be {@linkplain #invalidateAll() invalidated}
+ * if the index changes, such as after indexing a jar with this provider.
  */
 public class ObfuscationFixClassProvider implements ClassProvider {
+	/**
+	 * The default maximum size of the cached bytecode, in bytes.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 128L * 1024 * 1024;
+
 	private final ClassProvider classProvider;
 	private final JarIndex jarIndex;
+	// empty for indexed classes the wrapped provider doesn't have
+	private final Cache<String, Optional<byte[]>> fixedClasses;
 
 	public ObfuscationFixClassProvider(ClassProvider classProvider, JarIndex jarIndex) {
-		this.classProvider = classProvider;
+		if (classProvider instanceof ObfuscationFixClassProvider fixProvider && fixProvider.jarIndex == jarIndex) {
+			// the classes are already fixed, so share the cache instead of fixing them again
+			this.classProvider = fixProvider.classProvider;
+			this.fixedClasses = fixProvider.fixedClasses;
+		} else {
+			this.classProvider = classProvider;
+			this.fixedClasses = CacheBuilder.newBuilder()
+					.maximumWeight(DEFAULT_MAXIMUM_SIZE)
+					.weigher((String name, Optional<byte[]> bytes) -> name.length() * 2 + bytes.map(b -> b.length).orElse(0))
+					.concurrencyLevel(Runtime.getRuntime().availableProcessors())
+					.build();
+		}
+
 		this.jarIndex = jarIndex;
 	}
 
 	@Override
 	@Nullable
 	public ClassNode get(String name) {
-		ClassNode node = this.classProvider.get(name);
+		if (!this.jarIndex.isIndexed(name)) {
+			return this.classProvider.get(name);
+		}
+
+		byte[] bytes = this.getFixedClass(name);
+		return bytes != null ? AsmUtil.bytesToNode(bytes) : null;
+	}
 
+	@Override
+	public boolean accept(String name, ClassVisitor visitor) {
 		if (!this.jarIndex.isIndexed(name)) {
-			return node;
+			return this.classProvider.accept(name, visitor);
+		}
+
+		byte[] bytes = this.getFixedClass(name);
+		if (bytes == null) {
+			return false;
 		}
 
+		new ClassReader(bytes).accept(visitor, 0);
+		return true;
+	}
+
+	/**
+	 * Discards the cached fixed class, so that it is fixed again on the next request.
+	 *
+	 * @param name the internal name of the class
+	 */
+	public void invalidate(String name) {
+		this.fixedClasses.invalidate(name);
+	}
+
+	/**
+	 * Discards all cached fixed classes. This must be called when the index changes, since the fixes depend on it.
+	 */
+	public void invalidateAll() {
+		this.fixedClasses.invalidateAll();
+	}
+
+	@Nullable
+	private byte[] getFixedClass(String name) {
+		try {
+			// the class is read by the loader, so that concurrent requests for it wait for a single read and fix
+			return this.fixedClasses.get(name, () -> {
+				ClassNode node = this.classProvider.get(name);
+				return node != null ? Optional.of(AsmUtil.nodeToBytes(this.fix(node))) : Optional.empty();
+			}).orElse(null);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private ClassNode fix(ClassNode node) {
 		ClassNode fixedNode = new ClassNode();
 		ClassVisitor visitor = fixedNode;
 		visitor = new LocalVariableFixVisitor(Enigma.ASM_VERSION, visitor);
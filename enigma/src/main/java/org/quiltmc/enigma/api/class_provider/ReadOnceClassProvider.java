@@ -0,0 +1,93 @@
+package org.quiltmc.enigma.api.class_provider;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.util.AsmUtil;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps a ClassProvider to only get each class from it once, keeping the bytecode of the returned class.
+ * Later visits stream that bytecode through a {@linkplain ClassReader}, without going through the wrapped provider again.
+ *
+ * <p>
+ * The bytecode of a class is kept until it is {@linkplain #release(String) released}, so it is meant for a few passes over a jar,
+ * such as while it is being indexed, and not as a long-lived cache. The last pass should release each class once it is done with it.
+ */
+public class ReadOnceClassProvider implements ClassProvider {
+	private final ClassProvider classProvider;
+	private final Map<String, byte[]> bytecode = new ConcurrentHashMap<>();
+
+	public ReadOnceClassProvider(ClassProvider classProvider) {
+		this.classProvider = classProvider;
+	}
+
+	@Override
+	@Nullable
+	public ClassNode get(String name) {
+		byte[] bytes = this.bytecode.get(name);
+		if (bytes != null) {
+			return AsmUtil.bytesToNode(bytes);
+		}
+
+		return this.read(name);
+	}
+
+	@Override
+	public boolean accept(String name, ClassVisitor visitor) {
+		byte[] bytes = this.bytecode.get(name);
+		if (bytes != null) {
+			new ClassReader(bytes).accept(visitor, 0);
+			return true;
+		}
+
+		ClassNode node = this.read(name);
+		if (node == null) {
+			return false;
+		}
+
+		node.accept(visitor);
+		return true;
+	}
+
+	@Nullable
+	private ClassNode read(String name) {
+		ClassNode node = this.classProvider.get(name);
+		if (node != null) {
+			this.bytecode.put(name, AsmUtil.nodeToBytes(node));
+		}
+
+		return node;
+	}
+
+	/**
+	 * Drops the kept bytecode of a class, once every pass over it is done.
+	 * The class is read from the wrapped provider again if it is requested afterwards.
+	 *
+	 * @param name the internal name of the class
+	 */
+	public void release(String name) {
+		this.bytecode.remove(name);
+	}
+
+	/**
+	 * Drops the kept bytecode of every class.
+	 */
+	public void releaseAll() {
+		this.bytecode.clear();
+	}
+
+	@Override
+	public Collection<String> getClassNames() {
+		return this.classProvider.getClassNames();
+	}
+
+	@Override
+	public Collection<String> getClasses(String className) {
+		return this.classProvider.getClasses(className);
+	}
+}
@@ -46,6 +46,16 @@ public interface JarIndexerService extends EnigmaService {
 		return false;
 	}
 
+	/**
+	 * Gets the visitor all classes in scope are passed through, if this indexer only visits classes.
+	 * Indexers with a visitor are passed the classes already read while indexing the jar, rather than reading each class again.
+	 * @return the visitor, or {@code null} if this indexer must be run with {@link #acceptJar(Set, ClassProvider, JarIndex)}
+	 */
+	@Nullable
+	default ClassVisitor getClassVisitor() {
+		return null;
+	}
+
 	/**
 	 * Creates an indexer service that runs all {@link ClassNode class nodes} through the provided {@link ClassVisitor visitor}.
 	 * @param visitor the visitor to pass classes through
@@ -71,13 +81,15 @@ public interface JarIndexerService extends EnigmaService {
 			@Override
 			public void acceptJar(Set<String> scope, ClassProvider classProvider, JarIndex jarIndex) {
 				for (String className : scope) {
-					ClassNode node = classProvider.get(className);
-					if (node != null) {
-						node.accept(visitor);
-					}
+					classProvider.accept(className, visitor);
 				}
 			}
 
+			@Override
+			public ClassVisitor getClassVisitor() {
+				return visitor;
+			}
+
 			@Override
 			public String getId() {
 				return id;
@@ -1,18 +1,59 @@
 package org.quiltmc.enigma.api.translation;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
 import org.quiltmc.enigma.api.translation.mapping.EntryMap;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class MappingTranslator implements Translator {
+	private static final int MAXIMUM_CACHE_SIZE = 1 << 18;
+
 	private final EntryMap<EntryMapping> mappings;
 	private final EntryResolver resolver;
+	@Nullable
+	private final DeltaTrackingTree<EntryMapping> trackedMappings;
+	@Nullable
+	private final AtomicReference<TranslationCache> cache;
 
 	public MappingTranslator(EntryMap<EntryMapping> mappings, EntryResolver resolver) {
+		this(mappings, resolver, null);
+	}
+
+	private MappingTranslator(EntryMap<EntryMapping> mappings, EntryResolver resolver, @Nullable DeltaTrackingTree<EntryMapping> trackedMappings) {
 		this.mappings = mappings;
 		this.resolver = resolver;
+		this.trackedMappings = trackedMappings;
+		this.cache = trackedMappings != null ? new AtomicReference<>(new TranslationCache(trackedMappings.getGeneration())) : null;
+	}
+
+	/**
+	 * Creates a translator which caches the translations of class, field and method entries.
+	 * The cache is stamped with the generation of the mappings, and is dropped as a whole once they change,
+	 * unless the changed entries are {@linkplain #invalidate(Entry) invalidated} right after changing them.
+	 * The number of cached translations is bounded, and the cache can be used from multiple threads.
+	 *
+	 * @param mappings the mappings to translate with
+	 * @param resolver the resolver to resolve entries with
+	 * @return the caching translator
+	 */
+	public static MappingTranslator cached(DeltaTrackingTree<EntryMapping> mappings, EntryResolver resolver) {
+		return new MappingTranslator(mappings, resolver, mappings);
 	}
 
 	@Nullable
@@ -23,6 +64,161 @@ public class MappingTranslator implements Translator {
 			return null;
 		}
 
-		return (TranslateResult<T>) translatable.extendedTranslate(this, this.resolver, this.mappings);
+		if (this.trackedMappings == null || !isCacheable(translatable)) {
+			return (TranslateResult<T>) translatable.extendedTranslate(this, this.resolver, this.mappings);
+		}
+
+		// read the generation first, a translation made while the mappings change is then stamped as stale
+		long generation = this.trackedMappings.getGeneration();
+		TranslationCache cache = this.cache.get();
+		if (cache.generation != generation) {
+			TranslationCache newCache = new TranslationCache(generation);
+			// only move on to newer generations, readers of an older generation translate without the cache
+			if (cache.generation > generation || !this.cache.compareAndSet(cache, newCache)) {
+				return (TranslateResult<T>) translatable.extendedTranslate(this, this.resolver, this.mappings);
+			}
+
+			cache = newCache;
+		}
+
+		CachedTranslation cached = cache.results.getIfPresent(translatable);
+		if (cached != null) {
+			return (TranslateResult<T>) cached.result();
+		}
+
+		TranslateResult<T> result = (TranslateResult<T>) translatable.extendedTranslate(this, this.resolver, this.mappings);
+		if (result != null) {
+			cache.put(translatable, new CachedTranslation(result, this.getDependencies(translatable)));
+
+			// the cache was replaced while translating, so the result may have been put after it was invalidated
+			if (this.cache.get() != cache) {
+				cache.results.invalidate(translatable);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Invalidates the cached translations depending on the mapping of an entry, which was just changed.
+	 * The entry must be invalidated right after each change, otherwise the whole cache is dropped.
+	 * Changing a class may change the translation of any entry, which also drops the whole cache.
+	 *
+	 * @param entry the entry whose mapping was changed
+	 */
+	public void invalidate(Entry<?> entry) {
+		if (this.trackedMappings == null) {
+			return;
+		}
+
+		// only the last change can be applied precisely, the cache is stale if there were others since it was stamped
+		long generation = this.trackedMappings.getGeneration();
+		TranslationCache cache = this.cache.get();
+		if (cache.generation != generation - 1 || entry instanceof ClassEntry) {
+			return;
+		}
+
+		// stamp the cache first, so that readers which put a translation before it was stamped have it invalidated below,
+		// and the others invalidate it themselves
+		if (this.cache.compareAndSet(cache, new TranslationCache(generation, cache))) {
+			cache.invalidateDependents(entry);
+		}
+	}
+
+	/**
+	 * Drops all cached translations.
+	 */
+	public void invalidateAll() {
+		if (this.trackedMappings != null) {
+			this.cache.set(new TranslationCache(this.trackedMappings.getGeneration()));
+		}
+	}
+
+	/**
+	 * Gets the entries whose mappings are read by the translation of a cached entry.
+	 * Fields and methods read the mappings of their resolved roots, while classes are only read by their own translations
+	 * and those of their members, and changing them drops the whole cache.
+	 */
+	private Collection<Entry<?>> getDependencies(Translatable translatable) {
+		if (translatable instanceof ClassEntry) {
+			return List.of();
+		}
+
+		return List.copyOf(this.resolver.resolveEntry((Entry<?>) translatable, ResolutionStrategy.RESOLVE_ROOT));
+	}
+
+	/**
+	 * Only plain entries are cached, since equal entries of other types may have other attributes and translations.
+	 */
+	private static boolean isCacheable(Translatable translatable) {
+		Class<?> type = translatable.getClass();
+		return type == ClassEntry.class || type == MethodEntry.class || type == FieldEntry.class;
+	}
+
+	/**
+	 * A cached translation, with the entries it depends on.
+	 */
+	private record CachedTranslation(TranslateResult<?> result, Collection<Entry<?>> dependencies) {
+	}
+
+	/**
+	 * The translations made with one generation of the mappings.
+	 * Precisely invalidating a change only stamps the next generation, so the translations are shared between generations,
+	 * and are indexed by the entries they depend on to find those invalidated by a change.
+	 */
+	private static final class TranslationCache {
+		private final long generation;
+		private final Cache<Translatable, CachedTranslation> results;
+		// the cached translations depending on each entry
+		private final Map<Entry<?>, Map<Translatable, CachedTranslation>> dependents;
+
+		private TranslationCache(long generation) {
+			this.generation = generation;
+			this.dependents = new ConcurrentHashMap<>();
+			this.results = CacheBuilder.newBuilder()
+					.maximumSize(MAXIMUM_CACHE_SIZE)
+					.concurrencyLevel(Runtime.getRuntime().availableProcessors())
+					.removalListener((RemovalNotification<Translatable, CachedTranslation> notification) -> this.removeDependent(notification.getKey(), notification.getValue()))
+					.build();
+		}
+
+		private TranslationCache(long generation, TranslationCache previous) {
+			this.generation = generation;
+			this.results = previous.results;
+			this.dependents = previous.dependents;
+		}
+
+		private void put(Translatable translatable, CachedTranslation translation) {
+			// index the translation before putting it, so that it can always be found when invalidating
+			for (Entry<?> dependency : translation.dependencies()) {
+				this.dependents.compute(dependency, (entry, dependents) -> {
+					Map<Translatable, CachedTranslation> map = dependents != null ? dependents : new HashMap<>();
+					map.put(translatable, translation);
+					return map;
+				});
+			}
+
+			this.results.put(translatable, translation);
+		}
+
+		private void invalidateDependents(Entry<?> entry) {
+			Map<Translatable, CachedTranslation> dependents = this.dependents.remove(entry);
+			if (dependents != null) {
+				this.results.invalidateAll(dependents.keySet());
+			}
+		}
+
+		private void removeDependent(Translatable translatable, CachedTranslation translation) {
+			for (Entry<?> dependency : translation.dependencies()) {
+				this.dependents.computeIfPresent(dependency, (entry, dependents) -> {
+					// the translation may have been cached and indexed again since it was removed
+					if (dependents.get(translatable) == translation) {
+						dependents.remove(translatable);
+					}
+
+					return dependents.isEmpty() ? null : dependents;
+				});
+			}
+		}
 	}
 }
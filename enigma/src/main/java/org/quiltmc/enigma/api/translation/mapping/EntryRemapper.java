@@ -10,8 +10,11 @@ import org.quiltmc.enigma.api.translation.TranslateResult;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeUtil;
+import org.quiltmc.enigma.api.translation.mapping.tree.CompactEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.ConcurrentEntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.MergedEntryMappingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
@@ -34,22 +37,22 @@ public class EntryRemapper {
 	private final DeltaTrackingTree<EntryMapping> mappings;
 
 	private final EntryResolver obfResolver;
-	private final Translator deobfuscator;
+	private final MappingTranslator deobfuscator;
 	private final JarIndex jarIndex;
 	private final MappingsIndex mappingsIndex;
 
 	private final MappingValidator validator;
 	private final List<NameProposalService> proposalServices;
 
-	private EntryRemapper(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> jarProposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices) {
-		this.deobfMappings = deobfMappings;
+	private EntryRemapper(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> jarProposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices, boolean concurrent) {
+		this.deobfMappings = concurrent ? new ConcurrentEntryTree<>(deobfMappings) : toPersistent(deobfMappings);
 		this.jarProposedMappings = jarProposedMappings;
-		this.proposedMappings = new HashEntryTree<>(jarProposedMappings);
-		this.mappings = new DeltaTrackingTree<>(new MergedEntryMappingTree(deobfMappings, this.proposedMappings));
+		this.proposedMappings = concurrent ? new ConcurrentEntryTree<>(jarProposedMappings) : new PersistentEntryTree<>(jarProposedMappings);
+		this.mappings = new DeltaTrackingTree<>(new MergedEntryMappingTree(this.deobfMappings, this.proposedMappings));
 
 		this.obfResolver = jarIndex.getEntryResolver();
 
-		this.deobfuscator = new MappingTranslator(this.mappings, this.obfResolver);
+		this.deobfuscator = MappingTranslator.cached(this.mappings, this.obfResolver);
 		this.jarIndex = jarIndex;
 		this.mappingsIndex = mappingsIndex;
 
@@ -58,11 +61,35 @@ public class EntryRemapper {
 	}
 
 	public static EntryRemapper mapped(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices) {
-		return new EntryRemapper(jarIndex, mappingsIndex, proposedMappings, deobfMappings, proposalServices);
+		return mapped(jarIndex, mappingsIndex, proposedMappings, deobfMappings, proposalServices, false);
+	}
+
+	/**
+	 * Creates a remapper over the given mappings.
+	 * A concurrent remapper copies the deobfuscation mappings into a {@link ConcurrentEntryTree}, so that they can be read from
+	 * multiple threads, such as decompiler or export threads, while they are being edited.
+	 * Otherwise they are copied into a {@link PersistentEntryTree}, unless they already are one.
+	 * Either way they are only copied here: {@linkplain #getMappingsSnapshot() snapshots} and {@linkplain #takeMappingDelta() deltas}
+	 * share the nodes of the trees.
+	 * The proposed mappings are always copied, since the remapper adds dynamically proposed names to them.
+	 *
+	 * @param concurrent whether the mappings should be safe to read and write from multiple threads
+	 * @return the remapper
+	 */
+	public static EntryRemapper mapped(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices, boolean concurrent) {
+		return new EntryRemapper(jarIndex, mappingsIndex, proposedMappings, deobfMappings, proposalServices, concurrent);
+	}
+
+	private static EntryTree<EntryMapping> toPersistent(EntryTree<EntryMapping> mappings) {
+		return mappings instanceof PersistentEntryTree<EntryMapping> ? mappings : new PersistentEntryTree<>(mappings);
 	}
 
 	public static EntryRemapper empty(JarIndex index, List<NameProposalService> proposalServices) {
-		return new EntryRemapper(index, MappingsIndex.empty(), new HashEntryTree<>(), new HashEntryTree<>(), proposalServices);
+		return empty(index, proposalServices, false);
+	}
+
+	public static EntryRemapper empty(JarIndex index, List<NameProposalService> proposalServices, boolean concurrent) {
+		return new EntryRemapper(index, MappingsIndex.empty(), new CompactEntryTree(), new PersistentEntryTree<>(), proposalServices, concurrent);
 	}
 
 	public void validatePutMapping(ValidationContext vc, Entry<?> obfuscatedEntry, @Nonnull EntryMapping deobfMapping) {
@@ -93,6 +120,8 @@ public class EntryRemapper {
 			} else {
 				this.mappings.insert(resolvedEntry, deobfMapping);
 			}
+
+			this.deobfuscator.invalidate(resolvedEntry);
 		}
 
 		this.insertDynamicallyProposedMappings(obfuscatedEntry, oldMapping, deobfMapping);
@@ -142,7 +171,12 @@ public class EntryRemapper {
 		for (var service : this.proposalServices) {
 			var proposedNames = service.getDynamicProposedNames(this, obfEntry, oldMapping, newMapping);
 			if (proposedNames != null) {
-				proposedNames.forEach(this.proposedMappings::insert);
+				// proposed mappings are not inserted through the tracked tree
+				proposedNames.forEach((entry, mapping) -> {
+					this.proposedMappings.insert(entry, mapping);
+					this.mappings.incrementGeneration();
+					this.deobfuscator.invalidate(entry);
+				});
 			}
 		}
 	}
@@ -181,6 +215,15 @@ public class EntryRemapper {
 		return this.mappings;
 	}
 
+	/**
+	 * Takes a snapshot of all mappings, including both manually inserted and proposed names,
+	 * which is not affected by later changes. This shares the nodes of the mapping trees rather than copying them.
+	 * @return the snapshot of the merged mapping tree
+	 */
+	public EntryTree<EntryMapping> getMappingsSnapshot() {
+		return new MergedEntryMappingTree(EntryTreeUtil.snapshot(this.deobfMappings), EntryTreeUtil.snapshot(this.proposedMappings));
+	}
+
 	/**
 	 * Gets all manually inserted mappings.
 	 * @return the deobfuscated mapping tree
@@ -1,19 +1,18 @@
 package org.quiltmc.enigma.api.translation.mapping;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
-import org.quiltmc.enigma.impl.analysis.IndexTreeBuilder;
-import org.quiltmc.enigma.api.analysis.tree.MethodImplementationsTreeNode;
-import org.quiltmc.enigma.api.analysis.tree.MethodInheritanceTreeNode;
 import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
-import org.quiltmc.enigma.api.translation.VoidTranslator;
 import org.quiltmc.enigma.api.translation.representation.AccessFlags;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -22,18 +21,28 @@ import java.util.Set;
 import javax.annotation.Nullable;
 
 public class IndexEntryResolver implements EntryResolver {
+	private static final int MINIMUM_CACHE_SIZE = 1 << 16;
+
 	private final EntryIndex entryIndex;
 	private final InheritanceIndex inheritanceIndex;
 	private final BridgeMethodIndex bridgeMethodIndex;
 
-	private final IndexTreeBuilder treeBuilder;
+	/**
+	 * Resolutions of the direct class children of resolved entries, since the index does not change once built.
+	 * Sized when the cache is invalidated to hold those of every method and field of the index with both strategies,
+	 * so that it only evicts when many entries which are not in the index are resolved.
+	 */
+	private volatile Cache<ResolutionKey, Resolution> resolutions = createCache(MINIMUM_CACHE_SIZE);
+
+	/**
+	 * Equivalent methods of resolved methods, sized when the cache is invalidated to hold those of every method of the index.
+	 */
+	private volatile Cache<EquivalenceKey, Set<MethodEntry>> equivalentMethods = createCache(MINIMUM_CACHE_SIZE);
 
 	public IndexEntryResolver(JarIndex index) {
 		this.entryIndex = index.getIndex(EntryIndex.class);
 		this.inheritanceIndex = index.getIndex(InheritanceIndex.class);
 		this.bridgeMethodIndex = index.getIndex(BridgeMethodIndex.class);
-
-		this.treeBuilder = new IndexTreeBuilder(index);
 	}
 
 	/**
@@ -64,34 +73,102 @@ public class IndexEntryResolver implements EntryResolver {
 
 		Entry<ClassEntry> entryAsClassChild = this.getClassChild(entry);
 		if (entryAsClassChild != null && !(entryAsClassChild instanceof ClassEntry)) {
-			AccessFlags access = this.entryIndex.getEntryAccess(entryAsClassChild);
-
-			// If we're looking for the closest and this entry exists, we're done looking
-			if (strategy == ResolutionStrategy.RESOLVE_CLOSEST && access != null) {
-				return Collections.singleton(entry);
-			}
-
-			// Don't search existing private and/or static entries up the hierarchy
-			// Fields and classes can't be redefined, don't search them up the hierarchy
-			if (access != null && (access.isPrivate() || access.isStatic() || entry instanceof FieldEntry || entry instanceof ClassEntry)) {
+			List<Entry<ClassEntry>> resolvedChildren = this.getResolution(entryAsClassChild, strategy).resolvedChildren();
+			if (resolvedChildren == null) {
 				return Collections.singleton(entry);
+			} else if (resolvedChildren.isEmpty()) {
+				// No matching entry was found, and this one doesn't exist
+				return Collections.emptySet();
+			} else if (entry == entryAsClassChild) {
+				return (Collection<E>) resolvedChildren;
 			} else {
-				// Search the entry up the hierarchy; if the entry exists we can skip static entries, since this one isn't static
-				Collection<Entry<ClassEntry>> resolvedChildren = this.resolveEntryInAncestry(entryAsClassChild, strategy, access != null);
-				if (!resolvedChildren.isEmpty()) {
-					return resolvedChildren.stream()
-						.map(resolvedChild -> (E) entry.replaceAncestor(entryAsClassChild, resolvedChild))
-						.toList();
-				} else if (access == null) {
-					// No matching entry was found, and this one doesn't exist
-					return Collections.emptySet();
-				}
+				return resolvedChildren.stream()
+					.map(resolvedChild -> (E) entry.replaceAncestor(entryAsClassChild, resolvedChild))
+					.toList();
 			}
 		}
 
 		return Collections.singleton(entry);
 	}
 
+	/**
+	 * Discards every cached resolution and equivalent methods. Must be called whenever the index changes.
+	 */
+	public void invalidateCache() {
+		this.resolutions = createCache(Math.max(MINIMUM_CACHE_SIZE, 2L * (this.entryIndex.getMethods().size() + this.entryIndex.getFields().size())));
+		// both method definitions and references are resolved, so the cache is sized for two keys per method
+		this.equivalentMethods = createCache(Math.max(MINIMUM_CACHE_SIZE, 2L * this.entryIndex.getMethods().size()));
+	}
+
+	private static <K, V> Cache<K, V> createCache(long maximumSize) {
+		return CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.concurrencyLevel(Runtime.getRuntime().availableProcessors())
+				.build();
+	}
+
+	/**
+	 * {@return the cached resolutions of entries which did not resolve to themselves}
+	 * Only these needed a search up the hierarchy, the others are resolved by looking the entry up.
+	 */
+	public List<CachedResolution> getCachedResolutions() {
+		List<CachedResolution> cached = new ArrayList<>();
+		this.resolutions.asMap().forEach((key, resolution) -> {
+			if (resolution.resolvedChildren() != null) {
+				cached.add(new CachedResolution(key.entry(), key.strategy(), resolution.resolvedChildren()));
+			}
+		});
+
+		return cached;
+	}
+
+	/**
+	 * Adds resolutions to the cache, such as those of a previous index of the same classes.
+	 * The caller is responsible for them still being valid, so the resolved entries and their ancestry must not have changed.
+	 */
+	public void cacheResolutions(Collection<CachedResolution> resolutions) {
+		for (CachedResolution resolution : resolutions) {
+			this.resolutions.put(new ResolutionKey(resolution.entry().getClass(), resolution.entry(), resolution.strategy()), new Resolution(resolution.resolvedChildren()));
+		}
+	}
+
+	private Resolution getResolution(Entry<ClassEntry> entry, ResolutionStrategy strategy) {
+		ResolutionKey key = new ResolutionKey(entry.getClass(), entry, strategy);
+		Cache<ResolutionKey, Resolution> cache = this.resolutions;
+		Resolution resolution = cache.getIfPresent(key);
+		if (resolution == null) {
+			resolution = this.resolve(entry, strategy);
+			cache.put(key, resolution);
+		}
+
+		return resolution;
+	}
+
+	private Resolution resolve(Entry<ClassEntry> entry, ResolutionStrategy strategy) {
+		AccessFlags access = this.entryIndex.getEntryAccess(entry);
+
+		// If we're looking for the closest and this entry exists, we're done looking
+		if (strategy == ResolutionStrategy.RESOLVE_CLOSEST && access != null) {
+			return Resolution.ITSELF;
+		}
+
+		// Don't search existing private and/or static entries up the hierarchy
+		// Fields can't be redefined, don't search them up the hierarchy
+		if (access != null && (access.isPrivate() || access.isStatic() || entry instanceof FieldEntry)) {
+			return Resolution.ITSELF;
+		}
+
+		// Search the entry up the hierarchy; if the entry exists we can skip static entries, since this one isn't static
+		Set<Entry<ClassEntry>> resolvedChildren = this.resolveEntryInAncestry(entry, strategy, access != null);
+		if (!resolvedChildren.isEmpty()) {
+			return new Resolution(List.copyOf(resolvedChildren));
+		} else if (access == null) {
+			return Resolution.NOT_FOUND;
+		}
+
+		return Resolution.ITSELF;
+	}
+
 	/**
 	 * Get a direct child of any class that is an ancestor of the given entry.
 	 *
@@ -104,6 +181,12 @@ public class IndexEntryResolver implements EntryResolver {
 			return null;
 		}
 
+		// most entries are direct children of a class, skip building their ancestry
+		Entry<ClassEntry> directChild = entry.castParent(ClassEntry.class);
+		if (directChild != null) {
+			return directChild;
+		}
+
 		// get the entry in the hierarchy that is the child of a class
 		List<Entry<?>> ancestry = entry.getAncestry();
 		for (int i = ancestry.size() - 1; i > 0; i--) {
@@ -191,11 +274,25 @@ public class IndexEntryResolver implements EntryResolver {
 		return equivalentEntries;
 	}
 
+	/**
+	 * Finds the methods which must share their name with the given one: the methods it overrides or is overridden by,
+	 * along with their bridges and implementations. The search is done once per method, and the result is cached.
+	 *
+	 * @return a shared, immutable set of the equivalent methods
+	 */
 	@Override
 	public Set<MethodEntry> resolveEquivalentMethods(MethodEntry methodEntry) {
-		Set<MethodEntry> set = new HashSet<>();
-		this.resolveEquivalentMethods(set, methodEntry);
-		return set;
+		EquivalenceKey key = new EquivalenceKey(methodEntry.getClass(), methodEntry);
+		Cache<EquivalenceKey, Set<MethodEntry>> cache = this.equivalentMethods;
+		Set<MethodEntry> equivalentMethods = cache.getIfPresent(key);
+		if (equivalentMethods == null) {
+			Set<MethodEntry> methodEntries = new HashSet<>();
+			this.resolveEquivalentMethods(methodEntries, methodEntry);
+			equivalentMethods = Collections.unmodifiableSet(methodEntries);
+			cache.put(key, equivalentMethods);
+		}
+
+		return equivalentMethods;
 	}
 
 	private void resolveEquivalentMethods(Set<MethodEntry> methodEntries, MethodEntry methodEntry) {
@@ -209,61 +306,110 @@ public class IndexEntryResolver implements EntryResolver {
 			return;
 		}
 
-		this.resolveEquivalentMethods(methodEntries, this.treeBuilder.buildMethodInheritance(VoidTranslator.INSTANCE, methodEntry));
+		this.resolveEquivalentMethods(methodEntries, this.buildOverrides(this.resolveFirstEntry(methodEntry, ResolutionStrategy.RESOLVE_ROOT)));
 	}
 
-	private void resolveEquivalentMethods(Set<MethodEntry> methodEntries, MethodInheritanceTreeNode node) {
-		MethodEntry methodEntry = node.getMethodEntry();
+	private void resolveEquivalentMethods(Set<MethodEntry> methodEntries, Overrides overrides) {
+		MethodEntry methodEntry = overrides.methodEntry();
 		if (methodEntries.contains(methodEntry)) {
 			return;
 		}
 
 		AccessFlags flags = this.entryIndex.getMethodAccess(methodEntry);
 		if (flags != null && this.canInherit(methodEntry, flags)) {
-			// collect the entry
 			methodEntries.add(methodEntry);
 		}
 
-		// look at bridge methods!
-		MethodEntry bridgedMethod = this.bridgeMethodIndex.getBridgeFromSpecialized(methodEntry);
-		while (bridgedMethod != null) {
-			this.resolveEquivalentMethods(methodEntries, bridgedMethod);
-			bridgedMethod = this.bridgeMethodIndex.getBridgeFromSpecialized(bridgedMethod);
-		}
+		this.resolveBridgedMethods(methodEntries, methodEntry);
 
 		// look at interface methods too
-		for (MethodImplementationsTreeNode implementationsNode : this.treeBuilder.buildMethodImplementations(VoidTranslator.INSTANCE, methodEntry)) {
-			this.resolveEquivalentMethods(methodEntries, implementationsNode);
+		for (MethodEntry resolvedEntry : this.resolveEntry(methodEntry, ResolutionStrategy.RESOLVE_ROOT)) {
+			this.resolveImplementations(methodEntries, resolvedEntry);
+			for (ClassEntry descendant : this.inheritanceIndex.getDescendants(resolvedEntry.getParent())) {
+				MethodEntry implementation = resolvedEntry.withParent(descendant);
+				if (this.entryIndex.hasMethod(implementation)) {
+					this.resolveImplementations(methodEntries, implementation);
+				}
+			}
 		}
 
-		// recurse
-		for (int i = 0; i < node.getChildCount(); i++) {
-			this.resolveEquivalentMethods(methodEntries, (MethodInheritanceTreeNode) node.getChildAt(i));
+		for (Overrides child : overrides.children()) {
+			this.resolveEquivalentMethods(methodEntries, child);
 		}
 	}
 
-	private void resolveEquivalentMethods(Set<MethodEntry> methodEntries, MethodImplementationsTreeNode node) {
-		MethodEntry methodEntry = node.getMethodEntry();
+	private void resolveImplementations(Set<MethodEntry> methodEntries, MethodEntry methodEntry) {
 		AccessFlags flags = this.entryIndex.getMethodAccess(methodEntry);
 		if (flags != null && !flags.isPrivate() && !flags.isStatic()) {
-			// collect the entry
 			methodEntries.add(methodEntry);
 		}
 
-		// look at bridge methods!
+		this.resolveBridgedMethods(methodEntries, methodEntry);
+	}
+
+	private void resolveBridgedMethods(Set<MethodEntry> methodEntries, MethodEntry methodEntry) {
 		MethodEntry bridgedMethod = this.bridgeMethodIndex.getBridgeFromSpecialized(methodEntry);
 		while (bridgedMethod != null) {
 			this.resolveEquivalentMethods(methodEntries, bridgedMethod);
 			bridgedMethod = this.bridgeMethodIndex.getBridgeFromSpecialized(bridgedMethod);
 		}
+	}
 
-		// recurse
-		for (int i = 0; i < node.getChildCount(); i++) {
-			this.resolveEquivalentMethods(methodEntries, (MethodImplementationsTreeNode) node.getChildAt(i));
+	/**
+	 * Finds the overrides of a method, like {@link org.quiltmc.enigma.api.analysis.tree.MethodInheritanceTreeNode} does,
+	 * without building tree nodes.
+	 */
+	private Overrides buildOverrides(MethodEntry methodEntry) {
+		List<Overrides> children = new ArrayList<>();
+		for (ClassEntry inheritor : this.inheritanceIndex.getChildren(methodEntry.getParent())) {
+			Overrides child = this.buildOverrides(new MethodEntry(inheritor, methodEntry.getName(), methodEntry.getDesc()));
+			if (!child.children().isEmpty() || this.entryIndex.hasMethod(child.methodEntry())) {
+				children.add(child);
+			}
 		}
+
+		return new Overrides(methodEntry, children);
 	}
 
 	private boolean canInherit(MethodEntry entry, AccessFlags access) {
 		return !entry.isConstructor() && !access.isPrivate() && !access.isStatic() && !access.isFinal();
 	}
+
+	/**
+	 * Equal entries of different types are resolved separately, since their resolutions keep their type.
+	 */
+	private record ResolutionKey(Class<?> type, Entry<ClassEntry> entry, ResolutionStrategy strategy) {
+	}
+
+	/**
+	 * The equivalent methods of a method definition and of a method reference may differ in the type of their entries.
+	 */
+	private record EquivalenceKey(Class<?> type, MethodEntry entry) {
+	}
+
+	/**
+	 * A method and the overrides in the classes inheriting from it, only keeping those which implement it or lead to an implementation.
+	 */
+	private record Overrides(MethodEntry methodEntry, List<Overrides> children) {
+	}
+
+	/**
+	 * A cached resolution of a direct child of a class, which does not resolve to itself.
+	 *
+	 * @param entry the direct child of a class
+	 * @param strategy the strategy it was resolved with
+	 * @param resolvedChildren the entries it resolves to, or an empty list if no matching entry was found and it doesn't exist
+	 */
+	public record CachedResolution(Entry<ClassEntry> entry, ResolutionStrategy strategy, List<Entry<ClassEntry>> resolvedChildren) {
+	}
+
+	/**
+	 * The resolution of a direct child of a class.
+	 *
+	 * @param resolvedChildren the entries the child resolves to, or {@code null} if it resolves to itself
+	 */
+	private record Resolution(@Nullable List<Entry<ClassEntry>> resolvedChildren) {
+		static final Resolution ITSELF = new Resolution(null);
+		static final Resolution NOT_FOUND = new Resolution(List.of());
+	}
 }
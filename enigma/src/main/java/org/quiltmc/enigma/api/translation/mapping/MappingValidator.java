@@ -20,6 +20,7 @@ import javax.annotation.Nullable;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -245,7 +246,7 @@ public class MappingValidator {
 
 			if (entry.canShadow(sibling) || entry.canShadow(obfSibling)) {
 				// ancestry check only contains obf names, so we need to translate to deobf just in case
-				Set<ClassEntry> ancestors = this.jarIndex.getIndex(InheritanceIndex.class).getAncestors(obfEntry.getContainingClass());
+				Set<ClassEntry> ancestors = new HashSet<>(this.jarIndex.getIndex(InheritanceIndex.class).getAncestors(obfEntry.getContainingClass()));
 				ancestors.addAll(
 						ancestors.stream()
 						.map(this.deobfuscator::translate)
@@ -8,7 +8,7 @@ import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingsReader;
 import org.quiltmc.enigma.impl.translation.mapping.serde.RawEntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.CompactEntryTree;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
 import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
@@ -39,7 +39,7 @@ public enum EnigmaMappingsReader implements MappingsReader {
 		public EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws IOException, MappingParseException {
 			progress.init(1, I18n.translate("progress.mappings.enigma_file.loading"));
 
-			EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+			EntryTree<EntryMapping> mappings = new CompactEntryTree();
 			readFile(path, mappings);
 
 			progress.step(1, I18n.translate("progress.mappings.enigma_file.done"));
@@ -54,7 +54,7 @@ public enum EnigmaMappingsReader implements MappingsReader {
 				throw new NotDirectoryException(root.toString());
 			}
 
-			EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+			EntryTree<EntryMapping> mappings = new CompactEntryTree();
 
 			List<Path> files;
 			try (Stream<Path> fileStream = Files.walk(root)) {
@@ -99,7 +99,7 @@ public enum EnigmaMappingsReader implements MappingsReader {
 	 * @throws IllegalArgumentException if there are no paths to read
 	 */
 	public static EntryTree<EntryMapping> readFiles(ProgressListener progress, Path... paths) throws MappingParseException, IOException {
-		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		EntryTree<EntryMapping> mappings = new CompactEntryTree();
 
 		if (paths.length == 0) {
 			throw new IllegalArgumentException("No paths to read mappings from");
@@ -8,7 +8,7 @@ import org.quiltmc.enigma.api.translation.mapping.MappingPair;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingsReader;
 import org.quiltmc.enigma.impl.translation.mapping.serde.RawEntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.CompactEntryTree;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
 import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
@@ -46,7 +46,7 @@ public final class TinyV2Reader implements MappingsReader {
 	}
 
 	private EntryTree<EntryMapping> read(Path path, List<String> lines, ProgressListener progress) throws MappingParseException {
-		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		EntryTree<EntryMapping> mappings = new CompactEntryTree();
 
 		progress.init(lines.size(), I18n.translate("progress.mappings.tiny_v2.loading"));
 
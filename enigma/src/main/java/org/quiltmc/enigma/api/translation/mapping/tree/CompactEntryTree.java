@@ -0,0 +1,173 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A mapping tree which takes several times less memory than a {@link HashEntryTree}, for large mapping sets.
+ *
+ * <p>
+ * Each node keeps its children in a small open-addressing table rather than in a hash map,
+ * so a node without children is a single small object.
+ * Mappings without javadoc are interned, since most of them, like the names of parameters,
+ * are shared by many entries.
+ * Lookups walk the same path as in a {@link HashEntryTree}, and return the stored mappings without copying them.
+ */
+public class CompactEntryTree implements EntryTree<EntryMapping> {
+	private static final Interner<EntryMapping> MAPPINGS = Interners.newWeakInterner();
+
+	// holds the root entries as its children, it is never exposed
+	private final CompactTreeNode root = new CompactTreeNode(null);
+
+	public CompactEntryTree() {
+	}
+
+	public CompactEntryTree(EntryTree<EntryMapping> tree) {
+		for (EntryTreeNode<EntryMapping> node : tree) {
+			this.insert(node.getEntry(), node.getValue());
+		}
+	}
+
+	@Override
+	public void insert(Entry<?> entry, EntryMapping value) {
+		if (value == null) {
+			this.remove(entry);
+			return;
+		}
+
+		this.computeNode(entry).putValue(value.javadoc() == null ? MAPPINGS.intern(value) : value);
+	}
+
+	@Override
+	@Nullable
+	public EntryMapping remove(Entry<?> entry) {
+		CompactTreeNode node = this.findNode(entry);
+		if (node == null) {
+			return null;
+		}
+
+		EntryMapping value = node.removeValue();
+
+		// prune the nodes which were only kept for this value
+		while (node.isEmpty()) {
+			Entry<?> parent = entry.getParent();
+			CompactTreeNode parentNode = parent != null ? this.findNode(parent) : this.root;
+			parentNode.remove(entry);
+			if (parent == null) {
+				break;
+			}
+
+			entry = parent;
+			node = parentNode;
+		}
+
+		return value;
+	}
+
+	@Override
+	@Nullable
+	public EntryMapping get(Entry<?> entry) {
+		CompactTreeNode node = this.findNode(entry);
+		if (node == null) {
+			return null;
+		}
+
+		return node.getValue();
+	}
+
+	@Override
+	public boolean contains(Entry<?> entry) {
+		return this.get(entry) != null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		CompactTreeNode leaf = this.findNode(entry);
+		if (leaf == null) {
+			return Collections.emptyList();
+		}
+
+		return leaf.getChildren();
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		Set<Entry<?>> siblings = new HashSet<>(parent != null ? this.getChildren(parent) : this.root.getChildren());
+		siblings.remove(entry);
+		return siblings;
+	}
+
+	@Override
+	@Nullable
+	public CompactTreeNode findNode(Entry<?> target) {
+		Entry<?> parent = target.getParent();
+		CompactTreeNode parentNode = parent != null ? this.findNode(parent) : this.root;
+		return parentNode != null ? parentNode.getChild(target) : null;
+	}
+
+	private CompactTreeNode computeNode(Entry<?> target) {
+		Entry<?> parent = target.getParent();
+		CompactTreeNode parentNode = parent != null ? this.computeNode(parent) : this.root;
+		return parentNode.computeChild(target);
+	}
+
+	@Override
+	@Nonnull
+	public Iterator<EntryTreeNode<EntryMapping>> iterator() {
+		return Spliterators.iterator(this.spliterator());
+	}
+
+	/**
+	 * Walks the nodes of this tree lazily, splitting by root node. The tree must not be changed during the walk.
+	 */
+	@Override
+	public Spliterator<EntryTreeNode<EntryMapping>> spliterator() {
+		return new EntryTreeNodeSpliterator<>(this.root.getChildNodes().spliterator());
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		return StreamSupport.stream(this.spliterator(), false)
+				.filter(EntryTreeNode::hasValue)
+				.map(EntryTreeNode::getEntry);
+	}
+
+	@Override
+	public Stream<EntryTreeNode<EntryMapping>> getRootNodes() {
+		return this.root.getChildNodes().stream().map(Function.identity());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.root.isEmpty();
+	}
+
+	@Override
+	public CompactEntryTree translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		CompactEntryTree translatedTree = new CompactEntryTree();
+		for (EntryTreeNode<EntryMapping> node : this) {
+			translatedTree.insert(translator.translate(node.getEntry()), node.getValue());
+		}
+
+		return translatedTree;
+	}
+}
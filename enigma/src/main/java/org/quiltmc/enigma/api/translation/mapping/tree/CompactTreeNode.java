@@ -0,0 +1,200 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A node of a {@link CompactEntryTree}.
+ *
+ * <p>
+ * Instead of a hash map, the children are kept in an open-addressing table with linear probing,
+ * which is allocated with the first child and dropped with the last one.
+ */
+public class CompactTreeNode implements EntryTreeNode<EntryMapping> {
+	private static final int MINIMUM_CAPACITY = 2;
+
+	private final Entry<?> entry;
+	@Nullable
+	private EntryMapping value;
+	@Nullable
+	private CompactTreeNode[] children;
+	private int childCount;
+
+	CompactTreeNode(Entry<?> entry) {
+		this.entry = entry;
+	}
+
+	void putValue(@Nullable EntryMapping value) {
+		this.value = value;
+	}
+
+	@Nullable
+	EntryMapping removeValue() {
+		EntryMapping oldValue = this.value;
+		this.value = null;
+		return oldValue;
+	}
+
+	@Nullable
+	CompactTreeNode getChild(Entry<?> entry) {
+		CompactTreeNode[] table = this.children;
+		if (table == null) {
+			return null;
+		}
+
+		int hash = entry.hashCode();
+		int mask = table.length - 1;
+		for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+			CompactTreeNode child = table[i];
+			if (child == null) {
+				return null;
+			}
+
+			if (child.entry.hashCode() == hash && child.entry.equals(entry)) {
+				return child;
+			}
+		}
+	}
+
+	@Nullable
+	@Override
+	public CompactTreeNode getChildNode(Entry<?> entry) {
+		return this.getChild(entry);
+	}
+
+	CompactTreeNode computeChild(Entry<?> entry) {
+		CompactTreeNode child = this.getChild(entry);
+		if (child != null) {
+			return child;
+		}
+
+		// keep the load factor at most 3/4, so that there is always a free slot to end a probe
+		CompactTreeNode[] table = this.children;
+		if (table == null) {
+			table = new CompactTreeNode[MINIMUM_CAPACITY];
+			this.children = table;
+		} else if ((this.childCount + 1) * 4 > table.length * 3) {
+			table = this.resize(table.length * 2);
+		}
+
+		child = new CompactTreeNode(entry);
+		insertInto(table, child);
+		this.childCount++;
+		return child;
+	}
+
+	void remove(Entry<?> entry) {
+		CompactTreeNode[] table = this.children;
+		if (table == null) {
+			return;
+		}
+
+		int hash = entry.hashCode();
+		int mask = table.length - 1;
+		int i = spread(hash) & mask;
+		while (true) {
+			CompactTreeNode child = table[i];
+			if (child == null) {
+				return;
+			}
+
+			if (child.entry.hashCode() == hash && child.entry.equals(entry)) {
+				break;
+			}
+
+			i = (i + 1) & mask;
+		}
+
+		if (--this.childCount == 0) {
+			this.children = null;
+			return;
+		}
+
+		// shift the following children of the probe sequence back, so that none of them becomes unreachable
+		table[i] = null;
+		for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+			int home = spread(table[j].entry.hashCode()) & mask;
+			boolean reachable = i <= j ? i < home && home <= j : i < home || home <= j;
+			if (!reachable) {
+				table[i] = table[j];
+				table[j] = null;
+				i = j;
+			}
+		}
+	}
+
+	private CompactTreeNode[] resize(int capacity) {
+		CompactTreeNode[] table = new CompactTreeNode[capacity];
+		for (CompactTreeNode child : this.children) {
+			if (child != null) {
+				insertInto(table, child);
+			}
+		}
+
+		this.children = table;
+		return table;
+	}
+
+	private static void insertInto(CompactTreeNode[] table, CompactTreeNode child) {
+		int mask = table.length - 1;
+		int i = spread(child.entry.hashCode()) & mask;
+		while (table[i] != null) {
+			i = (i + 1) & mask;
+		}
+
+		table[i] = child;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	@Override
+	@Nullable
+	public EntryMapping getValue() {
+		return this.value;
+	}
+
+	@Override
+	public Entry<?> getEntry() {
+		return this.entry;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.childCount == 0 && this.value == null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren() {
+		List<Entry<?>> entries = new ArrayList<>(this.childCount);
+		if (this.children != null) {
+			for (CompactTreeNode child : this.children) {
+				if (child != null) {
+					entries.add(child.entry);
+				}
+			}
+		}
+
+		return entries;
+	}
+
+	@Override
+	public Collection<CompactTreeNode> getChildNodes() {
+		List<CompactTreeNode> nodes = new ArrayList<>(this.childCount);
+		if (this.children != null) {
+			for (CompactTreeNode child : this.children) {
+				if (child != null) {
+					nodes.add(child);
+				}
+			}
+		}
+
+		return nodes;
+	}
+}
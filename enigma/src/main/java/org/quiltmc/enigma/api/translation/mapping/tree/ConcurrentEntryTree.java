@@ -0,0 +1,276 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An entry tree which can be read and written from multiple threads at once.
+ *
+ * <p>
+ * Reads never block: the root nodes are kept in a concurrent map, and every node publishes its children
+ * as an immutable array which writers replace.
+ * Writes lock the node of the top-level class they fall under, so writes to different classes never contend.
+ * Iteration is weakly consistent, it reflects every write that completed before it started and may reflect later ones.
+ *
+ * <p>
+ * A {@linkplain #snapshot() snapshot} shares the nodes of the tree instead of copying them. Once shared, the nodes
+ * of a top-level class are only copied when either tree first writes to that class.
+ */
+public class ConcurrentEntryTree<T> implements EntryTree<T> {
+	private final ConcurrentMap<Entry<?>, ConcurrentTreeNode<T>> root = new ConcurrentHashMap<>();
+	// writes share the read lock, a snapshot takes the write lock so that no write is half done when the nodes become shared
+	private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+	// owns the nodes this tree may change in place, replaced when its nodes become shared with a snapshot
+	private volatile Object owner = new Object();
+
+	public ConcurrentEntryTree() {
+	}
+
+	public ConcurrentEntryTree(EntryTree<T> tree) {
+		for (EntryTreeNode<T> node : tree) {
+			this.insert(node.getEntry(), node.getValue());
+		}
+	}
+
+	@Override
+	public void insert(Entry<?> entry, T value) {
+		if (value == null) {
+			this.remove(entry);
+			return;
+		}
+
+		Entry<?> rootEntry = getRootEntry(entry);
+		Lock lock = this.snapshotLock.readLock();
+		lock.lock();
+		try {
+			while (true) {
+				ConcurrentTreeNode<T> rootNode = this.root.computeIfAbsent(rootEntry, e -> new ConcurrentTreeNode<>(e, this.owner));
+				synchronized (rootNode) {
+					// the root node may have been pruned or copied while waiting for its lock
+					if (this.root.get(rootEntry) == rootNode && this.own(rootEntry, rootNode)) {
+						this.computeNode(rootNode, entry).putValue(value);
+						return;
+					}
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public T remove(Entry<?> entry) {
+		Entry<?> rootEntry = getRootEntry(entry);
+		Lock lock = this.snapshotLock.readLock();
+		lock.lock();
+		try {
+			while (true) {
+				ConcurrentTreeNode<T> rootNode = this.root.get(rootEntry);
+				if (rootNode == null) {
+					return null;
+				}
+
+				synchronized (rootNode) {
+					if (this.root.get(rootEntry) == rootNode) {
+						if (this.findNode(entry) == null) {
+							return null;
+						} else if (this.own(rootEntry, rootNode)) {
+							return this.removeUnder(rootNode, entry);
+						}
+					}
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Makes sure that the nodes of a top-level class can be changed in place, by copying them if they are shared with a snapshot.
+	 * Must only be called while holding the lock of the root node.
+	 *
+	 * @return whether the root node is owned by this tree, or {@code false} if it was replaced by a copy which must be locked instead
+	 */
+	private boolean own(Entry<?> rootEntry, ConcurrentTreeNode<T> rootNode) {
+		if (rootNode.owner == this.owner) {
+			return true;
+		}
+
+		this.root.replace(rootEntry, rootNode, rootNode.copy(this.owner));
+		return false;
+	}
+
+	/**
+	 * Takes a snapshot of this tree, without copying its nodes.
+	 * The snapshot is an independent tree: changes to this tree are not visible in it, and changes to it are not visible in this tree.
+	 * This takes time proportional to the number of top-level classes, and briefly waits for the writes in progress.
+	 * Reads are never blocked.
+	 *
+	 * @return the snapshot
+	 */
+	public ConcurrentEntryTree<T> snapshot() {
+		Lock lock = this.snapshotLock.writeLock();
+		lock.lock();
+		try {
+			// from now on, both trees copy the nodes of a class before changing them
+			this.owner = new Object();
+			ConcurrentEntryTree<T> snapshot = new ConcurrentEntryTree<>();
+			snapshot.root.putAll(this.root);
+			return snapshot;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private T removeUnder(ConcurrentTreeNode<T> rootNode, Entry<?> entry) {
+		ConcurrentTreeNode<T> node = this.findNode(entry);
+		if (node == null) {
+			return null;
+		}
+
+		T value = node.removeValue();
+
+		// prune the nodes which were only kept for this value
+		while (node != rootNode && node.isEmpty()) {
+			Entry<?> parent = entry.getParent();
+			ConcurrentTreeNode<T> parentNode = this.findNode(parent);
+			parentNode.remove(entry);
+			entry = parent;
+			node = parentNode;
+		}
+
+		if (rootNode.isEmpty()) {
+			this.root.remove(rootNode.getEntry(), rootNode);
+		}
+
+		return value;
+	}
+
+	private static Entry<?> getRootEntry(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		while (parent != null) {
+			entry = parent;
+			parent = entry.getParent();
+		}
+
+		return entry;
+	}
+
+	@Override
+	@Nullable
+	public T get(Entry<?> entry) {
+		ConcurrentTreeNode<T> node = this.findNode(entry);
+		if (node == null) {
+			return null;
+		}
+
+		return node.getValue();
+	}
+
+	@Override
+	public boolean contains(Entry<?> entry) {
+		return this.get(entry) != null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		ConcurrentTreeNode<T> leaf = this.findNode(entry);
+		if (leaf == null) {
+			return Collections.emptyList();
+		}
+
+		return leaf.getChildren();
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		Set<Entry<?>> siblings = new HashSet<>(parent != null ? this.getChildren(parent) : this.root.keySet());
+		siblings.remove(entry);
+		return siblings;
+	}
+
+	@Override
+	@Nullable
+	public ConcurrentTreeNode<T> findNode(Entry<?> target) {
+		Entry<?> parent = target.getParent();
+		if (parent == null) {
+			return this.root.get(target);
+		}
+
+		ConcurrentTreeNode<T> parentNode = this.findNode(parent);
+		return parentNode != null ? parentNode.getChild(target) : null;
+	}
+
+	private ConcurrentTreeNode<T> computeNode(ConcurrentTreeNode<T> rootNode, Entry<?> target) {
+		Entry<?> parent = target.getParent();
+		if (parent == null) {
+			return rootNode;
+		}
+
+		return this.computeNode(rootNode, parent).computeChild(target);
+	}
+
+	@Override
+	@Nonnull
+	public Iterator<EntryTreeNode<T>> iterator() {
+		return Spliterators.iterator(this.spliterator());
+	}
+
+	/**
+	 * Walks the nodes of this tree lazily, splitting by root node. Like any iteration of this tree, the walk is weakly consistent.
+	 */
+	@Override
+	public Spliterator<EntryTreeNode<T>> spliterator() {
+		return new EntryTreeNodeSpliterator<>(this.root.values().spliterator());
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		return StreamSupport.stream(this.spliterator(), false)
+				.filter(EntryTreeNode::hasValue)
+				.map(EntryTreeNode::getEntry);
+	}
+
+	@Override
+	public Stream<EntryTreeNode<T>> getRootNodes() {
+		return this.root.values().stream().map(Function.identity());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.root.isEmpty();
+	}
+
+	@Override
+	public ConcurrentEntryTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		ConcurrentEntryTree<T> translatedTree = new ConcurrentEntryTree<>();
+		for (EntryTreeNode<T> node : this) {
+			translatedTree.insert(translator.translate(node.getEntry()), node.getValue());
+		}
+
+		return translatedTree;
+	}
+}
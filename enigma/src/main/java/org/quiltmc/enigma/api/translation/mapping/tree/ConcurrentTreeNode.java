@@ -0,0 +1,198 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A node of a {@link ConcurrentEntryTree}.
+ *
+ * <p>
+ * The children are kept in arrays sorted by the hash codes of their entries, which are never modified once published.
+ * Writers replace them with modified copies, so readers can walk the node without locking.
+ */
+public class ConcurrentTreeNode<T> implements EntryTreeNode<T> {
+	private static final Children<?> NO_CHILDREN = Children.empty();
+
+	private final Entry<?> entry;
+	// the tree which may change this node, see ConcurrentEntryTree#snapshot
+	final Object owner;
+	@Nullable
+	private volatile T value;
+	@SuppressWarnings("unchecked")
+	private volatile Children<T> children = (Children<T>) NO_CHILDREN;
+
+	ConcurrentTreeNode(Entry<?> entry, Object owner) {
+		this.entry = entry;
+		this.owner = owner;
+	}
+
+	/**
+	 * Copies this node and all of its descendants for another owner. Must only be called while holding the lock of the tree's root node.
+	 */
+	ConcurrentTreeNode<T> copy(Object owner) {
+		ConcurrentTreeNode<T> copy = new ConcurrentTreeNode<>(this.entry, owner);
+		copy.value = this.value;
+
+		Children<T> children = this.children;
+		if (children.nodes.length > 0) {
+			ConcurrentTreeNode<T>[] nodes = Arrays.copyOf(children.nodes, children.nodes.length);
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = nodes[i].copy(owner);
+			}
+
+			// the hash codes are never modified once published, so they can be shared
+			copy.children = new Children<>(children.hashes, nodes);
+		}
+
+		return copy;
+	}
+
+	void putValue(T value) {
+		this.value = value;
+	}
+
+	@Nullable
+	T removeValue() {
+		T oldValue = this.value;
+		this.value = null;
+		return oldValue;
+	}
+
+	@Nullable
+	ConcurrentTreeNode<T> getChild(Entry<?> entry) {
+		Children<T> children = this.children;
+		int index = children.indexOf(entry);
+		return index >= 0 ? children.nodes[index] : null;
+	}
+
+	@Nullable
+	@Override
+	public ConcurrentTreeNode<T> getChildNode(Entry<?> entry) {
+		return this.getChild(entry);
+	}
+
+	/**
+	 * Gets or adds a child. Must only be called while holding the lock of the tree's root node.
+	 */
+	ConcurrentTreeNode<T> computeChild(Entry<?> entry) {
+		Children<T> children = this.children;
+		int index = children.indexOf(entry);
+		if (index >= 0) {
+			return children.nodes[index];
+		}
+
+		int insertion = -index - 1;
+		int length = children.hashes.length;
+		int[] hashes = new int[length + 1];
+		ConcurrentTreeNode<T>[] nodes = Arrays.copyOf(children.nodes, length + 1);
+		System.arraycopy(children.hashes, 0, hashes, 0, insertion);
+		System.arraycopy(children.hashes, insertion, hashes, insertion + 1, length - insertion);
+		System.arraycopy(children.nodes, insertion, nodes, insertion + 1, length - insertion);
+
+		ConcurrentTreeNode<T> child = new ConcurrentTreeNode<>(entry, this.owner);
+		hashes[insertion] = entry.hashCode();
+		nodes[insertion] = child;
+		this.children = new Children<>(hashes, nodes);
+		return child;
+	}
+
+	/**
+	 * Removes a child. Must only be called while holding the lock of the tree's root node.
+	 */
+	@SuppressWarnings("unchecked")
+	void remove(Entry<?> entry) {
+		Children<T> children = this.children;
+		int index = children.indexOf(entry);
+		if (index < 0) {
+			return;
+		}
+
+		int length = children.hashes.length;
+		if (length == 1) {
+			this.children = (Children<T>) NO_CHILDREN;
+			return;
+		}
+
+		int[] hashes = Arrays.copyOf(children.hashes, length - 1);
+		ConcurrentTreeNode<T>[] nodes = Arrays.copyOf(children.nodes, length - 1);
+		System.arraycopy(children.hashes, index + 1, hashes, index, length - index - 1);
+		System.arraycopy(children.nodes, index + 1, nodes, index, length - index - 1);
+		this.children = new Children<>(hashes, nodes);
+	}
+
+	@Override
+	@Nullable
+	public T getValue() {
+		return this.value;
+	}
+
+	@Override
+	public Entry<?> getEntry() {
+		return this.entry;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.children.nodes.length == 0 && this.value == null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren() {
+		ConcurrentTreeNode<T>[] nodes = this.children.nodes;
+		List<Entry<?>> entries = new ArrayList<>(nodes.length);
+		for (ConcurrentTreeNode<T> child : nodes) {
+			entries.add(child.entry);
+		}
+
+		return entries;
+	}
+
+	@Override
+	public Collection<ConcurrentTreeNode<T>> getChildNodes() {
+		// the array is never modified once published, so this is a stable snapshot
+		return Collections.unmodifiableList(Arrays.asList(this.children.nodes));
+	}
+
+	/**
+	 * The children of a node, with the hash codes of their entries kept apart so that searching them stays in one array.
+	 */
+	private record Children<T>(int[] hashes, ConcurrentTreeNode<T>[] nodes) {
+		@SuppressWarnings("unchecked")
+		private static <T> Children<T> empty() {
+			return new Children<>(new int[0], (ConcurrentTreeNode<T>[]) new ConcurrentTreeNode<?>[0]);
+		}
+
+		/**
+		 * Finds a child with a binary search over the hash codes, then among the children sharing the hash code.
+		 *
+		 * @return the index of the child, or {@code -insertionPoint - 1} if there is no such child
+		 */
+		private int indexOf(Entry<?> entry) {
+			int hash = entry.hashCode();
+			int index = Arrays.binarySearch(this.hashes, hash);
+			if (index < 0) {
+				return index;
+			}
+
+			for (int i = index; i >= 0 && this.hashes[i] == hash; i--) {
+				if (this.nodes[i].entry.equals(entry)) {
+					return i;
+				}
+			}
+
+			for (int i = index + 1; i < this.hashes.length && this.hashes[i] == hash; i++) {
+				if (this.nodes[i].entry.equals(entry)) {
+					return i;
+				}
+			}
+
+			return -index - 1;
+		}
+	}
+}
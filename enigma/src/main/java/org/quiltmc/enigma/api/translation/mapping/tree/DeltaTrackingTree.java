@@ -10,40 +10,83 @@ import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 public class DeltaTrackingTree<T> implements EntryTree<T> {
 	private final EntryTree<T> delegate;
 
-	private EntryTree<T> deltaReference;
-	private EntryTree<Object> changes = new HashEntryTree<>();
+	private volatile EntryTree<T> deltaReference;
+	// concurrent, since changes can also be tracked from multiple threads outside of insert and remove
+	private volatile EntryTree<Object> changes = new ConcurrentEntryTree<>();
+	private MappingJournal<T> journal = new MappingJournal<>();
+	// the sequence number of the last change in the last delta taken
+	private long takenSequence;
+	private final AtomicLong generation = new AtomicLong();
 
 	public DeltaTrackingTree(EntryTree<T> delegate) {
 		this.delegate = delegate;
-		this.deltaReference = new HashEntryTree<>(delegate);
+		this.deltaReference = EntryTreeUtil.snapshot(delegate);
 	}
 
 	public DeltaTrackingTree() {
 		this(new HashEntryTree<>());
 	}
 
+	// changes are serialized, so that the journal lists them in the order they were applied
 	@Override
-	public void insert(Entry<?> entry, T value) {
+	public synchronized void insert(Entry<?> entry, T value) {
 		this.trackChange(entry);
+		T oldValue = this.delegate.get(entry);
 		this.delegate.insert(entry, value);
+		this.journal.append(entry, oldValue, value);
+		this.generation.incrementAndGet();
 	}
 
 	@Nullable
 	@Override
-	public T remove(Entry<?> entry) {
+	public synchronized T remove(Entry<?> entry) {
 		this.trackChange(entry);
-		return this.delegate.remove(entry);
+		T oldValue = this.delegate.get(entry);
+		T removed = this.delegate.remove(entry);
+		this.journal.append(entry, oldValue, null);
+		this.generation.incrementAndGet();
+		return removed;
 	}
 
 	public void trackChange(Entry<?> entry) {
 		this.changes.insert(entry, MappingDelta.PLACEHOLDER);
 	}
 
+	/**
+	 * Gets the journal of the changes made through this tree. Unlike the delta, the journal is kept when the delta is taken,
+	 * but so that it doesn't grow without bound, taking a delta discards the changes which were already in the delta taken before it.
+	 *
+	 * @return the journal
+	 */
+	public MappingJournal<T> getJournal() {
+		return this.journal;
+	}
+
+	/**
+	 * Gets the generation of this tree, which is incremented after every change made through it.
+	 * Values derived from the tree can be stamped with its generation, to tell whether they are stale.
+	 *
+	 * @return the current generation
+	 */
+	public long getGeneration() {
+		return this.generation.get();
+	}
+
+	/**
+	 * Increments the generation of this tree. Must be called after changing the trees it reads from directly,
+	 * rather than through this tree.
+	 */
+	public void incrementGeneration() {
+		this.generation.incrementAndGet();
+	}
+
 	@Nullable
 	@Override
 	public T get(Entry<?> entry) {
@@ -75,6 +118,8 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 	public DeltaTrackingTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
 		DeltaTrackingTree<T> translatedTree = new DeltaTrackingTree<>(this.delegate.translate(translator, resolver, mappings));
 		translatedTree.changes = this.changes.translate(translator, resolver, mappings);
+		translatedTree.journal = this.journal.translate(translator);
+		translatedTree.takenSequence = this.takenSequence;
 		return translatedTree;
 	}
 
@@ -93,15 +138,25 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 		return this.delegate.iterator();
 	}
 
-	public MappingDelta<T> takeDelta() {
+	@Override
+	public Spliterator<EntryTreeNode<T>> spliterator() {
+		return this.delegate.spliterator();
+	}
+
+	// synchronized with insert and remove, so that the new reference and the journal agree on which changes the delta has
+	public synchronized MappingDelta<T> takeDelta() {
 		MappingDelta<T> delta = new MappingDelta<>(this.deltaReference, this.changes);
 		this.resetDelta();
+
+		// readers of the journal have until the next delta to catch up on the changes in this one
+		this.journal.discardUntil(this.takenSequence);
+		this.takenSequence = this.journal.getLastSequence();
 		return delta;
 	}
 
 	private void resetDelta() {
-		this.deltaReference = new HashEntryTree<>(this.delegate);
-		this.changes = new HashEntryTree<>();
+		this.deltaReference = EntryTreeUtil.snapshot(this.delegate);
+		this.changes = new ConcurrentEntryTree<>();
 	}
 
 	public boolean isDirty() {
@@ -19,6 +19,24 @@ public interface EntryTreeNode<T> {
 
 	Collection<? extends EntryTreeNode<T>> getChildNodes();
 
+	/**
+	 * Finds the child node of an entry. Nodes which index their children by entry look it up directly,
+	 * by default every child is searched.
+	 *
+	 * @param entry the entry of the child
+	 * @return the child node, or {@code null} if there is none
+	 */
+	@Nullable
+	default EntryTreeNode<T> getChildNode(Entry<?> entry) {
+		for (EntryTreeNode<T> child : this.getChildNodes()) {
+			if (child.getEntry().equals(entry)) {
+				return child;
+			}
+		}
+
+		return null;
+	}
+
 	default Collection<? extends EntryTreeNode<T>> getNodesRecursively() {
 		Collection<EntryTreeNode<T>> nodes = new ArrayList<>();
 		nodes.add(this);
@@ -0,0 +1,66 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Walks the nodes of an entry tree depth-first, each node before its children, without collecting them first.
+ *
+ * <p>
+ * Splitting hands over part of the root nodes which were not walked yet, so that a whole class is always walked
+ * by a single spliterator, and walks over many classes can run as parallel streams.
+ * The size is estimated by the number of remaining root nodes.
+ */
+final class EntryTreeNodeSpliterator<T> implements Spliterator<EntryTreeNode<T>> {
+	private final Spliterator<? extends EntryTreeNode<T>> roots;
+	// the iterators over the children of the nodes along the walked path, the innermost on top
+	private final Deque<Iterator<? extends EntryTreeNode<T>>> path = new ArrayDeque<>();
+
+	EntryTreeNodeSpliterator(Spliterator<? extends EntryTreeNode<T>> roots) {
+		this.roots = roots;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super EntryTreeNode<T>> action) {
+		while (!this.path.isEmpty()) {
+			Iterator<? extends EntryTreeNode<T>> children = this.path.peek();
+			if (children.hasNext()) {
+				this.visit(children.next(), action);
+				return true;
+			}
+
+			this.path.pop();
+		}
+
+		return this.roots.tryAdvance(root -> this.visit(root, action));
+	}
+
+	private void visit(EntryTreeNode<T> node, Consumer<? super EntryTreeNode<T>> action) {
+		Collection<? extends EntryTreeNode<T>> children = node.getChildNodes();
+		if (!children.isEmpty()) {
+			this.path.push(children.iterator());
+		}
+
+		action.accept(node);
+	}
+
+	@Override
+	public Spliterator<EntryTreeNode<T>> trySplit() {
+		Spliterator<? extends EntryTreeNode<T>> split = this.roots.trySplit();
+		return split != null ? new EntryTreeNodeSpliterator<>(split) : null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return this.roots.estimateSize();
+	}
+
+	@Override
+	public int characteristics() {
+		return NONNULL;
+	}
+}
@@ -30,4 +30,23 @@ public class EntryTreeUtil {
 
 		return merged;
 	}
+
+	/**
+	 * Takes a snapshot of a tree, which is not affected by later changes to the tree.
+	 * Takes constant time for {@link PersistentEntryTree}s, shares the nodes of {@link ConcurrentEntryTree}s,
+	 * handles merged trees of either, and copies any other tree.
+	 * @return the snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> EntryTree<T> snapshot(EntryTree<T> tree) {
+		if (tree instanceof PersistentEntryTree<T> persistentTree) {
+			return persistentTree.snapshot();
+		} else if (tree instanceof ConcurrentEntryTree<T> concurrentTree) {
+			return concurrentTree.snapshot();
+		} else if (tree instanceof MergedEntryMappingTree mergedTree) {
+			return (EntryTree<T>) new MergedEntryMappingTree(snapshot(mergedTree.mainTree()), snapshot(mergedTree.secondaryTree()));
+		}
+
+		return new HashEntryTree<>(tree);
+	}
 }
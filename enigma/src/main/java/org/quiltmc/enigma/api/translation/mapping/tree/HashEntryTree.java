@@ -17,6 +17,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -35,11 +37,14 @@ public class HashEntryTree<T> implements EntryTree<T> {
 
 	@Override
 	public void insert(Entry<?> entry, T value) {
-		List<HashTreeNode<T>> path = this.computePath(entry, true);
-		path.get(path.size() - 1).putValue(value);
-		if (value == null) {
-			this.removeDeadAlong(path);
+		if (value != null) {
+			this.computeNode(entry).putValue(value);
+			return;
 		}
+
+		List<HashTreeNode<T>> path = this.computePath(entry, true);
+		path.get(path.size() - 1).putValue(null);
+		this.removeDeadAlong(path);
 	}
 
 	@Override
@@ -102,21 +107,23 @@ public class HashEntryTree<T> implements EntryTree<T> {
 	@Override
 	@Nullable
 	public HashTreeNode<T> findNode(Entry<?> target) {
-		List<Entry<?>> parentChain = target.getAncestry();
-		if (parentChain.isEmpty()) {
-			return null;
+		// walk the parent chain from the root without building the ancestry, this is the hot path of every lookup
+		Entry<?> parent = target.getParent();
+		if (parent == null) {
+			return this.root.get(target);
 		}
 
-		HashTreeNode<T> node = this.root.get(parentChain.get(0));
-		for (int i = 1; i < parentChain.size(); i++) {
-			if (node == null) {
-				return null;
-			}
+		HashTreeNode<T> parentNode = this.findNode(parent);
+		return parentNode != null ? parentNode.getChild(target) : null;
+	}
 
-			node = node.getChild(parentChain.get(i));
+	private HashTreeNode<T> computeNode(Entry<?> target) {
+		Entry<?> parent = target.getParent();
+		if (parent == null) {
+			return this.root.computeIfAbsent(target, HashTreeNode::new);
 		}
 
-		return node;
+		return this.computeNode(parent).computeChild(target);
 	}
 
 	private List<HashTreeNode<T>> computePath(Entry<?> target, boolean make) {
@@ -167,12 +174,16 @@ public class HashEntryTree<T> implements EntryTree<T> {
 	@Override
 	@Nonnull
 	public Iterator<EntryTreeNode<T>> iterator() {
-		Collection<EntryTreeNode<T>> nodes = new ArrayList<>();
-		for (EntryTreeNode<T> node : this.root.values()) {
-			nodes.addAll(node.getNodesRecursively());
-		}
+		return Spliterators.iterator(this.spliterator());
+	}
 
-		return nodes.iterator();
+	/**
+	 * Walks the nodes of this tree lazily, and splits by root node for parallel streams.
+	 * The tree must not be changed during the walk.
+	 */
+	@Override
+	public Spliterator<EntryTreeNode<T>> spliterator() {
+		return new EntryTreeNodeSpliterator<>(this.root.values().spliterator());
 	}
 
 	@Override
@@ -33,6 +33,12 @@ public class HashTreeNode<T> implements EntryTreeNode<T>, Iterable<HashTreeNode<
 		return this.children.get(entry);
 	}
 
+	@Nullable
+	@Override
+	public HashTreeNode<T> getChildNode(Entry<?> entry) {
+		return this.getChild(entry);
+	}
+
 	@Nonnull
 	HashTreeNode<T> computeChild(Entry<?> entry) {
 		return this.children.computeIfAbsent(entry, HashTreeNode::new);
@@ -0,0 +1,94 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only log of the changes made through a {@link DeltaTrackingTree}, in the order they were made.
+ *
+ * <p>
+ * Every change gets a sequence number, one higher than the one of the change before it, starting from {@code 1}.
+ * A reader can remember the last sequence number it has seen, and later ask for {@linkplain #getChangesSince(long) the changes since}
+ * to catch up, for example to save or send only what changed. Changes that nobody needs anymore can be {@linkplain #discardUntil(long) discarded},
+ * which the tree does itself for the changes in all but the last {@linkplain DeltaTrackingTree#takeDelta() delta} taken.
+ *
+ * @param <T> the type of the values of the tree
+ */
+public final class MappingJournal<T> {
+	private final List<Change<T>> changes = new ArrayList<>();
+	// the sequence number of the last change which was discarded, or 0
+	private long discarded;
+
+	MappingJournal() {
+	}
+
+	synchronized Change<T> append(Entry<?> entry, @Nullable T oldValue, @Nullable T newValue) {
+		Change<T> change = new Change<>(this.discarded + this.changes.size() + 1, entry, oldValue, newValue);
+		this.changes.add(change);
+		return change;
+	}
+
+	/**
+	 * {@return the sequence number of the last change, or {@code 0} if nothing has changed yet}
+	 */
+	public synchronized long getLastSequence() {
+		return this.discarded + this.changes.size();
+	}
+
+	/**
+	 * Gets the changes made after the change with the given sequence number, in order.
+	 * This takes time proportional to the number of changes returned, not to the length of the journal.
+	 *
+	 * @param sequence the sequence number of the last change already seen, or {@code 0} for all changes
+	 * @return a copy of the changes made since
+	 * @throws IllegalArgumentException if some of these changes were discarded
+	 */
+	public synchronized List<Change<T>> getChangesSince(long sequence) {
+		if (sequence < this.discarded) {
+			throw new IllegalArgumentException("Changes after " + sequence + " were discarded, the journal starts after " + this.discarded);
+		}
+
+		int from = (int) Math.min(sequence - this.discarded, this.changes.size());
+		return List.copyOf(this.changes.subList(from, this.changes.size()));
+	}
+
+	/**
+	 * Discards the changes up to and including the change with the given sequence number.
+	 * Sequence numbers are never reused, later changes keep theirs.
+	 *
+	 * @param sequence the sequence number of the last change to discard
+	 */
+	public synchronized void discardUntil(long sequence) {
+		int count = (int) Math.min(sequence - this.discarded, this.changes.size());
+		if (count > 0) {
+			this.changes.subList(0, count).clear();
+			this.discarded += count;
+		}
+	}
+
+	synchronized MappingJournal<T> translate(Translator translator) {
+		MappingJournal<T> translated = new MappingJournal<>();
+		translated.discarded = this.discarded;
+		for (Change<T> change : this.changes) {
+			translated.changes.add(new Change<>(change.sequence(), translator.translate(change.entry()), change.oldValue(), change.newValue()));
+		}
+
+		return translated;
+	}
+
+	/**
+	 * A single change to an entry.
+	 *
+	 * @param sequence the sequence number of the change
+	 * @param entry the changed entry
+	 * @param oldValue the value of the entry before the change, as read from the tree
+	 * @param newValue the value written by the change, or {@code null} if the entry was removed
+	 * @param <T> the type of the values of the tree
+	 */
+	public record Change<T>(long sequence, Entry<?> entry, @Nullable T oldValue, @Nullable T newValue) {
+	}
+}
@@ -10,12 +10,13 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An {@link EntryMapping entry mapping} {@link EntryTree tree} that represents both a main and a secondary tree.
@@ -94,31 +95,42 @@ public record MergedEntryMappingTree(EntryTree<EntryMapping> mainTree, EntryTree
 		return main;
 	}
 
-	static Stream<EntryTreeNode<EntryMapping>> mergeNodeStreams(Stream<EntryTreeNode<EntryMapping>> mainNodes, Stream<EntryTreeNode<EntryMapping>> secondaryNodes) {
-		Map<Entry<?>, EntryTreeNode<EntryMapping>> nodes = new HashMap<>();
-
-		mainNodes.forEach(mainNode -> nodes.put(mainNode.getEntry(), mainNode));
-		secondaryNodes.forEach(secondaryNode -> nodes.merge(secondaryNode.getEntry(), secondaryNode, MergedMappingTreeNode::new));
-
-		return nodes.values().stream();
-	}
-
 	@Override
 	public Stream<EntryTreeNode<EntryMapping>> getRootNodes() {
-		return mergeNodeStreams(this.mainTree.getRootNodes(), this.secondaryTree.getRootNodes());
+		return this.mergeNodes(this.mainTree.getRootNodes(), this.secondaryTree.getRootNodes());
+	}
+
+	/**
+	 * Merges the nodes of the main tree with the nodes of the secondary tree, by looking up the node of the other tree
+	 * for each of them, so that nothing needs to be collected.
+	 */
+	private Stream<EntryTreeNode<EntryMapping>> mergeNodes(Stream<EntryTreeNode<EntryMapping>> mainNodes, Stream<EntryTreeNode<EntryMapping>> secondaryNodes) {
+		return Stream.concat(
+				mainNodes.map(mainNode -> {
+					EntryTreeNode<EntryMapping> secondaryNode = this.secondaryTree.findNode(mainNode.getEntry());
+					return secondaryNode != null ? new MergedMappingTreeNode(mainNode, secondaryNode) : mainNode;
+				}),
+				secondaryNodes.filter(secondaryNode -> this.mainTree.findNode(secondaryNode.getEntry()) == null)
+		);
 	}
 
 	@Nonnull
 	@Override
 	public Iterator<EntryTreeNode<EntryMapping>> iterator() {
-		return this.getRootNodes().flatMap(n -> n.getNodesRecursively().stream())
-			.map(n -> (EntryTreeNode<EntryMapping>) n) // ? extends EntryTreeNode<EntryMapping> -> EntryTreeNode<EntryMapping>
-			.iterator();
+		return Spliterators.iterator(this.spliterator());
+	}
+
+	/**
+	 * Walks the merged nodes lazily, splitting by root node. Neither tree must be changed during the walk.
+	 */
+	@Override
+	public Spliterator<EntryTreeNode<EntryMapping>> spliterator() {
+		return new EntryTreeNodeSpliterator<>(this.getRootNodes().spliterator());
 	}
 
 	@Override
 	public Stream<Entry<?>> getAllEntries() {
-		return this.getRootNodes().flatMap(n -> n.getChildrenRecursively().stream());
+		return StreamSupport.stream(this.spliterator(), false).map(EntryTreeNode::getEntry);
 	}
 
 	@Override
@@ -4,10 +4,11 @@ import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 
 import javax.annotation.Nullable;
+import java.util.AbstractCollection;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * A node of a {@link MergedEntryMappingTree}. Check the documentation of said class for details.
@@ -51,18 +52,49 @@ public record MergedMappingTreeNode(EntryTreeNode<EntryMapping> mainNode, EntryT
 		return children;
 	}
 
+	/**
+	 * Merges the child nodes lazily, by looking up the child node of the other node for each of them.
+	 */
 	@Override
 	public Collection<? extends EntryTreeNode<EntryMapping>> getChildNodes() {
-		Map<Entry<?>, EntryTreeNode<EntryMapping>> nodes = new HashMap<>();
+		return new AbstractCollection<>() {
+			@Override
+			public Iterator<EntryTreeNode<EntryMapping>> iterator() {
+				return MergedMappingTreeNode.this.streamChildNodes().iterator();
+			}
 
-		for (EntryTreeNode<EntryMapping> mainNode : this.mainNode.getChildNodes()) {
-			nodes.put(mainNode.getEntry(), mainNode);
-		}
+			@Override
+			public int size() {
+				return (int) MergedMappingTreeNode.this.streamChildNodes().count();
+			}
+
+			@Override
+			public boolean isEmpty() {
+				return MergedMappingTreeNode.this.mainNode.getChildNodes().isEmpty() && MergedMappingTreeNode.this.secondaryNode.getChildNodes().isEmpty();
+			}
+		};
+	}
+
+	private Stream<EntryTreeNode<EntryMapping>> streamChildNodes() {
+		return Stream.concat(
+				this.mainNode.getChildNodes().stream().map(mainChild -> {
+					EntryTreeNode<EntryMapping> secondaryChild = this.secondaryNode.getChildNode(mainChild.getEntry());
+					return secondaryChild != null ? new MergedMappingTreeNode(mainChild, secondaryChild) : mainChild;
+				}),
+				this.secondaryNode.getChildNodes().stream().filter(secondaryChild -> this.mainNode.getChildNode(secondaryChild.getEntry()) == null)
+		);
+	}
+
+	@Nullable
+	@Override
+	public EntryTreeNode<EntryMapping> getChildNode(Entry<?> entry) {
+		EntryTreeNode<EntryMapping> mainChild = this.mainNode.getChildNode(entry);
+		EntryTreeNode<EntryMapping> secondaryChild = this.secondaryNode.getChildNode(entry);
 
-		for (EntryTreeNode<EntryMapping> secondaryNode : this.secondaryNode.getChildNodes()) {
-			nodes.merge(secondaryNode.getEntry(), secondaryNode, MergedMappingTreeNode::new);
+		if (mainChild != null && secondaryChild != null) {
+			return new MergedMappingTreeNode(mainChild, secondaryChild);
 		}
 
-		return nodes.values();
+		return mainChild != null ? mainChild : secondaryChild;
 	}
 }
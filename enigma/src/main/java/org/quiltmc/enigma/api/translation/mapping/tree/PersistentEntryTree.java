@@ -0,0 +1,211 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An entry tree built from immutable nodes, which can take a {@linkplain #snapshot() snapshot} of itself in constant time.
+ *
+ * <p>
+ * A change replaces the nodes along the path to the changed entry and shares all the others,
+ * so a snapshot is only a reference to the current root, and is never affected by later changes.
+ * Reads never lock, and see the tree as it was after the last completed change. Changes are serialized.
+ * Nodes returned by a tree are immutable too, they keep the value they had when they were looked up.
+ */
+public class PersistentEntryTree<T> implements EntryTree<T> {
+	@Nullable
+	private volatile PersistentTreeNode.Children<T> root;
+
+	public PersistentEntryTree() {
+	}
+
+	public PersistentEntryTree(EntryTree<T> tree) {
+		for (EntryTreeNode<T> node : tree) {
+			this.insert(node.getEntry(), node.getValue());
+		}
+	}
+
+	private PersistentEntryTree(@Nullable PersistentTreeNode.Children<T> root) {
+		this.root = root;
+	}
+
+	/**
+	 * Takes a snapshot of this tree, in constant time and without copying it.
+	 * The snapshot is an independent tree: changes to this tree are not visible in it, and changes to it are not visible in this tree.
+	 *
+	 * @return the snapshot
+	 */
+	public PersistentEntryTree<T> snapshot() {
+		return new PersistentEntryTree<>(this.root);
+	}
+
+	@Override
+	public synchronized void insert(Entry<?> entry, T value) {
+		if (value == null && this.findNode(entry) == null) {
+			return;
+		}
+
+		this.root = with(this.root, entry.getAncestry(), 0, value);
+	}
+
+	@Override
+	@Nullable
+	public synchronized T remove(Entry<?> entry) {
+		PersistentTreeNode<T> node = this.findNode(entry);
+		if (node == null) {
+			return null;
+		}
+
+		this.root = with(this.root, entry.getAncestry(), 0, null);
+		return node.getValue();
+	}
+
+	/**
+	 * Replaces the path to an entry in a trie of siblings, and prunes the nodes left empty.
+	 *
+	 * @return the new trie of siblings, or {@code null} if it is empty
+	 */
+	@Nullable
+	private static <T> PersistentTreeNode.Children<T> with(@Nullable PersistentTreeNode.Children<T> siblings, List<Entry<?>> ancestry, int depth, @Nullable T value) {
+		Entry<?> entry = ancestry.get(depth);
+		PersistentTreeNode<T> node = siblings != null ? siblings.get(entry) : null;
+
+		PersistentTreeNode<T> newNode;
+		if (depth == ancestry.size() - 1) {
+			newNode = new PersistentTreeNode<>(entry, value, node != null ? node.getChildTrie() : null);
+		} else {
+			PersistentTreeNode.Children<T> children = with(node != null ? node.getChildTrie() : null, ancestry, depth + 1, value);
+			newNode = new PersistentTreeNode<>(entry, node != null ? node.getValue() : null, children);
+		}
+
+		if (newNode.isEmpty()) {
+			return siblings != null ? siblings.without(entry) : null;
+		}
+
+		return siblings != null ? siblings.with(newNode) : PersistentTreeNode.Children.of(newNode);
+	}
+
+	@Override
+	@Nullable
+	public T get(Entry<?> entry) {
+		PersistentTreeNode<T> node = this.findNode(entry);
+		if (node == null) {
+			return null;
+		}
+
+		return node.getValue();
+	}
+
+	@Override
+	public boolean contains(Entry<?> entry) {
+		return this.get(entry) != null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		PersistentTreeNode<T> leaf = this.findNode(entry);
+		if (leaf == null) {
+			return Collections.emptyList();
+		}
+
+		return leaf.getChildren();
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		Set<Entry<?>> siblings = new HashSet<>();
+		if (parent != null) {
+			siblings.addAll(this.getChildren(parent));
+		} else {
+			this.getRootNodes().forEach(node -> siblings.add(node.getEntry()));
+		}
+
+		siblings.remove(entry);
+		return siblings;
+	}
+
+	@Override
+	@Nullable
+	public PersistentTreeNode<T> findNode(Entry<?> target) {
+		return findNode(this.root, target);
+	}
+
+	@Nullable
+	private static <T> PersistentTreeNode<T> findNode(@Nullable PersistentTreeNode.Children<T> root, Entry<?> target) {
+		Entry<?> parent = target.getParent();
+		PersistentTreeNode.Children<T> siblings;
+		if (parent == null) {
+			siblings = root;
+		} else {
+			PersistentTreeNode<T> parentNode = findNode(root, parent);
+			siblings = parentNode != null ? parentNode.getChildTrie() : null;
+		}
+
+		return siblings != null ? siblings.get(target) : null;
+	}
+
+	@Override
+	@Nonnull
+	public Iterator<EntryTreeNode<T>> iterator() {
+		return Spliterators.iterator(this.spliterator());
+	}
+
+	/**
+	 * Walks the nodes of this tree lazily, splitting by root node. The walk sees the tree as it was when it started.
+	 */
+	@Override
+	public Spliterator<EntryTreeNode<T>> spliterator() {
+		return new EntryTreeNodeSpliterator<>(this.getRootNodes().spliterator());
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		return StreamSupport.stream(this.spliterator(), false)
+				.filter(EntryTreeNode::hasValue)
+				.map(EntryTreeNode::getEntry);
+	}
+
+	@Override
+	public Stream<EntryTreeNode<T>> getRootNodes() {
+		PersistentTreeNode.Children<T> root = this.root;
+		List<EntryTreeNode<T>> nodes = new ArrayList<>();
+		if (root != null) {
+			root.forEach(nodes::add);
+		}
+
+		return nodes.stream();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.root == null;
+	}
+
+	@Override
+	public PersistentEntryTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		PersistentEntryTree<T> translatedTree = new PersistentEntryTree<>();
+		for (EntryTreeNode<T> node : this) {
+			translatedTree.insert(translator.translate(node.getEntry()), node.getValue());
+		}
+
+		return translatedTree;
+	}
+}
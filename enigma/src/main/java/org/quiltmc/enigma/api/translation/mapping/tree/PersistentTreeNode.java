@@ -0,0 +1,263 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable node of a {@link PersistentEntryTree}.
+ * Changing a tree replaces the nodes along the path to the changed entry, and shares every other node.
+ */
+public final class PersistentTreeNode<T> implements EntryTreeNode<T> {
+	private final Entry<?> entry;
+	@Nullable
+	private final T value;
+	@Nullable
+	private final Children<T> children;
+
+	PersistentTreeNode(Entry<?> entry, @Nullable T value, @Nullable Children<T> children) {
+		this.entry = entry;
+		this.value = value;
+		this.children = children;
+	}
+
+	@Nullable
+	Children<T> getChildTrie() {
+		return this.children;
+	}
+
+	@Override
+	@Nullable
+	public T getValue() {
+		return this.value;
+	}
+
+	@Override
+	public Entry<?> getEntry() {
+		return this.entry;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.children == null && this.value == null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren() {
+		List<Entry<?>> entries = new ArrayList<>();
+		if (this.children != null) {
+			this.children.forEach(child -> entries.add(child.entry));
+		}
+
+		return entries;
+	}
+
+	@Override
+	public Collection<PersistentTreeNode<T>> getChildNodes() {
+		List<PersistentTreeNode<T>> nodes = new ArrayList<>();
+		if (this.children != null) {
+			this.children.forEach(nodes::add);
+		}
+
+		return nodes;
+	}
+
+	@Nullable
+	@Override
+	public PersistentTreeNode<T> getChildNode(Entry<?> entry) {
+		return this.children != null ? this.children.get(entry) : null;
+	}
+
+	/**
+	 * An immutable hash array mapped trie of nodes, keyed by their entries.
+	 * Each level consumes five bits of the hash code, and entries whose hash codes are equal share a collision node
+	 * below the last level. Every operation returns a new trie sharing the untouched parts, and an empty trie is {@code null}.
+	 */
+	static final class Children<T> {
+		private static final int BITS = 5;
+		private static final int MASK = (1 << BITS) - 1;
+
+		// unused by collision nodes, which only hold nodes
+		private final int bitmap;
+		// either nodes or child tries, in the order of their bits
+		private final Object[] slots;
+
+		private Children(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+
+		static <T> Children<T> of(PersistentTreeNode<T> node) {
+			return new Children<>(bit(node.entry.hashCode(), 0), new Object[] { node });
+		}
+
+		@Nullable
+		@SuppressWarnings("unchecked")
+		PersistentTreeNode<T> get(Entry<?> entry) {
+			int hash = entry.hashCode();
+			Children<T> trie = this;
+			for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+				int bit = bit(hash, shift);
+				if ((trie.bitmap & bit) == 0) {
+					return null;
+				}
+
+				Object slot = trie.slots[trie.index(bit)];
+				if (slot instanceof PersistentTreeNode<?> node) {
+					return node.entry.hashCode() == hash && node.entry.equals(entry) ? (PersistentTreeNode<T>) node : null;
+				}
+
+				trie = (Children<T>) slot;
+			}
+
+			for (Object slot : trie.slots) {
+				if (((PersistentTreeNode<?>) slot).entry.equals(entry)) {
+					return (PersistentTreeNode<T>) slot;
+				}
+			}
+
+			return null;
+		}
+
+		/**
+		 * {@return a trie with the given node, replacing the node of an equal entry}
+		 */
+		Children<T> with(PersistentTreeNode<T> node) {
+			return this.with(node, node.entry.hashCode(), 0);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Children<T> with(PersistentTreeNode<T> node, int hash, int shift) {
+			if (shift >= Integer.SIZE) {
+				for (int i = 0; i < this.slots.length; i++) {
+					if (((PersistentTreeNode<?>) this.slots[i]).entry.equals(node.entry)) {
+						return this.withSlot(i, node);
+					}
+				}
+
+				Object[] slots = Arrays.copyOf(this.slots, this.slots.length + 1);
+				slots[this.slots.length] = node;
+				return new Children<>(0, slots);
+			}
+
+			int bit = bit(hash, shift);
+			int index = this.index(bit);
+			if ((this.bitmap & bit) == 0) {
+				Object[] slots = new Object[this.slots.length + 1];
+				System.arraycopy(this.slots, 0, slots, 0, index);
+				System.arraycopy(this.slots, index, slots, index + 1, this.slots.length - index);
+				slots[index] = node;
+				return new Children<>(this.bitmap | bit, slots);
+			}
+
+			Object slot = this.slots[index];
+			if (slot instanceof Children<?> trie) {
+				return this.withSlot(index, ((Children<T>) trie).with(node, hash, shift + BITS));
+			}
+
+			PersistentTreeNode<T> existing = (PersistentTreeNode<T>) slot;
+			if (existing.entry.equals(node.entry)) {
+				return this.withSlot(index, node);
+			}
+
+			return this.withSlot(index, merge(existing, existing.entry.hashCode(), node, hash, shift + BITS));
+		}
+
+		private static <T> Children<T> merge(PersistentTreeNode<T> first, int firstHash, PersistentTreeNode<T> second, int secondHash, int shift) {
+			if (shift >= Integer.SIZE) {
+				return new Children<>(0, new Object[] { first, second });
+			}
+
+			int firstBit = bit(firstHash, shift);
+			int secondBit = bit(secondHash, shift);
+			if (firstBit == secondBit) {
+				return new Children<>(firstBit, new Object[] { merge(first, firstHash, second, secondHash, shift + BITS) });
+			}
+
+			Object[] slots = Integer.compareUnsigned(firstBit, secondBit) < 0 ? new Object[] { first, second } : new Object[] { second, first };
+			return new Children<>(firstBit | secondBit, slots);
+		}
+
+		/**
+		 * {@return a trie without the node of the given entry, which is this trie if there is no such node, or {@code null} if it becomes empty}
+		 */
+		@Nullable
+		Children<T> without(Entry<?> entry) {
+			return this.without(entry, entry.hashCode(), 0);
+		}
+
+		@Nullable
+		@SuppressWarnings("unchecked")
+		private Children<T> without(Entry<?> entry, int hash, int shift) {
+			if (shift >= Integer.SIZE) {
+				for (int i = 0; i < this.slots.length; i++) {
+					if (((PersistentTreeNode<?>) this.slots[i]).entry.equals(entry)) {
+						return this.slots.length == 1 ? null : new Children<>(0, removeSlot(this.slots, i));
+					}
+				}
+
+				return this;
+			}
+
+			int bit = bit(hash, shift);
+			if ((this.bitmap & bit) == 0) {
+				return this;
+			}
+
+			int index = this.index(bit);
+			Object slot = this.slots[index];
+			if (slot instanceof Children<?> trie) {
+				Children<T> newTrie = ((Children<T>) trie).without(entry, hash, shift + BITS);
+				if (newTrie == trie) {
+					return this;
+				}
+
+				if (newTrie != null) {
+					// pull a lone remaining node back up, so that lookups stay short
+					return this.withSlot(index, newTrie.slots.length == 1 && newTrie.slots[0] instanceof PersistentTreeNode<?> ? newTrie.slots[0] : newTrie);
+				}
+			} else if (!((PersistentTreeNode<?>) slot).entry.equals(entry)) {
+				return this;
+			}
+
+			return this.slots.length == 1 ? null : new Children<>(this.bitmap & ~bit, removeSlot(this.slots, index));
+		}
+
+		@SuppressWarnings("unchecked")
+		void forEach(Consumer<PersistentTreeNode<T>> action) {
+			for (Object slot : this.slots) {
+				if (slot instanceof Children<?> trie) {
+					((Children<T>) trie).forEach(action);
+				} else {
+					action.accept((PersistentTreeNode<T>) slot);
+				}
+			}
+		}
+
+		private Children<T> withSlot(int index, Object slot) {
+			Object[] slots = this.slots.clone();
+			slots[index] = slot;
+			return new Children<>(this.bitmap, slots);
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(this.bitmap & (bit - 1));
+		}
+
+		private static Object[] removeSlot(Object[] slots, int index) {
+			Object[] newSlots = new Object[slots.length - 1];
+			System.arraycopy(slots, 0, newSlots, 0, index);
+			System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+			return newSlots;
+		}
+
+		private static int bit(int hash, int shift) {
+			return 1 << ((hash >>> shift) & MASK);
+		}
+	}
+}
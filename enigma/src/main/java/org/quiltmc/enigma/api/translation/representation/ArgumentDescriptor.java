@@ -19,6 +19,7 @@ public class ArgumentDescriptor extends TypeDescriptor {
 	}
 
 	public ArgumentDescriptor remap(UnaryOperator<String> remapper) {
-		return new ArgumentDescriptor(super.remap(remapper).desc, this.getAccess());
+		TypeDescriptor remapped = super.remap(remapper);
+		return remapped == this ? this : new ArgumentDescriptor(remapped.desc, this.getAccess());
 	}
 }
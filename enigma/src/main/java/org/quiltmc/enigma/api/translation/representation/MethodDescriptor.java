@@ -16,6 +16,9 @@ import java.util.function.UnaryOperator;
 public class MethodDescriptor implements Translatable {
 	private final List<ArgumentDescriptor> argumentDescs;
 	private TypeDescriptor returnDesc;
+	// computed on first use, like the hash codes and full names of entries
+	private String string;
+	private int hashCode;
 
 	public MethodDescriptor(String desc) {
 		try {
@@ -62,15 +65,21 @@ public class MethodDescriptor implements Translatable {
 
 	@Override
 	public String toString() {
-		StringBuilder buf = new StringBuilder();
-		buf.append("(");
-		for (TypeDescriptor desc : this.argumentDescs) {
-			buf.append(desc);
+		String string = this.string;
+		if (string == null) {
+			StringBuilder buf = new StringBuilder();
+			buf.append("(");
+			for (TypeDescriptor desc : this.argumentDescs) {
+				buf.append(desc);
+			}
+
+			buf.append(")");
+			buf.append(this.returnDesc);
+			string = buf.toString();
+			this.string = string;
 		}
 
-		buf.append(")");
-		buf.append(this.returnDesc);
-		return buf.toString();
+		return string;
 	}
 
 	public Iterable<TypeDescriptor> types() {
@@ -85,12 +94,18 @@ public class MethodDescriptor implements Translatable {
 	}
 
 	public boolean equals(MethodDescriptor other) {
-		return this.argumentDescs.equals(other.argumentDescs) && this.returnDesc.equals(other.returnDesc);
+		return this == other || this.argumentDescs.equals(other.argumentDescs) && this.returnDesc.equals(other.returnDesc);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.argumentDescs.hashCode(), this.returnDesc.hashCode());
+		int hashCode = this.hashCode;
+		if (hashCode == 0) {
+			hashCode = Objects.hash(this.argumentDescs.hashCode(), this.returnDesc.hashCode());
+			this.hashCode = hashCode;
+		}
+
+		return hashCode;
 	}
 
 	public boolean hasClass(ClassEntry classEntry) {
@@ -106,10 +121,10 @@ public class MethodDescriptor implements Translatable {
 	public MethodDescriptor remap(UnaryOperator<String> remapper) {
 		List<ArgumentDescriptor> argumentDescriptors = new ArrayList<>(this.argumentDescs.size());
 		for (ArgumentDescriptor desc : this.argumentDescs) {
-			argumentDescriptors.add(new ArgumentDescriptor(desc.remap(remapper).desc, desc.getAccess()));
+			argumentDescriptors.add(desc.remap(remapper));
 		}
 
-		return new MethodDescriptor(argumentDescriptors, this.returnDesc.remap(remapper));
+		return this.withTypes(argumentDescriptors, this.returnDesc.remap(remapper));
 	}
 
 	@Override
@@ -119,7 +134,25 @@ public class MethodDescriptor implements Translatable {
 			translatedArguments.add(translator.translate(argument));
 		}
 
-		return TranslateResult.ungrouped(new MethodDescriptor(translatedArguments, translator.translate(this.returnDesc)));
+		return TranslateResult.ungrouped(this.withTypes(translatedArguments, translator.translate(this.returnDesc)));
+	}
+
+	/**
+	 * {@return a descriptor with the given types, or this descriptor if they are the same instances as its own}
+	 * Pooled descriptors are then still shared after being remapped or translated without changes.
+	 */
+	private MethodDescriptor withTypes(List<ArgumentDescriptor> argumentDescs, TypeDescriptor returnDesc) {
+		if (returnDesc != this.returnDesc) {
+			return new MethodDescriptor(argumentDescs, returnDesc);
+		}
+
+		for (int i = 0; i < argumentDescs.size(); i++) {
+			if (argumentDescs.get(i) != this.argumentDescs.get(i)) {
+				return new MethodDescriptor(argumentDescs, returnDesc);
+			}
+		}
+
+		return this;
 	}
 
 	public boolean canConflictWith(MethodDescriptor descriptor) {
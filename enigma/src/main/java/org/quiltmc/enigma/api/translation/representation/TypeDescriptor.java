@@ -175,7 +175,7 @@ public class TypeDescriptor implements Translatable {
 	}
 
 	public boolean equals(TypeDescriptor other) {
-		return this.desc.equals(other.desc);
+		return this == other || this.desc.equals(other.desc);
 	}
 
 	@Override
@@ -196,7 +196,8 @@ public class TypeDescriptor implements Translatable {
 			}
 		}
 
-		return new TypeDescriptor(desc);
+		// keep sharing pooled descriptors which are left unchanged
+		return desc.equals(this.desc) ? this : new TypeDescriptor(desc);
 	}
 
 	private static String getArrayPrefix(int dimension) {
@@ -74,11 +74,15 @@ public class ClassEntry extends ParentedEntry<ClassEntry> implements Comparable<
 	public TranslateResult<? extends ClassEntry> extendedTranslate(Translator translator, @Nonnull EntryMapping mapping) {
 		if (this.name.charAt(0) == '[') {
 			TranslateResult<TypeDescriptor> translatedName = translator.extendedTranslate(new TypeDescriptor(this.name));
-			return translatedName.map(desc -> new ClassEntry(this.parent, desc.toString()));
+			return translatedName.map(desc -> desc.toString().equals(this.name) && this.javadocs == null ? this : new ClassEntry(this.parent, desc.toString()));
 		}
 
 		String translatedName = mapping.targetName() != null ? mapping.targetName() : this.name;
 		String docs = mapping.javadoc();
+		if (translatedName.equals(this.name) && docs == null && this.javadocs == null) {
+			return TranslateResult.of(mapping.tokenType(), this);
+		}
+
 		return TranslateResult.of(
 				mapping.tokenType(),
 				new ClassEntry(this.parent, translatedName, docs)
@@ -91,7 +95,7 @@ public class ClassEntry extends ParentedEntry<ClassEntry> implements Comparable<
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return this.fullName.hashCode();
 	}
 
@@ -101,7 +105,7 @@ public class ClassEntry extends ParentedEntry<ClassEntry> implements Comparable<
 	}
 
 	public boolean equals(ClassEntry other) {
-		return other != null && Objects.equals(this.parent, other.parent) && this.name.equals(other.name);
+		return this == other || other != null && Objects.equals(this.parent, other.parent) && this.name.equals(other.name);
 	}
 
 	@Override
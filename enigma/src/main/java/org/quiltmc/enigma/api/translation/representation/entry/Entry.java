@@ -5,6 +5,7 @@ import org.quiltmc.enigma.impl.translation.mapping.IdentifierValidation;
 import org.quiltmc.enigma.util.validation.ValidationContext;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nullable;
@@ -168,13 +169,18 @@ public interface Entry<P extends Entry<?>> extends Translatable {
 	 * @see #replaceAncestor(Entry, Entry)
 	 */
 	default List<Entry<?>> getAncestry() {
-		P parent = this.getParent();
-		List<Entry<?>> entries = new ArrayList<>();
-		if (parent != null) {
-			entries.addAll(parent.getAncestry());
+		int depth = 0;
+		for (Entry<?> entry = this; entry != null; entry = entry.getParent()) {
+			depth++;
+		}
+
+		// collect the ancestors from this entry up into a single list, rather than copying the list of every parent
+		List<Entry<?>> entries = new ArrayList<>(depth);
+		for (Entry<?> entry = this; entry != null; entry = entry.getParent()) {
+			entries.add(entry);
 		}
 
-		entries.add(this);
+		Collections.reverse(entries);
 		return entries;
 	}
 
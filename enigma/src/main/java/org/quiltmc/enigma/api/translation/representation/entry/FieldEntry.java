@@ -52,14 +52,19 @@ public class FieldEntry extends ParentedEntry<ClassEntry> implements Comparable<
 	protected TranslateResult<FieldEntry> extendedTranslate(Translator translator, @Nonnull EntryMapping mapping) {
 		String translatedName = mapping.targetName() != null ? mapping.targetName() : this.name;
 		String docs = mapping.javadoc();
+		TypeDescriptor translatedDesc = translator.translate(this.desc);
+		if (translatedName.equals(this.name) && docs == null && this.javadocs == null && translatedDesc == this.desc) {
+			return TranslateResult.of(mapping.tokenType(), this);
+		}
+
 		return TranslateResult.of(
 				mapping.tokenType(),
-				new FieldEntry(this.parent, translatedName, translator.translate(this.desc), docs)
+				new FieldEntry(this.parent, translatedName, translatedDesc, docs)
 		);
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return Objects.hash(this.parent, this.name, this.desc);
 	}
 
@@ -69,7 +74,7 @@ public class FieldEntry extends ParentedEntry<ClassEntry> implements Comparable<
 	}
 
 	public boolean equals(FieldEntry other) {
-		return this.parent.equals(other.parent) && this.name.equals(other.name) && this.desc.equals(other.desc);
+		return this == other || this.parent.equals(other.parent) && this.name.equals(other.name) && this.desc.equals(other.desc);
 	}
 
 	@Override
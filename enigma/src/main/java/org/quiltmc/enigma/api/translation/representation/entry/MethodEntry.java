@@ -96,9 +96,14 @@ public class MethodEntry extends ParentedEntry<ClassEntry> implements Comparable
 	protected TranslateResult<? extends MethodEntry> extendedTranslate(Translator translator, @Nonnull EntryMapping mapping) {
 		String translatedName = mapping.targetName() != null ? mapping.targetName() : this.name;
 		String docs = mapping.javadoc();
+		MethodDescriptor translatedDesc = translator.translate(this.descriptor);
+		if (translatedName.equals(this.name) && docs == null && this.javadocs == null && translatedDesc == this.descriptor) {
+			return TranslateResult.of(mapping.tokenType(), this);
+		}
+
 		return TranslateResult.of(
 				mapping.tokenType(),
-				new MethodEntry(this.parent, translatedName, translator.translate(this.descriptor), docs)
+				new MethodEntry(this.parent, translatedName, translatedDesc, docs)
 		);
 	}
 
@@ -113,7 +118,7 @@ public class MethodEntry extends ParentedEntry<ClassEntry> implements Comparable
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return Objects.hash(this.parent, this.name, this.descriptor);
 	}
 
@@ -123,7 +128,7 @@ public class MethodEntry extends ParentedEntry<ClassEntry> implements Comparable
 	}
 
 	public boolean equals(MethodEntry other) {
-		return this.parent.equals(other.getParent()) && this.name.equals(other.getName()) && this.descriptor.equals(other.getDesc());
+		return this == other || this.parent.equals(other.getParent()) && this.name.equals(other.getName()) && this.descriptor.equals(other.getDesc());
 	}
 
 	@Override
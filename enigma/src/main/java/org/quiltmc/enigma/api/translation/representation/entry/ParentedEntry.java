@@ -15,6 +15,9 @@ public abstract class ParentedEntry<P extends Entry<?>> implements Entry<P> {
 	protected final P parent;
 	protected final String name;
 	protected final @Nullable String javadocs;
+	// entries are immutable and used in the keys of most index maps, so these are only computed once
+	private String fullName;
+	private int hashCode;
 
 	protected ParentedEntry(P parent, String name, String javadocs) {
 		this.parent = parent;
@@ -32,6 +35,25 @@ public abstract class ParentedEntry<P extends Entry<?>> implements Entry<P> {
 
 	protected abstract TranslateResult<? extends ParentedEntry<P>> extendedTranslate(Translator translator, @Nonnull EntryMapping mapping);
 
+	/**
+	 * Computes the hash code of this entry, which is then cached by {@link #hashCode()}.
+	 * Defaults to the identity hash code, like entries which don't override {@link #hashCode()} have always had.
+	 */
+	protected int computeHashCode() {
+		return System.identityHashCode(this);
+	}
+
+	@Override
+	public int hashCode() {
+		int hashCode = this.hashCode;
+		if (hashCode == 0) {
+			hashCode = this.computeHashCode();
+			this.hashCode = hashCode;
+		}
+
+		return hashCode;
+	}
+
 	@Override
 	public String getName() {
 		return this.name;
@@ -44,7 +66,13 @@ public abstract class ParentedEntry<P extends Entry<?>> implements Entry<P> {
 
 	@Override
 	public String getFullName() {
-		return this.parent.getFullName() + "." + this.name;
+		String fullName = this.fullName;
+		if (fullName == null) {
+			fullName = this.parent.getFullName() + "." + this.name;
+			this.fullName = fullName;
+		}
+
+		return fullName;
 	}
 
 	@Override
@@ -72,7 +100,9 @@ public abstract class ParentedEntry<P extends Entry<?>> implements Entry<P> {
 		}
 
 		P translatedParent = translator.translate(this.getParent());
-		return this.withParent(translatedParent).extendedTranslate(translator, mapping);
+		// an unchanged parent is the same instance, which keeps pooled entries shared
+		ParentedEntry<P> entry = translatedParent == this.getParent() ? this : this.withParent(translatedParent);
+		return entry.extendedTranslate(translator, mapping);
 	}
 
 	private EntryMapping resolveMapping(EntryResolver resolver, EntryMap<EntryMapping> mappings) {
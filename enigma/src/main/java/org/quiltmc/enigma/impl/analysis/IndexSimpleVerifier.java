@@ -10,17 +10,37 @@ import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.analysis.BasicValue;
 import org.objectweb.asm.tree.analysis.SimpleVerifier;
 
+import javax.annotation.Nullable;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public class IndexSimpleVerifier extends SimpleVerifier {
 	private static final Type OBJECT_TYPE = Type.getType("Ljava/lang/Object;");
 	private final EntryIndex entryIndex;
 	private final InheritanceIndex inheritanceIndex;
+	@Nullable
+	private final Consumer<ClassEntry> lookupListener;
 
 	public IndexSimpleVerifier(EntryIndex entryIndex, InheritanceIndex inheritanceIndex) {
+		this(entryIndex, inheritanceIndex, null);
+	}
+
+	/**
+	 * @param lookupListener notified of every class whose definition or ancestry is looked up in the index
+	 */
+	public IndexSimpleVerifier(EntryIndex entryIndex, InheritanceIndex inheritanceIndex, @Nullable Consumer<ClassEntry> lookupListener) {
 		super(Enigma.ASM_VERSION, null, null, null, false);
 		this.entryIndex = entryIndex;
 		this.inheritanceIndex = inheritanceIndex;
+		this.lookupListener = lookupListener;
+	}
+
+	private ClassEntry lookup(ClassEntry entry) {
+		if (this.lookupListener != null) {
+			this.lookupListener.accept(entry);
+		}
+
+		return entry;
 	}
 
 	@Override
@@ -52,7 +72,7 @@ public class IndexSimpleVerifier extends SimpleVerifier {
 
 	@Override
 	protected boolean isInterface(Type type) {
-		AccessFlags classAccess = this.entryIndex.getClassAccess(new ClassEntry(type.getInternalName()));
+		AccessFlags classAccess = this.entryIndex.getClassAccess(this.lookup(new ClassEntry(type.getInternalName())));
 		if (classAccess != null) {
 			return classAccess.isInterface();
 		}
@@ -67,7 +87,7 @@ public class IndexSimpleVerifier extends SimpleVerifier {
 
 	@Override
 	protected Type getSuperClass(Type type) {
-		ClassDefEntry definition = this.entryIndex.getDefinition(new ClassEntry(type.getInternalName()));
+		ClassDefEntry definition = this.entryIndex.getDefinition(this.lookup(new ClassEntry(type.getInternalName())));
 		if (definition != null) {
 			return Type.getType('L' + definition.getSuperClass().getFullName() + ';');
 		}
@@ -91,7 +111,19 @@ public class IndexSimpleVerifier extends SimpleVerifier {
 		}
 
 		if (type1.getSort() == Type.ARRAY) {
-			return type2.getSort() == Type.ARRAY && this.isAssignableFrom(Type.getType(type1.getDescriptor().substring(1)), Type.getType(type2.getDescriptor().substring(1)));
+			if (type2.getSort() != Type.ARRAY) {
+				return false;
+			}
+
+			Type component1 = Type.getType(type1.getDescriptor().substring(1));
+			Type component2 = Type.getType(type2.getDescriptor().substring(1));
+
+			// like the JVM's verifier, treat interface types as Object, since merged array types lose their interfaces
+			if (component1.getSort() == Type.OBJECT && (component2.getSort() == Type.OBJECT || component2.getSort() == Type.ARRAY) && this.isInterface(component1)) {
+				return true;
+			}
+
+			return this.isAssignableFrom(component1, component2);
 		}
 
 		if (type2.getSort() == Type.ARRAY) {
@@ -103,11 +135,11 @@ public class IndexSimpleVerifier extends SimpleVerifier {
 				return true;
 			}
 
-			ClassEntry class1 = new ClassEntry(type1.getInternalName());
-			ClassEntry class2 = new ClassEntry(type2.getInternalName());
+			ClassEntry class1 = this.lookup(new ClassEntry(type1.getInternalName()));
+			ClassEntry class2 = this.lookup(new ClassEntry(type2.getInternalName()));
 
 			if (this.entryIndex.hasClass(class1) && this.entryIndex.hasClass(class2)) {
-				return this.inheritanceIndex.getAncestors(class2).contains(class1);
+				return this.inheritanceIndex.isAncestor(class1, class2);
 			}
 
 			Class<?> class1Class = this.getClass(Type.getType('L' + class1.getFullName() + ';'));
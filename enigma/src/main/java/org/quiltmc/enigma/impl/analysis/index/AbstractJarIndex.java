@@ -3,12 +3,16 @@ package org.quiltmc.enigma.impl.analysis.index;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import org.objectweb.asm.ClassVisitor;
 import org.quiltmc.enigma.api.Enigma;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
 import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.IndexSnapshotReader;
+import org.quiltmc.enigma.api.analysis.index.jar.IndexSnapshotWriter;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
@@ -25,19 +29,31 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
 import org.quiltmc.enigma.util.I18n;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 public abstract class AbstractJarIndex implements JarIndex {
+	private static final int SHARDS_PER_THREAD = 4;
+
 	private final Set<String> indexedClasses = new HashSet<>();
 	private final Map<Class<? extends JarIndexer>, JarIndexer> indexers = new LinkedHashMap<>();
 	private final IndexEntryResolver entryResolver;
+	private final EntryPool entryPool = new EntryPool();
 
 	private final Multimap<String, MethodDefEntry> methodImplementations = HashMultimap.create();
 	private final ListMultimap<ClassEntry, ParentedEntry<?>> childrenByClass;
+	private final JarIndexShard root;
 
 	private ProgressListener progress;
 
@@ -53,6 +69,7 @@ public abstract class AbstractJarIndex implements JarIndex {
 
 		this.entryResolver = new IndexEntryResolver(this);
 		this.childrenByClass = ArrayListMultimap.create();
+		this.root = new JarIndexShard(this.indexers, this.methodImplementations, this.childrenByClass);
 	}
 
 	/**
@@ -75,113 +92,336 @@ public abstract class AbstractJarIndex implements JarIndex {
 	 * @param classNames the obfuscated names of each class in the jar
 	 * @param classProvider a class provider containing all classes in the jar
 	 * @param progress a progress listener to track index completion
+	 * @param parallel whether classes should be visited on multiple threads, if all indexers are {@linkplain JarIndexer#isShardable() shardable}
 	 */
-	public void indexJar(Set<String> classNames, ClassProvider classProvider, ProgressListener progress) {
+	@Override
+	public void indexJar(Set<String> classNames, ClassProvider classProvider, ProgressListener progress, boolean parallel) {
+		this.indexJar(classNames, classProvider, progress, parallel, null, null);
+	}
+
+	/**
+	 * Runs every configured indexer over the provided jar, recording what was found in each class into a journal.
+	 * Classes whose hash did not change since a previous journal are replayed from it instead of being visited.
+	 * Their references are only replayed if none of the classes looked up while analysing them, or their ancestors, changed.
+	 * Processing then runs over the whole jar, like a full index, but only resolves again the entries whose owner is affected by the change.
+	 * @param classNames the obfuscated names of each class in the jar
+	 * @param classProvider a class provider containing all classes in the jar
+	 * @param progress a progress listener to track index completion
+	 * @param parallel whether classes should be visited on multiple threads, if all indexers are {@linkplain JarIndexer#isShardable() shardable}
+	 * @param journal the journal to record into, holding the hash of every class of the jar, or {@code null} to not record anything
+	 * @param previous the journal of a previous version of the jar, or {@code null} to visit every class
+	 */
+	public void indexJar(Set<String> classNames, ClassProvider classProvider, ProgressListener progress, boolean parallel, @Nullable IndexJournal journal, @Nullable IndexJournal previous) {
 		// for use in processIndex
 		this.progress = progress;
 
 		this.indexedClasses.addAll(classNames);
 		this.progress.init(4, I18n.translate("progress.jar.indexing"));
 
+		boolean sharded = parallel && this.indexers.values().stream().allMatch(JarIndexer::isShardable);
+		List<String> orderedNames = List.copyOf(classNames);
+		IndexJournal base = journal != null ? previous : null;
+
 		this.progress.step(1, I18n.translate("progress.jar.indexing.entries"));
+		this.indexClasses(orderedNames, sharded, journal, (indexer, className) -> {
+			IndexJournal.ClassRecord record = base != null ? base.getUnchangedRecord(className, journal) : null;
+			if (record != null) {
+				record.replayEntries(indexer);
+			} else {
+				visitClass(className, classProvider, new IndexClassVisitor(indexer, Enigma.ASM_VERSION));
+			}
+		});
 
+		this.progress.step(2, I18n.translate("progress.jar.indexing.references"));
+		EntryIndex entryIndex = this.getIndex(EntryIndex.class);
+		InheritanceIndex inheritanceIndex = this.getIndex(InheritanceIndex.class);
+		Predicate<ClassEntry> isAffected = base != null ? this.createAffectedPredicate(orderedNames, journal, base) : null;
+		Set<String> reusableReferences = base != null ? findReusableReferences(orderedNames, journal, base, isAffected) : Set.of();
+		this.indexClasses(orderedNames, sharded, journal, (indexer, className) -> {
+			JournalRecorder recorder = indexer instanceof JournalRecorder journalRecorder ? journalRecorder : null;
+			if (reusableReferences.contains(className)) {
+				IndexJournal.ClassRecord record = base.getUnchangedRecord(className, journal);
+				record.replayReferences(indexer);
+				record.lookups.forEach(recorder::recordLookup);
+			} else {
+				visitClass(className, classProvider, new IndexReferenceVisitor(indexer, entryIndex, inheritanceIndex, this.entryPool, recorder != null ? recorder::recordLookup : null, Enigma.ASM_VERSION));
+			}
+		});
+
+		this.progress.step(3, I18n.translate("progress.jar.indexing.methods"));
+		this.getIndex(BridgeMethodIndex.class).findBridgeMethods();
+
+		this.processIndex(this, base != null ? findReusableResolutions(base, isAffected) : List.of(), journal);
+
+		this.progress = null;
+	}
+
+	/**
+	 * Creates a predicate of whether a class, or any of its ancestors before or after the change, was added, removed or changed
+	 * since a previous journal. Anything found by looking such a class up in the index may differ, and must be found again.
+	 */
+	private Predicate<ClassEntry> createAffectedPredicate(List<String> classNames, IndexJournal journal, IndexJournal previous) {
+		Set<String> changedClasses = previous.getChangedClasses(Set.copyOf(classNames), journal);
+		InheritanceIndex inheritanceIndex = this.getIndex(InheritanceIndex.class);
+		Map<ClassEntry, Boolean> affectedClasses = new HashMap<>();
+		return entry -> affectedClasses.computeIfAbsent(entry, e -> changedClasses.contains(e.getFullName())
+				|| previous.getAncestors(e).stream().anyMatch(ancestor -> changedClasses.contains(ancestor.getFullName()))
+				|| inheritanceIndex.getAncestors(e).stream().anyMatch(ancestor -> changedClasses.contains(ancestor.getFullName())));
+	}
+
+	/**
+	 * Finds the unchanged classes whose references can be replayed from a previous journal.
+	 * The references found in a class depend on the definitions and ancestry of the classes looked up while analysing it,
+	 * so they are visited again if any of those is affected by the change.
+	 */
+	private static Set<String> findReusableReferences(List<String> classNames, IndexJournal journal, IndexJournal previous, Predicate<ClassEntry> isAffected) {
+		Set<String> reusable = new HashSet<>();
 		for (String className : classNames) {
-			Objects.requireNonNull(classProvider.get(className)).accept(new IndexClassVisitor(this, Enigma.ASM_VERSION));
+			IndexJournal.ClassRecord record = previous.getUnchangedRecord(className, journal);
+			if (record != null && record.lookups.stream().noneMatch(isAffected)) {
+				reusable.add(className);
+			}
 		}
 
-		this.progress.step(2, I18n.translate("progress.jar.indexing.references"));
+		return reusable;
+	}
+
+	/**
+	 * Finds the resolutions of a previous journal which are still valid.
+	 * An entry resolves by searching the ancestry of its owner, so its resolution only changes if its owner is affected by the change.
+	 */
+	private static List<IndexEntryResolver.CachedResolution> findReusableResolutions(IndexJournal previous, Predicate<ClassEntry> isAffected) {
+		return previous.getResolutions().stream()
+				.filter(resolution -> !isAffected.test(resolution.entry().getParent()))
+				.toList();
+	}
+
+	/**
+	 * Indexes every class into the given indexer, recording into the journal if there is one.
+	 * When sharded, the classes are split into contiguous chunks, each one indexed on a worker thread into its own shard.
+	 * Shards are then merged in chunk order, so that the result does not depend on scheduling.
+	 */
+	private void indexClasses(List<String> classNames, boolean sharded, @Nullable IndexJournal journal, BiConsumer<JarIndexer, String> classIndexer) {
+		if (!sharded) {
+			indexClasses(classNames, this.root, journal, classIndexer);
+			return;
+		}
+
+		int shardCount = ForkJoinPool.getCommonPoolParallelism() * SHARDS_PER_THREAD;
+		int shardSize = Math.max(1, (classNames.size() + shardCount - 1) / shardCount);
+
+		List<JarIndexShard> shards = Lists.partition(classNames, shardSize).parallelStream().map(chunk -> {
+			JarIndexShard shard = this.createIndexShard();
+			indexClasses(chunk, shard, journal, classIndexer);
+			return shard;
+		}).toList();
+
+		for (JarIndexShard shard : shards) {
+			this.mergeIndexShard(shard);
+		}
+	}
 
+	private static void indexClasses(List<String> classNames, JarIndexer indexer, @Nullable IndexJournal journal, BiConsumer<JarIndexer, String> classIndexer) {
+		JournalRecorder recorder = journal != null ? new JournalRecorder(indexer, journal) : null;
 		for (String className : classNames) {
-			try {
-				Objects.requireNonNull(classProvider.get(className)).accept(new IndexReferenceVisitor(this, this.getIndex(EntryIndex.class), this.getIndex(InheritanceIndex.class), Enigma.ASM_VERSION));
-			} catch (Exception e) {
-				throw new RuntimeException("Exception while indexing class: " + className, e);
+			if (recorder != null) {
+				recorder.begin(className);
 			}
+
+			classIndexer.accept(recorder != null ? recorder : indexer, className);
 		}
+	}
 
-		this.progress.step(3, I18n.translate("progress.jar.indexing.methods"));
-		this.getIndex(BridgeMethodIndex.class).findBridgeMethods();
+	private static void visitClass(String className, ClassProvider classProvider, ClassVisitor visitor) {
+		try {
+			if (!classProvider.accept(className, visitor)) {
+				throw new IllegalStateException("Class not found in the class provider");
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Exception while indexing class: " + className, e);
+		}
+	}
 
-		this.processIndex(this);
+	private JarIndexShard createIndexShard() {
+		Map<Class<? extends JarIndexer>, JarIndexer> shardIndexers = new LinkedHashMap<>();
+		this.indexers.forEach((key, indexer) -> {
+			JarIndexer shard = indexer.createShard();
+			if (shard != null) {
+				shardIndexers.put(key, shard);
+			}
+		});
 
-		this.progress = null;
+		return new JarIndexShard(shardIndexers, HashMultimap.create(), ArrayListMultimap.create());
+	}
+
+	private void mergeIndexShard(JarIndexShard shard) {
+		shard.indexers.forEach((key, indexerShard) -> this.indexers.get(key).mergeShard(indexerShard));
+		this.methodImplementations.putAll(shard.methodImplementations);
+		this.childrenByClass.putAll(shard.childrenByClass);
 	}
 
 	@Override
 	public void processIndex(JarIndex index) {
+		this.processIndex(index, List.of(), null);
+	}
+
+	/**
+	 * Processes the index, starting from resolutions which are known to still be valid,
+	 * so that only the entries depending on what changed are resolved again.
+	 *
+	 * @param reusedResolutions the resolutions to seed the entry resolver with
+	 * @param journal the journal to record the resolutions made while processing into, or {@code null} to not record them
+	 */
+	private void processIndex(JarIndex index, List<IndexEntryResolver.CachedResolution> reusedResolutions, @Nullable IndexJournal journal) {
 		this.stepProcessingProgress("progress.jar.indexing.process.jar");
+		this.entryResolver.invalidateCache();
+		this.entryResolver.cacheResolutions(reusedResolutions);
 
 		this.indexers.forEach((key, indexer) -> {
 			this.stepProcessingProgress(indexer.getTranslationKey());
 			indexer.processIndex(index);
 		});
 
+		if (journal != null) {
+			journal.setResolutions(this.entryResolver.getCachedResolutions());
+		}
+
+		this.entryResolver.invalidateCache();
 		this.stepProcessingProgress("progress.jar.indexing.process.done");
 	}
 
-	private void stepProcessingProgress(String key) {
-		if (this.progress != null) {
-			this.progress.step(4, I18n.translateFormatted("progress.jar.indexing.process", I18n.translate(key)));
+	/**
+	 * {@return whether every indexer of this index is snapshotable}
+	 */
+	@Override
+	public boolean isSnapshotable() {
+		return this.indexers.values().stream().allMatch(JarIndexer::isSnapshotable);
+	}
+
+	/**
+	 * Writes a snapshot of this fully processed index.
+	 *
+	 * @throws IOException if the snapshot could not be written, or one of the indexers is not snapshotable
+	 */
+	@Override
+	public void writeSnapshot(IndexSnapshotWriter writer) throws IOException {
+		this.checkSnapshotable();
+		writer.writeInt(this.indexers.size());
+		for (Class<? extends JarIndexer> key : this.indexers.keySet()) {
+			writer.writeString(key.getName());
+		}
+
+		writer.writeInt(this.indexedClasses.size());
+		for (String className : this.indexedClasses) {
+			writer.writeString(className);
+		}
+
+		writer.writeInt(this.methodImplementations.keySet().size());
+		for (Map.Entry<String, Collection<MethodDefEntry>> entry : this.methodImplementations.asMap().entrySet()) {
+			writer.writeString(entry.getKey());
+			writer.writeEntries(entry.getValue());
+		}
+
+		writer.writeEntryMultimap(this.childrenByClass);
+
+		for (JarIndexer indexer : this.indexers.values()) {
+			indexer.writeSnapshot(writer);
 		}
 	}
 
+	/**
+	 * Restores a snapshot of a fully processed index into this empty index, in place of {@link #indexJar(Set, ClassProvider, ProgressListener, boolean)}.
+	 *
+	 * @throws IOException if the snapshot could not be read, was written by an index with different indexers, or one of the indexers is not snapshotable
+	 */
 	@Override
-	public void indexClass(ClassDefEntry classEntry) {
-		for (ClassEntry interfaceEntry : classEntry.getInterfaces()) {
-			if (classEntry.equals(interfaceEntry)) {
-				throw new IllegalArgumentException("Class cannot be its own interface! " + classEntry);
+	public void readSnapshot(IndexSnapshotReader reader) throws IOException {
+		this.checkSnapshotable();
+		List<String> indexerNames = new ArrayList<>();
+		int indexerCount = reader.readInt();
+		for (int i = 0; i < indexerCount; i++) {
+			indexerNames.add(reader.readString());
+		}
+
+		List<String> expectedNames = this.indexers.keySet().stream().map(Class::getName).toList();
+		if (!indexerNames.equals(expectedNames)) {
+			throw new IOException("Snapshot was written with indexers " + indexerNames + ", expected " + expectedNames);
+		}
+
+		int classCount = reader.readInt();
+		for (int i = 0; i < classCount; i++) {
+			this.indexedClasses.add(reader.readString());
+		}
+
+		int implementationCount = reader.readInt();
+		for (int i = 0; i < implementationCount; i++) {
+			String className = reader.readString();
+			List<MethodDefEntry> methods = new ArrayList<>();
+			reader.readEntries(methods);
+			this.methodImplementations.putAll(className, methods);
+		}
+
+		reader.readEntryMultimap(this.childrenByClass);
+
+		for (JarIndexer indexer : this.indexers.values()) {
+			indexer.readSnapshot(reader);
+		}
+
+		this.entryResolver.invalidateCache();
+	}
+
+	private void checkSnapshotable() throws IOException {
+		for (JarIndexer indexer : this.indexers.values()) {
+			if (!indexer.isSnapshotable()) {
+				throw new IOException(indexer.getClass().getName() + " is not snapshotable");
 			}
 		}
+	}
 
-		this.indexers.forEach((key, indexer) -> indexer.indexClass(classEntry));
-		if (classEntry.isInnerClass() && !classEntry.getAccess().isSynthetic()) {
-			this.childrenByClass.put(classEntry.getParent(), classEntry);
+	private void stepProcessingProgress(String key) {
+		if (this.progress != null) {
+			this.progress.step(4, I18n.translateFormatted("progress.jar.indexing.process", I18n.translate(key)));
 		}
 	}
 
+	@Override
+	public void indexClass(ClassDefEntry classEntry) {
+		this.root.indexClass(classEntry);
+	}
+
 	@Override
 	public void indexField(FieldDefEntry fieldEntry) {
-		this.indexers.forEach((key, indexer) -> indexer.indexField(fieldEntry));
-		if (!fieldEntry.getAccess().isSynthetic()) {
-			this.childrenByClass.put(fieldEntry.getParent(), fieldEntry);
-		}
+		this.root.indexField(fieldEntry);
 	}
 
 	@Override
 	public void indexMethod(MethodDefEntry methodEntry) {
-		this.indexers.forEach((key, indexer) -> indexer.indexMethod(methodEntry));
-		if (!methodEntry.getAccess().isSynthetic() && !methodEntry.getName().equals("<clinit>")) {
-			this.childrenByClass.put(methodEntry.getParent(), methodEntry);
-		}
-
-		if (!methodEntry.isConstructor()) {
-			this.methodImplementations.put(methodEntry.getParent().getFullName(), methodEntry);
-		}
+		this.root.indexMethod(methodEntry);
 	}
 
 	@Override
 	public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexClassReference(callerEntry, referencedEntry, targetType));
+		this.root.indexClassReference(callerEntry, referencedEntry, targetType);
 	}
 
 	@Override
 	public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexMethodReference(callerEntry, referencedEntry, targetType));
+		this.root.indexMethodReference(callerEntry, referencedEntry, targetType);
 	}
 
 	@Override
 	public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexFieldReference(callerEntry, referencedEntry, targetType));
+		this.root.indexFieldReference(callerEntry, referencedEntry, targetType);
 	}
 
 	@Override
 	public void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexLambda(callerEntry, lambda, targetType));
+		this.root.indexLambda(callerEntry, lambda, targetType);
 	}
 
 	@Override
 	public void indexEnclosingMethod(ClassDefEntry classEntry, EnclosingMethodData enclosingMethodData) {
-		this.indexers.forEach((key, indexer) -> indexer.indexEnclosingMethod(classEntry, enclosingMethodData));
+		this.root.indexEnclosingMethod(classEntry, enclosingMethodData);
 	}
 
 	@Override
@@ -189,6 +429,13 @@ public abstract class AbstractJarIndex implements JarIndex {
 		return this.entryResolver;
 	}
 
+	/**
+	 * {@return the pool shared by the entries found by this index}
+	 */
+	public EntryPool getEntryPool() {
+		return this.entryPool;
+	}
+
 	@Override
 	public ListMultimap<ClassEntry, ParentedEntry<?>> getChildrenByClass() {
 		return this.childrenByClass;
@@ -0,0 +1,140 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns entries and descriptors, so that equal ones share a single instance.
+ * Safe to use from multiple threads.
+ *
+ * <p>
+ * Only plain class, field and method entries without javadocs are pooled.
+ * Definitions carry access flags and signatures which are not part of their equality, so they are never pooled.
+ * Pooled method descriptors are shared, so their argument access flags must not be changed,
+ * and they must not be used for method definitions.
+ */
+public final class EntryPool {
+	private final Map<String, ClassEntry> classes = new ConcurrentHashMap<>();
+	private final Map<FieldEntry, FieldEntry> fields = new ConcurrentHashMap<>();
+	private final Map<MethodEntry, MethodEntry> methods = new ConcurrentHashMap<>();
+	private final Map<String, TypeDescriptor> typeDescriptors = new ConcurrentHashMap<>();
+	private final Map<String, MethodDescriptor> methodDescriptors = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the pooled entry of a class, creating it and its outer classes if needed.
+	 *
+	 * @param name the internal name of the class
+	 * @return the pooled entry
+	 */
+	public ClassEntry getClassEntry(String name) {
+		ClassEntry entry = this.classes.get(name);
+		if (entry != null) {
+			return entry;
+		}
+
+		ClassEntry outerClass = ClassEntry.getOuterClass(name);
+		entry = new ClassEntry(outerClass != null ? this.getClassEntry(outerClass.getFullName()) : null, ClassEntry.getInnerName(name));
+		ClassEntry existing = this.classes.putIfAbsent(name, entry);
+		return existing != null ? existing : entry;
+	}
+
+	public FieldEntry getFieldEntry(String owner, String name, String desc) {
+		return this.intern(new FieldEntry(this.getClassEntry(owner), name, this.getTypeDescriptor(desc)));
+	}
+
+	public MethodEntry getMethodEntry(String owner, String name, String desc) {
+		return this.intern(new MethodEntry(this.getClassEntry(owner), name, this.getMethodDescriptor(desc)));
+	}
+
+	public TypeDescriptor getTypeDescriptor(String desc) {
+		return this.typeDescriptors.computeIfAbsent(desc, TypeDescriptor::new);
+	}
+
+	public MethodDescriptor getMethodDescriptor(String desc) {
+		MethodDescriptor descriptor = this.methodDescriptors.get(desc);
+		if (descriptor != null) {
+			return descriptor;
+		}
+
+		// share the descriptor strings of argument and return types with other descriptors
+		MethodDescriptor parsed = new MethodDescriptor(desc);
+		List<ArgumentDescriptor> arguments = new ArrayList<>(parsed.getArgumentDescs().size());
+		for (ArgumentDescriptor argument : parsed.getArgumentDescs()) {
+			arguments.add(new ArgumentDescriptor(this.getTypeDescriptor(argument.toString()).toString(), ParameterAccessFlags.DEFAULT));
+		}
+
+		descriptor = new MethodDescriptor(arguments, this.getTypeDescriptor(parsed.getReturnDesc().toString()));
+		MethodDescriptor existing = this.methodDescriptors.putIfAbsent(desc, descriptor);
+		return existing != null ? existing : descriptor;
+	}
+
+	/**
+	 * Gets the pooled instance of an entry, pooling it if there is none yet.
+	 * Entries which cannot be pooled are returned as is.
+	 *
+	 * @param entry the entry to intern
+	 * @return the pooled entry, or the given entry if it cannot be pooled
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends Entry<?>> E intern(E entry) {
+		if (entry == null || entry.getJavadocs() != null) {
+			return entry;
+		}
+
+		Entry<?> pooled;
+		if (entry.getClass() == ClassEntry.class) {
+			pooled = this.getClassEntry(((ClassEntry) entry).getFullName());
+		} else if (entry.getClass() == FieldEntry.class) {
+			pooled = this.fields.get(entry);
+			if (pooled == null) {
+				pooled = putIfAbsent(this.fields, this.withPooledParts((FieldEntry) entry));
+			}
+		} else if (entry.getClass() == MethodEntry.class) {
+			pooled = this.methods.get(entry);
+			if (pooled == null) {
+				pooled = putIfAbsent(this.methods, this.withPooledParts((MethodEntry) entry));
+			}
+		} else {
+			pooled = entry;
+		}
+
+		return (E) pooled;
+	}
+
+	// the pooled entry is its own key, so that the pool never keeps the entry it was asked for alive next to it
+	private static <E extends Entry<?>> E putIfAbsent(Map<E, E> pool, E pooled) {
+		E existing = pool.putIfAbsent(pooled, pooled);
+		return existing != null ? existing : pooled;
+	}
+
+	// the entry may have been derived from another one, such as while resolving it, so its parts may not be pooled yet
+	private FieldEntry withPooledParts(FieldEntry entry) {
+		ClassEntry owner = this.getClassEntry(entry.getParent().getFullName());
+		TypeDescriptor desc = this.getTypeDescriptor(entry.getDesc().toString());
+		return owner == entry.getParent() && desc == entry.getDesc() ? entry : new FieldEntry(owner, entry.getName(), desc);
+	}
+
+	private MethodEntry withPooledParts(MethodEntry entry) {
+		ClassEntry owner = this.getClassEntry(entry.getParent().getFullName());
+		MethodDescriptor desc = this.getMethodDescriptor(entry.getDesc().toString());
+		return owner == entry.getParent() && desc == entry.getDesc() ? entry : new MethodEntry(owner, entry.getName(), desc);
+	}
+
+	/**
+	 * {@return the number of pooled entries and descriptors}
+	 */
+	public int size() {
+		return this.classes.size() + this.fields.size() + this.methods.size() + this.typeDescriptors.size() + this.methodDescriptors.size();
+	}
+}
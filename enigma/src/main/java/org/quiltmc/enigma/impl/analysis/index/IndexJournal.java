@@ -0,0 +1,403 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.IndexSnapshotReader;
+import org.quiltmc.enigma.api.analysis.index.jar.IndexSnapshotWriter;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
+import org.quiltmc.enigma.api.translation.mapping.IndexEntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.representation.Lambda;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records everything found while visiting each class of a jar, along with a hash of the class' contents.
+ * A journal of a previous version of the jar lets unchanged classes be replayed into an index instead of being visited again.
+ * The entries resolved by searching the hierarchy while processing the index are recorded too, so that unchanged ones are not resolved again.
+ *
+ * @see AbstractJarIndex#indexJar(java.util.Set, org.quiltmc.enigma.api.class_provider.ClassProvider, org.quiltmc.enigma.api.ProgressListener, boolean, IndexJournal, IndexJournal)
+ */
+public final class IndexJournal {
+	private static final byte CLASS = 0;
+	private static final byte FIELD = 1;
+	private static final byte METHOD = 2;
+	private static final byte ENCLOSING_METHOD = 3;
+	private static final byte CLASS_REFERENCE = 4;
+	private static final byte METHOD_REFERENCE = 5;
+	private static final byte FIELD_REFERENCE = 6;
+	private static final byte LAMBDA = 7;
+
+	private final Map<String, String> classHashes;
+	private final Map<String, ClassRecord> records = new ConcurrentHashMap<>();
+	private Map<ClassEntry, List<ClassEntry>> parents;
+	private List<IndexEntryResolver.CachedResolution> resolutions = List.of();
+
+	/**
+	 * @param classHashes the hash of every class of the jar, by class name
+	 */
+	public IndexJournal(Map<String, String> classHashes) {
+		this.classHashes = classHashes;
+	}
+
+	ClassRecord getRecord(String className) {
+		return this.records.computeIfAbsent(className, name -> new ClassRecord(this.classHashes.get(name)));
+	}
+
+	/**
+	 * {@return the record of a class of this journal, if the class has the same hash in the given journal}
+	 */
+	@Nullable
+	ClassRecord getUnchangedRecord(String className, IndexJournal current) {
+		ClassRecord record = this.records.get(className);
+		return record != null && record.hash != null && record.hash.equals(current.classHashes.get(className)) ? record : null;
+	}
+
+	/**
+	 * {@return the classes which were added, removed or changed between this journal and the given one}
+	 */
+	Set<String> getChangedClasses(Set<String> classNames, IndexJournal current) {
+		Set<String> changed = new HashSet<>();
+		for (String className : classNames) {
+			if (this.getUnchangedRecord(className, current) == null) {
+				changed.add(className);
+			}
+		}
+
+		for (String className : this.records.keySet()) {
+			if (!classNames.contains(className)) {
+				changed.add(className);
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * {@return the ancestors of a class, as they were when this journal was recorded}
+	 */
+	Set<ClassEntry> getAncestors(ClassEntry classEntry) {
+		if (this.parents == null) {
+			Map<ClassEntry, List<ClassEntry>> parents = new HashMap<>();
+			this.records.values().forEach(record -> record.entryEvents.forEach(event -> {
+				if (event instanceof ClassEvent classEvent) {
+					ClassDefEntry definition = classEvent.entry();
+					List<ClassEntry> classParents = new ArrayList<>();
+					if (definition.getSuperClass() != null && !definition.getSuperClass().getFullName().equals("java/lang/Object")) {
+						classParents.add(definition.getSuperClass());
+					}
+
+					classParents.addAll(List.of(definition.getInterfaces()));
+					parents.put(definition, classParents);
+				}
+			}));
+
+			this.parents = parents;
+		}
+
+		Set<ClassEntry> ancestors = new HashSet<>();
+		Deque<ClassEntry> queue = new ArrayDeque<>(this.parents.getOrDefault(classEntry, List.of()));
+		while (!queue.isEmpty()) {
+			ClassEntry ancestor = queue.pop();
+			if (ancestors.add(ancestor)) {
+				queue.addAll(this.parents.getOrDefault(ancestor, List.of()));
+			}
+		}
+
+		return ancestors;
+	}
+
+	/**
+	 * Drops the records of classes without a hash, and adds the records of another journal for the classes this journal does not have.
+	 * This lets a journal of classes shared between jars, such as those of a library, accumulate every class indexed by any of them.
+	 *
+	 * @param previous the journal to add the missing records of, or {@code null} to only drop the records without a hash
+	 */
+	void accumulate(@Nullable IndexJournal previous) {
+		this.records.values().removeIf(record -> record.hash == null);
+		if (previous != null) {
+			previous.records.forEach((className, record) -> {
+				if (record.hash != null) {
+					this.records.putIfAbsent(className, record);
+				}
+			});
+		}
+
+		this.parents = null;
+	}
+
+	/**
+	 * {@return the resolutions which searched the hierarchy while processing the index, as they were when this journal was recorded}
+	 */
+	public List<IndexEntryResolver.CachedResolution> getResolutions() {
+		return this.resolutions;
+	}
+
+	void setResolutions(List<IndexEntryResolver.CachedResolution> resolutions) {
+		this.resolutions = resolutions;
+	}
+
+	public void write(IndexSnapshotWriter writer) throws IOException {
+		writer.writeInt(this.records.size());
+		for (Map.Entry<String, ClassRecord> entry : this.records.entrySet()) {
+			writer.writeString(entry.getKey());
+			entry.getValue().write(writer);
+		}
+
+		writer.writeInt(this.resolutions.size());
+		for (IndexEntryResolver.CachedResolution resolution : this.resolutions) {
+			writer.writeEntry(resolution.entry());
+			writer.writeInt(resolution.strategy().ordinal());
+			writer.writeEntries(resolution.resolvedChildren());
+		}
+	}
+
+	public static IndexJournal read(IndexSnapshotReader reader) throws IOException {
+		Map<String, String> classHashes = new HashMap<>();
+		IndexJournal journal = new IndexJournal(classHashes);
+
+		int classCount = reader.readInt();
+		for (int i = 0; i < classCount; i++) {
+			String className = reader.readString();
+			ClassRecord record = ClassRecord.read(reader);
+			classHashes.put(className, record.hash);
+			journal.records.put(className, record);
+		}
+
+		int resolutionCount = reader.readInt();
+		List<IndexEntryResolver.CachedResolution> resolutions = new ArrayList<>(resolutionCount);
+		for (int i = 0; i < resolutionCount; i++) {
+			Entry<ClassEntry> entry = reader.readEntry();
+			ResolutionStrategy strategy = ResolutionStrategy.values()[reader.readInt()];
+			List<Entry<ClassEntry>> resolvedChildren = new ArrayList<>();
+			reader.readEntries(resolvedChildren);
+			resolutions.add(new IndexEntryResolver.CachedResolution(entry, strategy, List.copyOf(resolvedChildren)));
+		}
+
+		journal.resolutions = resolutions;
+		return journal;
+	}
+
+	/**
+	 * Everything found for a single class, in the order it was found.
+	 * Events of the entry pass and of the reference pass are kept apart, since they are replayed separately.
+	 */
+	static final class ClassRecord {
+		@Nullable
+		private final String hash;
+		final List<Event> entryEvents = new ArrayList<>();
+		final List<Event> referenceEvents = new ArrayList<>();
+		/**
+		 * The classes looked up in the index while analysing the methods of this class,
+		 * whose references depend on the definitions and ancestry of those classes.
+		 */
+		final Set<ClassEntry> lookups = new HashSet<>();
+
+		ClassRecord(@Nullable String hash) {
+			this.hash = hash;
+		}
+
+		void replayEntries(JarIndexer indexer) {
+			this.entryEvents.forEach(event -> event.replay(indexer));
+		}
+
+		void replayReferences(JarIndexer indexer) {
+			this.referenceEvents.forEach(event -> event.replay(indexer));
+		}
+
+		private void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeString(this.hash);
+			writeEvents(writer, this.entryEvents);
+			writeEvents(writer, this.referenceEvents);
+			writer.writeEntries(this.lookups);
+		}
+
+		private static ClassRecord read(IndexSnapshotReader reader) throws IOException {
+			ClassRecord record = new ClassRecord(reader.readString());
+			readEvents(reader, record.entryEvents);
+			readEvents(reader, record.referenceEvents);
+			reader.readEntries(record.lookups);
+			return record;
+		}
+
+		private static void writeEvents(IndexSnapshotWriter writer, List<Event> events) throws IOException {
+			writer.writeInt(events.size());
+			for (Event event : events) {
+				event.write(writer);
+			}
+		}
+
+		private static void readEvents(IndexSnapshotReader reader, List<Event> into) throws IOException {
+			int size = reader.readInt();
+			for (int i = 0; i < size; i++) {
+				into.add(readEvent(reader));
+			}
+		}
+
+		private static Event readEvent(IndexSnapshotReader reader) throws IOException {
+			int kind = reader.readInt();
+			return switch (kind) {
+				case CLASS -> new ClassEvent(reader.readEntry());
+				case FIELD -> new FieldEvent(reader.readEntry());
+				case METHOD -> new MethodEvent(reader.readEntry());
+				case ENCLOSING_METHOD -> new EnclosingMethodEvent(reader.readEntry(), new JarIndexer.EnclosingMethodData(reader.readString(), reader.readString(), reader.readString()));
+				case CLASS_REFERENCE -> new ClassReferenceEvent(reader.readEntry(), reader.readEntry(), reader.readTargetType());
+				case METHOD_REFERENCE -> new MethodReferenceEvent(reader.readEntry(), reader.readEntry(), reader.readTargetType());
+				case FIELD_REFERENCE -> new FieldReferenceEvent(reader.readEntry(), reader.readEntry(), reader.readTargetType());
+				case LAMBDA -> {
+					MethodDefEntry caller = reader.readEntry();
+					String invokedName = reader.readString();
+					MethodDescriptor invokedType = new MethodDescriptor(reader.readString());
+					MethodDescriptor samMethodType = new MethodDescriptor(reader.readString());
+					ParentedEntry<?> implMethod = reader.readEntry();
+					MethodDescriptor instantiatedMethodType = new MethodDescriptor(reader.readString());
+					yield new LambdaEvent(caller, new Lambda(invokedName, invokedType, samMethodType, implMethod, instantiatedMethodType), reader.readTargetType());
+				}
+				default -> throw new IOException("Unknown event kind in index journal: " + kind);
+			};
+		}
+	}
+
+	sealed interface Event {
+		void replay(JarIndexer indexer);
+
+		void write(IndexSnapshotWriter writer) throws IOException;
+	}
+
+	record ClassEvent(ClassDefEntry entry) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexClass(this.entry);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(CLASS);
+			writer.writeEntry(this.entry);
+		}
+	}
+
+	record FieldEvent(FieldDefEntry entry) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexField(this.entry);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(FIELD);
+			writer.writeEntry(this.entry);
+		}
+	}
+
+	record MethodEvent(MethodDefEntry entry) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexMethod(this.entry);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(METHOD);
+			writer.writeEntry(this.entry);
+		}
+	}
+
+	record EnclosingMethodEvent(ClassDefEntry entry, JarIndexer.EnclosingMethodData data) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexEnclosingMethod(this.entry, this.data);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(ENCLOSING_METHOD);
+			writer.writeEntry(this.entry);
+			writer.writeString(this.data.owner());
+			writer.writeString(this.data.name());
+			writer.writeString(this.data.descriptor());
+		}
+	}
+
+	record ClassReferenceEvent(MethodDefEntry caller, ClassEntry entry, ReferenceTargetType targetType) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexClassReference(this.caller, this.entry, this.targetType);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(CLASS_REFERENCE);
+			writer.writeEntry(this.caller);
+			writer.writeEntry(this.entry);
+			writer.writeTargetType(this.targetType);
+		}
+	}
+
+	record MethodReferenceEvent(MethodDefEntry caller, MethodEntry entry, ReferenceTargetType targetType) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexMethodReference(this.caller, this.entry, this.targetType);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(METHOD_REFERENCE);
+			writer.writeEntry(this.caller);
+			writer.writeEntry(this.entry);
+			writer.writeTargetType(this.targetType);
+		}
+	}
+
+	record FieldReferenceEvent(MethodDefEntry caller, FieldEntry entry, ReferenceTargetType targetType) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexFieldReference(this.caller, this.entry, this.targetType);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(FIELD_REFERENCE);
+			writer.writeEntry(this.caller);
+			writer.writeEntry(this.entry);
+			writer.writeTargetType(this.targetType);
+		}
+	}
+
+	record LambdaEvent(MethodDefEntry caller, Lambda lambda, ReferenceTargetType targetType) implements Event {
+		@Override
+		public void replay(JarIndexer indexer) {
+			indexer.indexLambda(this.caller, this.lambda, this.targetType);
+		}
+
+		@Override
+		public void write(IndexSnapshotWriter writer) throws IOException {
+			writer.writeInt(LAMBDA);
+			writer.writeEntry(this.caller);
+			writer.writeString(this.lambda.invokedName());
+			writer.writeString(this.lambda.invokedType().toString());
+			writer.writeString(this.lambda.samMethodType().toString());
+			writer.writeEntry(this.lambda.implMethod());
+			writer.writeString(this.lambda.instantiatedMethodType().toString());
+			writer.writeTargetType(this.targetType);
+		}
+	}
+}
@@ -15,7 +15,6 @@ import org.quiltmc.enigma.api.translation.representation.Signature;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Handle;
@@ -30,25 +29,36 @@ import org.objectweb.asm.tree.analysis.Analyzer;
 import org.objectweb.asm.tree.analysis.AnalyzerException;
 import org.objectweb.asm.tree.analysis.BasicValue;
 
+import javax.annotation.Nullable;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class IndexReferenceVisitor extends ClassVisitor {
 	private final JarIndexer indexer;
 	private final EntryIndex entryIndex;
 	private final InheritanceIndex inheritanceIndex;
+	private final EntryPool entryPool;
+	@Nullable
+	private final Consumer<ClassEntry> lookupListener;
 	private ClassEntry classEntry;
 	private String className;
 
-	public IndexReferenceVisitor(JarIndexer indexer, EntryIndex entryIndex, InheritanceIndex inheritanceIndex, int api) {
+	/**
+	 * @param entryPool the pool to get referenced entries from, which should be the one of the index, see {@link AbstractJarIndex#getEntryPool()}
+	 * @param lookupListener notified of every class looked up in the index while analysing methods, see {@link IndexSimpleVerifier}
+	 */
+	public IndexReferenceVisitor(JarIndexer indexer, EntryIndex entryIndex, InheritanceIndex inheritanceIndex, EntryPool entryPool, @Nullable Consumer<ClassEntry> lookupListener, int api) {
 		super(api);
 		this.indexer = indexer;
 		this.entryIndex = entryIndex;
 		this.inheritanceIndex = inheritanceIndex;
+		this.entryPool = entryPool;
+		this.lookupListener = lookupListener;
 	}
 
 	@Override
 	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
-		this.classEntry = new ClassEntry(name);
+		this.classEntry = this.entryPool.getClassEntry(name);
 		this.className = name;
 	}
 
@@ -57,7 +67,7 @@ public class IndexReferenceVisitor extends ClassVisitor {
 		MethodDefEntry entry = new MethodDefEntry(this.classEntry, name, new MethodDescriptor(desc), Signature.createSignature(signature), new AccessFlags(access));
 		return new MethodNodeWithAction(this.api, access, name, desc, signature, exceptions, methodNode -> {
 			try {
-				new Analyzer<>(new MethodInterpreter(entry, this.indexer, this.entryIndex, this.inheritanceIndex)).analyze(this.className, methodNode);
+				new Analyzer<>(new MethodInterpreter(entry, this.indexer, this.entryIndex, this.inheritanceIndex, this.entryPool, this.lookupListener)).analyze(this.className, methodNode);
 			} catch (AnalyzerException e) {
 				throw new RuntimeException("Failed to analyze " + methodNode.name, e);
 			}
@@ -68,18 +78,20 @@ public class IndexReferenceVisitor extends ClassVisitor {
 	private static class MethodInterpreter extends IndexSimpleVerifier {
 		private final MethodDefEntry callerEntry;
 		private final JarIndexer indexer;
+		private final EntryPool entryPool;
 
-		MethodInterpreter(MethodDefEntry callerEntry, JarIndexer indexer, EntryIndex entryIndex, InheritanceIndex inheritanceIndex) {
-			super(entryIndex, inheritanceIndex);
+		MethodInterpreter(MethodDefEntry callerEntry, JarIndexer indexer, EntryIndex entryIndex, InheritanceIndex inheritanceIndex, EntryPool entryPool, @Nullable Consumer<ClassEntry> lookupListener) {
+			super(entryIndex, inheritanceIndex, lookupListener);
 			this.callerEntry = callerEntry;
 			this.indexer = indexer;
+			this.entryPool = entryPool;
 		}
 
 		@Override
 		public BasicValue newOperation(AbstractInsnNode insn) throws AnalyzerException {
 			if (insn.getOpcode() == Opcodes.GETSTATIC) {
 				FieldInsnNode field = (FieldInsnNode) insn;
-				this.indexer.indexFieldReference(this.callerEntry, FieldEntry.parse(field.owner, field.name, field.desc), ReferenceTargetType.none());
+				this.indexer.indexFieldReference(this.callerEntry, this.entryPool.getFieldEntry(field.owner, field.name, field.desc), ReferenceTargetType.none());
 			}
 
 			if (insn.getOpcode() == Opcodes.LDC) {
@@ -87,7 +99,7 @@ public class IndexReferenceVisitor extends ClassVisitor {
 
 				if (ldc.getType() == Type.ARRAY && ldc.cst instanceof Type type) {
 					String className = type.getClassName().replace(".", "/");
-					this.indexer.indexClassReference(this.callerEntry, new ClassEntry(className), ReferenceTargetType.none());
+					this.indexer.indexClassReference(this.callerEntry, this.entryPool.getClassEntry(className), ReferenceTargetType.none());
 				}
 			}
 
@@ -98,24 +110,24 @@ public class IndexReferenceVisitor extends ClassVisitor {
 		public BasicValue unaryOperation(AbstractInsnNode insn, BasicValue value) throws AnalyzerException {
 			if (insn.getOpcode() == Opcodes.PUTSTATIC) {
 				FieldInsnNode field = (FieldInsnNode) insn;
-				this.indexer.indexFieldReference(this.callerEntry, FieldEntry.parse(field.owner, field.name, field.desc), ReferenceTargetType.none());
+				this.indexer.indexFieldReference(this.callerEntry, this.entryPool.getFieldEntry(field.owner, field.name, field.desc), ReferenceTargetType.none());
 			}
 
 			if (insn.getOpcode() == Opcodes.GETFIELD) {
 				FieldInsnNode field = (FieldInsnNode) insn;
-				this.indexer.indexFieldReference(this.callerEntry, FieldEntry.parse(field.owner, field.name, field.desc), this.getReferenceTargetType(value, insn));
+				this.indexer.indexFieldReference(this.callerEntry, this.entryPool.getFieldEntry(field.owner, field.name, field.desc), this.getReferenceTargetType(value, insn));
 			}
 
 			// Note: type.desc is actually the name
 
 			if (insn.getOpcode() == Opcodes.INSTANCEOF) {
 				TypeInsnNode type = (TypeInsnNode) insn;
-				this.indexer.indexClassReference(this.callerEntry, new ClassEntry(type.desc), ReferenceTargetType.none());
+				this.indexer.indexClassReference(this.callerEntry, this.entryPool.getClassEntry(type.desc), ReferenceTargetType.none());
 			}
 
 			if (insn.getOpcode() == Opcodes.CHECKCAST) {
 				TypeInsnNode type = (TypeInsnNode) insn;
-				this.indexer.indexClassReference(this.callerEntry, new ClassEntry(type.desc), ReferenceTargetType.none());
+				this.indexer.indexClassReference(this.callerEntry, this.entryPool.getClassEntry(type.desc), ReferenceTargetType.none());
 			}
 
 			return super.unaryOperation(insn, value);
@@ -125,7 +137,7 @@ public class IndexReferenceVisitor extends ClassVisitor {
 		public BasicValue binaryOperation(AbstractInsnNode insn, BasicValue value1, BasicValue value2) throws AnalyzerException {
 			if (insn.getOpcode() == Opcodes.PUTFIELD) {
 				FieldInsnNode field = (FieldInsnNode) insn;
-				FieldEntry fieldEntry = FieldEntry.parse(field.owner, field.name, field.desc);
+				FieldEntry fieldEntry = this.entryPool.getFieldEntry(field.owner, field.name, field.desc);
 				this.indexer.indexFieldReference(this.callerEntry, fieldEntry, ReferenceTargetType.none());
 			}
 
@@ -136,12 +148,12 @@ public class IndexReferenceVisitor extends ClassVisitor {
 		public BasicValue naryOperation(AbstractInsnNode insn, List<? extends BasicValue> values) throws AnalyzerException {
 			if (insn.getOpcode() == Opcodes.INVOKEINTERFACE || insn.getOpcode() == Opcodes.INVOKESPECIAL || insn.getOpcode() == Opcodes.INVOKEVIRTUAL) {
 				MethodInsnNode methodInsn = (MethodInsnNode) insn;
-				this.indexer.indexMethodReference(this.callerEntry, MethodEntry.parse(methodInsn.owner, methodInsn.name, methodInsn.desc), this.getReferenceTargetType(values.get(0), insn));
+				this.indexer.indexMethodReference(this.callerEntry, this.entryPool.getMethodEntry(methodInsn.owner, methodInsn.name, methodInsn.desc), this.getReferenceTargetType(values.get(0), insn));
 			}
 
 			if (insn.getOpcode() == Opcodes.INVOKESTATIC) {
 				MethodInsnNode methodInsn = (MethodInsnNode) insn;
-				this.indexer.indexMethodReference(this.callerEntry, MethodEntry.parse(methodInsn.owner, methodInsn.name, methodInsn.desc), ReferenceTargetType.none());
+				this.indexer.indexMethodReference(this.callerEntry, this.entryPool.getMethodEntry(methodInsn.owner, methodInsn.name, methodInsn.desc), ReferenceTargetType.none());
 			}
 
 			if (insn.getOpcode() == Opcodes.INVOKEDYNAMIC) {
@@ -165,10 +177,10 @@ public class IndexReferenceVisitor extends ClassVisitor {
 
 					this.indexer.indexLambda(this.callerEntry, new Lambda(
 							invokeDynamicInsn.name,
-							new MethodDescriptor(invokeDynamicInsn.desc),
-							new MethodDescriptor(samMethodType.getDescriptor()),
-							getHandleEntry(implMethod),
-							new MethodDescriptor(instantiatedMethodType.getDescriptor())
+							this.entryPool.getMethodDescriptor(invokeDynamicInsn.desc),
+							this.entryPool.getMethodDescriptor(samMethodType.getDescriptor()),
+							this.getHandleEntry(implMethod),
+							this.entryPool.getMethodDescriptor(instantiatedMethodType.getDescriptor())
 					), targetType);
 				}
 			}
@@ -182,23 +194,23 @@ public class IndexReferenceVisitor extends ClassVisitor {
 			}
 
 			if (target.getType().getSort() == Type.OBJECT) {
-				return ReferenceTargetType.classType(new ClassEntry(target.getType().getInternalName()));
+				return ReferenceTargetType.classType(this.entryPool.getClassEntry(target.getType().getInternalName()));
 			}
 
 			if (target.getType().getSort() == Type.ARRAY) {
-				return ReferenceTargetType.classType(new ClassEntry("java/lang/Object"));
+				return ReferenceTargetType.classType(this.entryPool.getClassEntry("java/lang/Object"));
 			}
 
 			throw new AnalyzerException(insn, "called method on or accessed field of non-object type");
 		}
 
-		private static ParentedEntry<?> getHandleEntry(Handle handle) {
+		private ParentedEntry<?> getHandleEntry(Handle handle) {
 			switch (handle.getTag()) {
 				case Opcodes.H_GETFIELD, Opcodes.H_GETSTATIC, Opcodes.H_PUTFIELD, Opcodes.H_PUTSTATIC -> {
-					return FieldEntry.parse(handle.getOwner(), handle.getName(), handle.getDesc());
+					return this.entryPool.getFieldEntry(handle.getOwner(), handle.getName(), handle.getDesc());
 				}
 				case Opcodes.H_INVOKEINTERFACE, Opcodes.H_INVOKESPECIAL, Opcodes.H_INVOKESTATIC, Opcodes.H_INVOKEVIRTUAL, Opcodes.H_NEWINVOKESPECIAL -> {
-					return MethodEntry.parse(handle.getOwner(), handle.getName(), handle.getDesc());
+					return this.entryPool.getMethodEntry(handle.getOwner(), handle.getName(), handle.getDesc());
 				}
 			}
 
@@ -0,0 +1,96 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimap;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
+import org.quiltmc.enigma.api.translation.representation.Lambda;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
+
+import java.util.Map;
+
+/**
+ * Forwards everything found while visiting classes to a set of indexers, and collects the data owned by the jar index itself.
+ * An {@link AbstractJarIndex} uses one shard over its own indexers, and creates independent shards when visiting classes in parallel.
+ */
+final class JarIndexShard implements JarIndexer {
+	final Map<Class<? extends JarIndexer>, JarIndexer> indexers;
+	final Multimap<String, MethodDefEntry> methodImplementations;
+	final ListMultimap<ClassEntry, ParentedEntry<?>> childrenByClass;
+
+	JarIndexShard(Map<Class<? extends JarIndexer>, JarIndexer> indexers, Multimap<String, MethodDefEntry> methodImplementations, ListMultimap<ClassEntry, ParentedEntry<?>> childrenByClass) {
+		this.indexers = indexers;
+		this.methodImplementations = methodImplementations;
+		this.childrenByClass = childrenByClass;
+	}
+
+	@Override
+	public void indexClass(ClassDefEntry classEntry) {
+		for (ClassEntry interfaceEntry : classEntry.getInterfaces()) {
+			if (classEntry.equals(interfaceEntry)) {
+				throw new IllegalArgumentException("Class cannot be its own interface! " + classEntry);
+			}
+		}
+
+		this.indexers.forEach((key, indexer) -> indexer.indexClass(classEntry));
+		if (classEntry.isInnerClass() && !classEntry.getAccess().isSynthetic()) {
+			this.childrenByClass.put(classEntry.getParent(), classEntry);
+		}
+	}
+
+	@Override
+	public void indexField(FieldDefEntry fieldEntry) {
+		this.indexers.forEach((key, indexer) -> indexer.indexField(fieldEntry));
+		if (!fieldEntry.getAccess().isSynthetic()) {
+			this.childrenByClass.put(fieldEntry.getParent(), fieldEntry);
+		}
+	}
+
+	@Override
+	public void indexMethod(MethodDefEntry methodEntry) {
+		this.indexers.forEach((key, indexer) -> indexer.indexMethod(methodEntry));
+		if (!methodEntry.getAccess().isSynthetic() && !methodEntry.getName().equals("<clinit>")) {
+			this.childrenByClass.put(methodEntry.getParent(), methodEntry);
+		}
+
+		if (!methodEntry.isConstructor()) {
+			this.methodImplementations.put(methodEntry.getParent().getFullName(), methodEntry);
+		}
+	}
+
+	@Override
+	public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
+		this.indexers.forEach((key, indexer) -> indexer.indexClassReference(callerEntry, referencedEntry, targetType));
+	}
+
+	@Override
+	public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
+		this.indexers.forEach((key, indexer) -> indexer.indexMethodReference(callerEntry, referencedEntry, targetType));
+	}
+
+	@Override
+	public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
+		this.indexers.forEach((key, indexer) -> indexer.indexFieldReference(callerEntry, referencedEntry, targetType));
+	}
+
+	@Override
+	public void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
+		this.indexers.forEach((key, indexer) -> indexer.indexLambda(callerEntry, lambda, targetType));
+	}
+
+	@Override
+	public void indexEnclosingMethod(ClassDefEntry classEntry, EnclosingMethodData enclosingMethodData) {
+		this.indexers.forEach((key, indexer) -> indexer.indexEnclosingMethod(classEntry, enclosingMethodData));
+	}
+
+	@Override
+	public String getTranslationKey() {
+		return "progress.jar.indexing";
+	}
+}
@@ -0,0 +1,297 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.IndexSnapshotReader;
+import org.quiltmc.enigma.api.analysis.index.jar.IndexSnapshotWriter;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.JdkClassProvider;
+import org.quiltmc.enigma.util.I18n;
+import org.quiltmc.enigma.util.Utils;
+import org.tinylog.Logger;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Stores snapshots of fully processed jar indices in a directory, keyed by the checksum of the indexed jar and by the configuration
+ * they were indexed with, such as the profile.
+ * A snapshot is only loaded if it was written by the same snapshot format and Enigma version, with the same configuration and indexers.
+ *
+ * <p>The {@linkplain IndexJournal journal} of the most recently indexed version of each jar is stored alongside the snapshots,
+ * so that a new version of a jar only has to visit the classes that changed since then.
+ * Journals are identified by the path of their jar, which is stored in them and checked when reading them back.
+ * A journal of the classes of the running JDK is also kept per JDK version, to be replayed into the library index of every project.
+ */
+public final class JarIndexSnapshotCache {
+	private static final int MAGIC = 0x454E4958;
+	private static final int JOURNAL_MAGIC = 0x454E494A;
+	/**
+	 * Must be bumped whenever the snapshot format, or the data written by an indexer, changes.
+	 */
+	private static final int FORMAT_VERSION = 3;
+	private static final String JDK_JOURNAL_EXTENSION = ".jdk-journal";
+	// the JDK journal is shared by every configuration, since only the built-in library indexers are replayed from it
+	private static final byte[] NO_CONFIGURATION = sha1(new byte[0]);
+
+	private final Path directory;
+	private final byte[] configuration;
+
+	public JarIndexSnapshotCache(Path directory) {
+		this(directory, "");
+	}
+
+	/**
+	 * @param directory the directory to store snapshots in
+	 * @param configuration describes what the indexing was configured with, snapshots and journals are only loaded with the same configuration
+	 */
+	public JarIndexSnapshotCache(Path directory, String configuration) {
+		this.directory = directory;
+		this.configuration = sha1(configuration.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Loads the snapshot of a jar into a new index.
+	 * Any snapshot that cannot be read is ignored, so that the jar is indexed again.
+	 *
+	 * @param checksum the checksum of the jar
+	 * @param indexFactory creates the empty index to load the snapshot into
+	 * @param progress a progress listener to track loading
+	 * @return the loaded index, or {@code null} if no usable snapshot exists
+	 */
+	@Nullable
+	public JarIndex load(byte[] checksum, Supplier<JarIndex> indexFactory, ProgressListener progress) {
+		Path file = this.getSnapshotFile(checksum);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		JarIndex index = indexFactory.get();
+		if (!index.isSnapshotable()) {
+			return null;
+		}
+
+		progress.init(1, I18n.translate("progress.jar.indexing.snapshot"));
+		progress.step(1, I18n.translate("progress.jar.indexing.snapshot"));
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (!readHeader(in, MAGIC, this.configuration, checksum)) {
+				return null;
+			}
+
+			index.readSnapshot(new IndexSnapshotReader(in, index instanceof AbstractJarIndex abstractIndex ? abstractIndex.getEntryPool() : null));
+			return index;
+		} catch (IOException | RuntimeException e) {
+			Logger.warn(e, "Failed to load index snapshot {}, the jar will be indexed again", file);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the snapshot of a fully processed index, replacing any previous snapshot for the same jar.
+	 * Nothing is written if one of the indexers is not snapshotable.
+	 *
+	 * @param checksum the checksum of the indexed jar
+	 * @param index the index to save
+	 */
+	public void save(byte[] checksum, JarIndex index) {
+		if (!index.isSnapshotable()) {
+			return;
+		}
+
+		this.write(this.getSnapshotFile(checksum), MAGIC, this.configuration, checksum, index::writeSnapshot);
+	}
+
+	/**
+	 * Indexes a jar that has no snapshot, replaying the classes that did not change since the jar at the same path was last indexed from its journal.
+	 * The snapshot of the index is then saved, and its journal replaces the previous one.
+	 *
+	 * @param path the jar to index
+	 * @param checksum the checksum of the jar
+	 * @param index the empty index to index the jar into
+	 * @param classNames the obfuscated names of each class in the jar
+	 * @param classProvider a class provider containing all classes in the jar
+	 * @param progress a progress listener to track index completion
+	 * @param parallel whether classes should be visited on multiple threads
+	 */
+	public void indexJar(Path path, byte[] checksum, AbstractJarIndex index, Set<String> classNames, ClassProvider classProvider, ProgressListener progress, boolean parallel) throws IOException {
+		// the central directory already holds a CRC-32 of each class, so no class has to be read to tell which ones changed
+		IndexJournal journal = new IndexJournal(Utils.zipClassFingerprints(path));
+		String identity = path.toAbsolutePath().normalize().toString();
+		Path journalFile = this.getJournalFile(identity);
+		IndexJournal previous = Files.isRegularFile(journalFile) ? this.readJournal(journalFile, this.configuration, null, identity, index.getEntryPool()) : null;
+
+		index.indexJar(classNames, classProvider, progress, parallel, journal, previous);
+
+		this.save(checksum, index);
+		this.write(journalFile, JOURNAL_MAGIC, this.configuration, checksum, writer -> {
+			writer.writeString(identity);
+			journal.write(writer);
+		});
+	}
+
+	/**
+	 * Indexes libraries including classes of the running JDK, replaying the JDK classes which were already indexed
+	 * by any project using the same JDK instead of visiting them again.
+	 * The journal of the JDK classes is kept per JDK version, and accumulates the JDK classes indexed by every project.
+	 *
+	 * @param index the empty index to index the libraries into
+	 * @param classNames the names of each library class to index
+	 * @param jdkClassNames the names of the classes of the running JDK
+	 * @param classProvider a class provider containing all classes to index
+	 * @param progress a progress listener to track index completion
+	 * @param parallel whether classes should be visited on multiple threads
+	 */
+	public void indexLibraries(AbstractJarIndex index, Set<String> classNames, Set<String> jdkClassNames, ClassProvider classProvider, ProgressListener progress, boolean parallel) {
+		String version = JdkClassProvider.getJdkVersion();
+		byte[] checksum = version.getBytes(StandardCharsets.UTF_8);
+		Map<String, String> hashes = new HashMap<>();
+		for (String className : classNames) {
+			if (jdkClassNames.contains(className)) {
+				hashes.put(className, version);
+			}
+		}
+
+		IndexJournal journal = new IndexJournal(hashes);
+		Path journalFile = this.directory.resolve("jdk-" + version.replaceAll("[^A-Za-z0-9._-]", "_") + JDK_JOURNAL_EXTENSION);
+		String identity = "jdk-" + version;
+		IndexJournal previous = Files.isRegularFile(journalFile) ? this.readJournal(journalFile, NO_CONFIGURATION, checksum, identity, index.getEntryPool()) : null;
+
+		index.indexJar(classNames, classProvider, progress, parallel, journal, previous);
+
+		journal.accumulate(previous);
+		this.write(journalFile, JOURNAL_MAGIC, NO_CONFIGURATION, checksum, writer -> {
+			writer.writeString(identity);
+			journal.write(writer);
+		});
+	}
+
+	/**
+	 * @param configuration the digest of the configuration the journal must have been recorded with
+	 * @param checksum the checksum the journal must have been recorded with, or {@code null} to accept any version of the jar
+	 * @param identity identifies the jar the journal must have been recorded for
+	 * @param entryPool the pool of the index the journal is replayed into
+	 */
+	@Nullable
+	private IndexJournal readJournal(Path file, byte[] configuration, @Nullable byte[] checksum, String identity, EntryPool entryPool) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (!readHeader(in, JOURNAL_MAGIC, configuration, checksum)) {
+				return null;
+			}
+
+			IndexSnapshotReader reader = new IndexSnapshotReader(in, entryPool);
+			// journal file names are hashes, which may collide
+			if (!identity.equals(reader.readString())) {
+				return null;
+			}
+
+			return IndexJournal.read(reader);
+		} catch (IOException | RuntimeException e) {
+			Logger.warn(e, "Failed to load index journal {}, every class will be indexed again", file);
+			return null;
+		}
+	}
+
+	/**
+	 * Reads and checks the header of a snapshot or journal file.
+	 *
+	 * @param expectedConfiguration the digest of the configuration the file must have been written with
+	 * @param checksum the expected checksum of the jar, or {@code null} to accept any jar
+	 * @return whether the file can be read by this version and configuration
+	 */
+	private static boolean readHeader(DataInputStream in, int magic, byte[] expectedConfiguration, @Nullable byte[] checksum) throws IOException {
+		if (in.readInt() != magic || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(Enigma.VERSION)) {
+			return false;
+		}
+
+		byte[] configuration = new byte[in.readInt()];
+		in.readFully(configuration);
+		if (!Arrays.equals(expectedConfiguration, configuration)) {
+			return false;
+		}
+
+		byte[] fileChecksum = new byte[in.readInt()];
+		in.readFully(fileChecksum);
+		return checksum == null || Arrays.equals(checksum, fileChecksum);
+	}
+
+	/**
+	 * Atomically writes a snapshot or journal file, logging any failure.
+	 *
+	 * @return whether the file was written
+	 */
+	private boolean write(Path file, int magic, byte[] configuration, byte[] checksum, SnapshotContents contents) {
+		Path tempFile = null;
+		try {
+			Files.createDirectories(this.directory);
+			tempFile = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(magic);
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(Enigma.VERSION);
+				out.writeInt(configuration.length);
+				out.write(configuration);
+				out.writeInt(checksum.length);
+				out.write(checksum);
+				contents.write(new IndexSnapshotWriter(out));
+			}
+
+			// never leave a partially written snapshot behind for another instance to read
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException | RuntimeException e) {
+			Logger.warn(e, "Failed to save index snapshot {}", file);
+
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException ignored) {
+					// nothing else can be done
+				}
+			}
+
+			return false;
+		}
+	}
+
+	// different configurations keep separate snapshots of the same jar, rather than replacing each other's
+	private Path getSnapshotFile(byte[] checksum) {
+		return this.directory.resolve(HexFormat.of().formatHex(checksum) + "-" + HexFormat.of().formatHex(this.configuration) + ".index");
+	}
+
+	private Path getJournalFile(String identity) {
+		byte[] hash = sha1(identity.getBytes(StandardCharsets.UTF_8));
+		return this.directory.resolve(HexFormat.of().formatHex(hash) + "-" + HexFormat.of().formatHex(this.configuration) + ".journal");
+	}
+
+	private static byte[] sha1(byte[] bytes) {
+		try {
+			return MessageDigest.getInstance("SHA-1").digest(bytes);
+		} catch (NoSuchAlgorithmException e) {
+			// Algorithm guaranteed to be supported
+			throw new RuntimeException(e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface SnapshotContents {
+		void write(IndexSnapshotWriter writer) throws IOException;
+	}
+}
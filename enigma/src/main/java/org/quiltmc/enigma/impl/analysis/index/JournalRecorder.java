@@ -0,0 +1,87 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
+import org.quiltmc.enigma.api.translation.representation.Lambda;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+/**
+ * Forwards everything found while visiting classes to an indexer, while recording it into the record of the current class of a journal.
+ */
+final class JournalRecorder implements JarIndexer {
+	private final JarIndexer delegate;
+	private final IndexJournal journal;
+	private IndexJournal.ClassRecord record;
+
+	JournalRecorder(JarIndexer delegate, IndexJournal journal) {
+		this.delegate = delegate;
+		this.journal = journal;
+	}
+
+	IndexJournal.ClassRecord begin(String className) {
+		this.record = this.journal.getRecord(className);
+		return this.record;
+	}
+
+	void recordLookup(ClassEntry entry) {
+		this.record.lookups.add(entry);
+	}
+
+	@Override
+	public void indexClass(ClassDefEntry classEntry) {
+		this.record.entryEvents.add(new IndexJournal.ClassEvent(classEntry));
+		this.delegate.indexClass(classEntry);
+	}
+
+	@Override
+	public void indexField(FieldDefEntry fieldEntry) {
+		this.record.entryEvents.add(new IndexJournal.FieldEvent(fieldEntry));
+		this.delegate.indexField(fieldEntry);
+	}
+
+	@Override
+	public void indexMethod(MethodDefEntry methodEntry) {
+		this.record.entryEvents.add(new IndexJournal.MethodEvent(methodEntry));
+		this.delegate.indexMethod(methodEntry);
+	}
+
+	@Override
+	public void indexEnclosingMethod(ClassDefEntry classEntry, EnclosingMethodData enclosingMethodData) {
+		this.record.entryEvents.add(new IndexJournal.EnclosingMethodEvent(classEntry, enclosingMethodData));
+		this.delegate.indexEnclosingMethod(classEntry, enclosingMethodData);
+	}
+
+	@Override
+	public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
+		this.record.referenceEvents.add(new IndexJournal.ClassReferenceEvent(callerEntry, referencedEntry, targetType));
+		this.delegate.indexClassReference(callerEntry, referencedEntry, targetType);
+	}
+
+	@Override
+	public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
+		this.record.referenceEvents.add(new IndexJournal.MethodReferenceEvent(callerEntry, referencedEntry, targetType));
+		this.delegate.indexMethodReference(callerEntry, referencedEntry, targetType);
+	}
+
+	@Override
+	public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
+		this.record.referenceEvents.add(new IndexJournal.FieldReferenceEvent(callerEntry, referencedEntry, targetType));
+		this.delegate.indexFieldReference(callerEntry, referencedEntry, targetType);
+	}
+
+	@Override
+	public void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
+		this.record.referenceEvents.add(new IndexJournal.LambdaEvent(callerEntry, lambda, targetType));
+		this.delegate.indexLambda(callerEntry, lambda, targetType);
+	}
+
+	@Override
+	public String getTranslationKey() {
+		return this.delegate.getTranslationKey();
+	}
+}
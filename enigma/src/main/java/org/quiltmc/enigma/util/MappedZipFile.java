@@ -0,0 +1,306 @@
+package org.quiltmc.enigma.util;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A read-only zip file which is memory-mapped as a whole.
+ * The central directory is parsed once when opening the file, and entries are read straight from the mapped buffer.
+ *
+ * <p>
+ * Reads never change the state of the shared buffer, so a zip file can be read from multiple threads at once.
+ * Stored entries are returned as slices of the mapped buffer without copying them, deflated entries are inflated into a new buffer.
+ * Encrypted entries are skipped, and files larger than 2 GiB are not supported.
+ */
+public final class MappedZipFile implements AutoCloseable {
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+	private static final int ZIP64_EXTRA = 0x0001;
+
+	private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+	private static final int LOCAL_HEADER_SIZE = 30;
+	private static final int CENTRAL_HEADER_SIZE = 46;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+
+	private final Path path;
+	private final Map<String, Entry> entries;
+	@Nullable
+	private volatile ByteBuffer buffer;
+
+	private MappedZipFile(Path path, ByteBuffer buffer, Map<String, Entry> entries) {
+		this.path = path;
+		this.buffer = buffer;
+		this.entries = entries;
+	}
+
+	public static MappedZipFile open(Path path) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Zip file " + path + " is too large to be mapped");
+			}
+
+			// the mapping stays valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		return new MappedZipFile(path, buffer, readCentralDirectory(path, buffer));
+	}
+
+	/**
+	 * {@return the names of the file entries of this zip file, excluding directories and encrypted entries}
+	 */
+	public Set<String> getNames() {
+		return Collections.unmodifiableSet(this.entries.keySet());
+	}
+
+	public boolean contains(String name) {
+		return this.entries.containsKey(name);
+	}
+
+	/**
+	 * Gets the CRC-32 of an entry, as recorded in the central directory.
+	 *
+	 * @param name the name of the entry
+	 * @return the CRC-32 of the uncompressed entry, or {@code -1} if there is no such entry
+	 */
+	public long getCrc(String name) {
+		Entry entry = this.entries.get(name);
+		return entry != null ? entry.crc() : -1;
+	}
+
+	/**
+	 * Gets the uncompressed size of an entry, as recorded in the central directory.
+	 *
+	 * @param name the name of the entry
+	 * @return the size of the uncompressed entry, or {@code -1} if there is no such entry
+	 */
+	public int getSize(String name) {
+		Entry entry = this.entries.get(name);
+		return entry != null ? entry.size() : -1;
+	}
+
+	/**
+	 * Reads an entry. The returned buffer must not be kept after this zip file is closed,
+	 * since it may be a view of the mapped file.
+	 *
+	 * @param name the name of the entry
+	 * @return a read-only buffer holding the uncompressed entry, or {@code null} if there is no such entry
+	 */
+	@Nullable
+	public ByteBuffer read(String name) throws IOException {
+		Entry entry = this.entries.get(name);
+		if (entry == null) {
+			return null;
+		}
+
+		ByteBuffer data = this.getData(name, entry);
+		return entry.method() == STORED ? data.asReadOnlyBuffer() : ByteBuffer.wrap(this.inflate(name, data, entry.size())).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Reads an entry into a new array.
+	 *
+	 * @param name the name of the entry
+	 * @return the uncompressed entry, or {@code null} if there is no such entry
+	 */
+	@Nullable
+	public byte[] readBytes(String name) throws IOException {
+		Entry entry = this.entries.get(name);
+		if (entry == null) {
+			return null;
+		}
+
+		ByteBuffer data = this.getData(name, entry);
+		if (entry.method() != STORED) {
+			return this.inflate(name, data, entry.size());
+		}
+
+		byte[] bytes = new byte[data.remaining()];
+		data.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * {@return the still compressed data of an entry, as a slice of the mapped file}
+	 */
+	private ByteBuffer getData(String name, Entry entry) throws ZipException {
+		ByteBuffer buffer = this.buffer;
+		if (buffer == null) {
+			throw new IllegalStateException("Zip file " + this.path + " is closed");
+		}
+
+		if (entry.method() != STORED && entry.method() != DEFLATED) {
+			throw new ZipException("Unsupported compression method " + entry.method() + " for " + name + " in " + this.path);
+		}
+
+		int offset = entry.localHeaderOffset();
+		if (offset > buffer.limit() - LOCAL_HEADER_SIZE || buffer.getInt(offset) != LOCAL_HEADER) {
+			throw new ZipException("Invalid local header for " + name + " in " + this.path);
+		}
+
+		int dataOffset = offset + LOCAL_HEADER_SIZE + Short.toUnsignedInt(buffer.getShort(offset + 26)) + Short.toUnsignedInt(buffer.getShort(offset + 28));
+		if (dataOffset > buffer.limit() - entry.compressedSize()) {
+			throw new ZipException("Truncated entry " + name + " in " + this.path);
+		}
+
+		return buffer.slice(dataOffset, entry.compressedSize());
+	}
+
+	private byte[] inflate(String name, ByteBuffer data, int size) throws ZipException {
+		byte[] bytes = new byte[size];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data);
+			int length = 0;
+			while (length < size && !inflater.finished()) {
+				int read = inflater.inflate(bytes, length, size - length);
+				if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+
+				length += read;
+			}
+
+			if (length != size) {
+				throw new ZipException("Entry " + name + " in " + this.path + " is truncated or has a wrong size");
+			}
+		} catch (DataFormatException e) {
+			throw new ZipException("Invalid deflated data for " + name + " in " + this.path + ": " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+
+		return bytes;
+	}
+
+	private static Map<String, Entry> readCentralDirectory(Path path, ByteBuffer buffer) throws IOException {
+		int end = findEndOfCentralDirectory(path, buffer);
+		long count = Short.toUnsignedInt(buffer.getShort(end + 10));
+		long offset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+
+		int locator = end - 20;
+		if (locator >= 0 && buffer.getInt(locator) == ZIP64_LOCATOR) {
+			long zip64End = buffer.getLong(locator + 8);
+			if (zip64End < 0 || zip64End > buffer.limit() - 56 || buffer.getInt((int) zip64End) != ZIP64_END_OF_CENTRAL_DIRECTORY) {
+				throw new ZipException("Invalid zip64 end of central directory in " + path);
+			}
+
+			count = buffer.getLong((int) zip64End + 32);
+			offset = buffer.getLong((int) zip64End + 48);
+		}
+
+		if (count < 0 || count > buffer.limit() / CENTRAL_HEADER_SIZE || offset < 0 || offset > buffer.limit()) {
+			throw new ZipException("Invalid central directory in " + path);
+		}
+
+		Map<String, Entry> entries = new HashMap<>((int) count * 4 / 3 + 1);
+		int position = (int) offset;
+		for (long i = 0; i < count; i++) {
+			if (position > buffer.limit() - CENTRAL_HEADER_SIZE || buffer.getInt(position) != CENTRAL_HEADER) {
+				throw new ZipException("Invalid central directory entry in " + path);
+			}
+
+			int flags = Short.toUnsignedInt(buffer.getShort(position + 8));
+			int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+			long crc = Integer.toUnsignedLong(buffer.getInt(position + 16));
+			long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+			long size = Integer.toUnsignedLong(buffer.getInt(position + 24));
+			int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+			int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+			int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+			long localHeaderOffset = Integer.toUnsignedLong(buffer.getInt(position + 42));
+
+			int nameOffset = position + CENTRAL_HEADER_SIZE;
+			int next = nameOffset + nameLength + extraLength + commentLength;
+			if (next > buffer.limit() || next < nameOffset) {
+				throw new ZipException("Truncated central directory in " + path);
+			}
+
+			byte[] nameBytes = new byte[nameLength];
+			buffer.get(nameOffset, nameBytes);
+			String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+			// zip64 sizes and offsets are only present for the fields that overflowed, in this order
+			int extra = nameOffset + nameLength;
+			int extraEnd = extra + extraLength;
+			while (extra + 4 <= extraEnd) {
+				int id = Short.toUnsignedInt(buffer.getShort(extra));
+				int length = Short.toUnsignedInt(buffer.getShort(extra + 2));
+				if (id == ZIP64_EXTRA) {
+					int field = extra + 4;
+					if (size == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+						size = buffer.getLong(field);
+						field += 8;
+					}
+
+					if (compressedSize == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+						compressedSize = buffer.getLong(field);
+						field += 8;
+					}
+
+					if (localHeaderOffset == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+						localHeaderOffset = buffer.getLong(field);
+					}
+				}
+
+				extra += 4 + length;
+			}
+
+			if ((flags & 1) == 0 && !name.endsWith("/")) {
+				if (size > Integer.MAX_VALUE || compressedSize > buffer.limit() || localHeaderOffset < 0 || localHeaderOffset > buffer.limit()) {
+					throw new ZipException("Invalid sizes for " + name + " in " + path);
+				}
+
+				entries.putIfAbsent(name, new Entry((int) localHeaderOffset, (int) compressedSize, (int) size, method, crc));
+			}
+
+			position = next;
+		}
+
+		return entries;
+	}
+
+	private static int findEndOfCentralDirectory(Path path, ByteBuffer buffer) throws ZipException {
+		int last = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+		int first = Math.max(0, last - MAX_COMMENT_SIZE);
+		for (int position = last; position >= first; position--) {
+			if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+				return position;
+			}
+		}
+
+		throw new ZipException("No end of central directory found in " + path);
+	}
+
+	/**
+	 * Releases the mapped file. It is unmapped once no returned buffer references it anymore.
+	 */
+	@Override
+	public void close() {
+		this.buffer = null;
+	}
+
+	private record Entry(int localHeaderOffset, int compressedSize, int size, int method, long crc) {
+	}
+}
@@ -4,7 +4,7 @@ import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.VoidEntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.CompactEntryTree;
 import org.quiltmc.enigma.api.translation.MappingTranslator;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
@@ -18,7 +18,7 @@ import java.util.Set;
 public class MappingOperations {
 	public static EntryTree<EntryMapping> invert(EntryTree<EntryMapping> mappings) {
 		Translator translator = new MappingTranslator(mappings, VoidEntryResolver.INSTANCE);
-		EntryTree<EntryMapping> result = new HashEntryTree<>();
+		EntryTree<EntryMapping> result = new CompactEntryTree();
 
 		for (EntryTreeNode<EntryMapping> node : mappings) {
 			Entry<?> leftEntry = node.getEntry();
@@ -39,7 +39,7 @@ public class MappingOperations {
 
 	public static EntryTree<EntryMapping> compose(EntryTree<EntryMapping> left, EntryTree<EntryMapping> right, boolean keepLeftOnly, boolean keepRightOnly) {
 		Translator leftTranslator = new MappingTranslator(left, VoidEntryResolver.INSTANCE);
-		EntryTree<EntryMapping> result = new HashEntryTree<>();
+		EntryTree<EntryMapping> result = new CompactEntryTree();
 		Set<Entry<?>> addedMappings = new HashSet<>();
 
 		for (EntryTreeNode<EntryMapping> node : left) {
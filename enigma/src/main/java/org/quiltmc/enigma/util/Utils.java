@@ -5,15 +5,19 @@ import com.google.common.io.CharStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Supplier;
@@ -83,6 +87,60 @@ public class Utils {
 		return digest.digest();
 	}
 
+	/**
+	 * Fingerprints the classes of a zip file from the CRC-32s and sizes recorded in its central directory,
+	 * without reading or inflating any class. Much faster than {@link #zipSha1}, but not interchangeable with it:
+	 * use it to recognize a jar that was seen before, and {@link #zipSha1} where the exact hash of its contents is required.
+	 *
+	 * @param path the zip file
+	 * @return a 20 byte fingerprint of the names, CRC-32s and sizes of the classes
+	 */
+	public static byte[] zipFingerprint(Path path) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			// Algorithm guaranteed to be supported
+			throw new RuntimeException(e);
+		}
+
+		try (MappedZipFile zip = MappedZipFile.open(path)) {
+			List<String> names = new ArrayList<>(zip.getNames());
+			// like zipSha1, only classes count, in an order that does not depend on the implementation that wrote the zip
+			names.removeIf(name -> !name.toLowerCase(Locale.ROOT).endsWith(".class"));
+			names.sort(Comparator.naturalOrder());
+
+			ByteBuffer buffer = ByteBuffer.allocate(12);
+			for (String name : names) {
+				digest.update(name.getBytes(StandardCharsets.UTF_8));
+				buffer.clear();
+				buffer.putLong(zip.getCrc(name)).putInt(zip.getSize(name));
+				digest.update(buffer.array());
+			}
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * Fingerprints every class of a zip file separately, like {@link #zipFingerprint(Path)} without reading any class.
+	 *
+	 * @param path the zip file
+	 * @return the hex CRC-32 and size of each class, by internal class name
+	 */
+	public static Map<String, String> zipClassFingerprints(Path path) throws IOException {
+		Map<String, String> fingerprints = new HashMap<>();
+		try (MappedZipFile zip = MappedZipFile.open(path)) {
+			for (String name : zip.getNames()) {
+				if (name.endsWith(".class")) {
+					fingerprints.put(name.substring(0, name.length() - ".class".length()), Long.toHexString(zip.getCrc(name)) + ":" + Integer.toHexString(zip.getSize(name)));
+				}
+			}
+		}
+
+		return fingerprints;
+	}
+
 	public static void withLock(Lock l, Runnable op) {
 		try {
 			l.lock();
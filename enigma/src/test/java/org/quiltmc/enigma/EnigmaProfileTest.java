@@ -75,6 +75,27 @@ public class EnigmaProfileTest {
 		Assertions.assertTrue(fooService.getArgument("example").map(Either::isLeft).orElse(false));
 	}
 
+	@Test
+	public void testConcurrentMappings() {
+		EnigmaProfile defaults = EnigmaProfile.parse(new StringReader("""
+				{
+					"services": {}
+				}"""));
+		Assertions.assertTrue(defaults.hasConcurrentMappings());
+		Assertions.assertFalse(defaults.getIndexingParameters().parallel());
+
+		EnigmaProfile profile = EnigmaProfile.parse(new StringReader("""
+				{
+					"services": {},
+					"concurrent_mappings": false,
+					"indexing_parameters": {
+						"parallel": true
+					}
+				}"""));
+		Assertions.assertFalse(profile.hasConcurrentMappings());
+		Assertions.assertTrue(profile.getIndexingParameters().parallel());
+	}
+
 	@Test
 	public void testMalformedJson() {
 		Reader r = new StringReader("""
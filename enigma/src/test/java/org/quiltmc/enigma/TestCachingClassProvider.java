@@ -0,0 +1,62 @@
+package org.quiltmc.enigma;
+
+import com.google.common.cache.CacheStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+
+import java.nio.file.Path;
+import java.util.Collection;
+
+public class TestCachingClassProvider {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final JarClassProvider jcp;
+
+	public TestCachingClassProvider() throws Exception {
+		this.jcp = new JarClassProvider(JAR);
+	}
+
+	@Test
+	public void recordsStats() {
+		CachingClassProvider provider = new CachingClassProvider(this.jcp);
+		String name = this.jcp.getClassNames().iterator().next();
+		Assertions.assertNotNull(provider.get(name));
+		Assertions.assertNotNull(provider.get(name));
+		Assertions.assertNull(provider.get("missing/Class"));
+
+		CacheStats stats = provider.getStats();
+		Assertions.assertEquals(1, stats.hitCount());
+		Assertions.assertEquals(2, stats.missCount());
+		Assertions.assertEquals(0, stats.evictionCount());
+		// missing classes are cached too
+		Assertions.assertEquals(2, provider.size());
+	}
+
+	@Test
+	public void keepsEveryClassWithinBound() {
+		assertEvicts(CachingClassProvider.DEFAULT_MAXIMUM_SIZE, false, false);
+		assertEvicts(CachingClassProvider.DEFAULT_MAXIMUM_SIZE, true, false);
+	}
+
+	@Test
+	public void evictsClassesOverBound() {
+		// far less than the whole jar weighs, both as nodes and as bytecode
+		assertEvicts(16 * 1024, false, true);
+		assertEvicts(4 * 1024, true, true);
+	}
+
+	private void assertEvicts(long maximumSize, boolean cacheBytecode, boolean evicts) {
+		CachingClassProvider provider = new CachingClassProvider(this.jcp, maximumSize, cacheBytecode);
+		Collection<String> classNames = this.jcp.getClassNames();
+		for (String name : classNames) {
+			Assertions.assertNotNull(provider.get(name));
+		}
+
+		CacheStats stats = provider.getStats();
+		Assertions.assertEquals(classNames.size(), stats.missCount());
+		Assertions.assertEquals(evicts, stats.evictionCount() > 0);
+		Assertions.assertEquals(evicts, provider.size() < classNames.size());
+	}
+}
@@ -0,0 +1,114 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.translation.MappingTranslator;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+import org.quiltmc.enigma.impl.analysis.index.EntryPool;
+import org.quiltmc.enigma.impl.analysis.index.JarIndexSnapshotCache;
+import org.quiltmc.enigma.util.Utils;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestEntryPool {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final AbstractJarIndex index;
+
+	public TestEntryPool() throws Exception {
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		this.index = (AbstractJarIndex) MainJarIndex.empty();
+		this.index.indexJar(jcp.getClassNames(), new CachingClassProvider(jcp), ProgressListener.createEmpty());
+	}
+
+	@Test
+	public void referencesArePooled() {
+		assertPooled(this.index, getReferencedMethods(this.index));
+	}
+
+	@Test
+	public void loadedReferencesArePooled() throws Exception {
+		JarIndexSnapshotCache cache = new JarIndexSnapshotCache(Files.createTempDirectory("enigmaIndexSnapshot-"));
+		byte[] checksum = Utils.zipSha1(JAR);
+		cache.save(checksum, this.index);
+		AbstractJarIndex loaded = (AbstractJarIndex) cache.load(checksum, MainJarIndex::empty, ProgressListener.createEmpty());
+
+		Assertions.assertNotNull(loaded);
+		assertPooled(loaded, getReferencedMethods(loaded));
+	}
+
+	@Test
+	public void unmappedTranslationKeepsPooledEntries() {
+		MappingTranslator translator = new MappingTranslator(new HashEntryTree<>(), this.index.getEntryResolver());
+		for (MethodEntry method : getReferencedMethods(this.index)) {
+			Assertions.assertSame(method, translator.translate(method));
+		}
+	}
+
+	@Test
+	public void unpooledPartsAreNotKept() {
+		EntryPool pool = new EntryPool();
+		// the owner and descriptor are not pooled yet, so the pool must store a copy of the entry rather than the entry itself
+		MethodEntry method = new MethodEntry(new ClassEntry("a/A"), "a", new MethodDescriptor("()V"));
+		FieldEntry field = new FieldEntry(new ClassEntry("a/A"), "a", new TypeDescriptor("I"));
+		MethodEntry pooledMethod = pool.intern(method);
+		FieldEntry pooledField = pool.intern(field);
+
+		Assertions.assertNotSame(method, pooledMethod);
+		Assertions.assertNotSame(field, pooledField);
+		Assertions.assertSame(pooledMethod, pool.intern(new MethodEntry(new ClassEntry("a/A"), "a", new MethodDescriptor("()V"))));
+		Assertions.assertSame(pooledField, pool.intern(new FieldEntry(new ClassEntry("a/A"), "a", new TypeDescriptor("I"))));
+		Assertions.assertSame(pool.getClassEntry("a/A"), pooledMethod.getParent());
+
+		List<WeakReference<Entry<?>>> references = List.of(new WeakReference<>(method), new WeakReference<>(field));
+		method = null;
+		field = null;
+		for (int i = 0; i < 10 && references.stream().anyMatch(reference -> reference.get() != null); i++) {
+			System.gc();
+		}
+
+		for (WeakReference<Entry<?>> reference : references) {
+			Assertions.assertNull(reference.get());
+		}
+	}
+
+	private static List<MethodEntry> getReferencedMethods(AbstractJarIndex index) {
+		ReferenceIndex referenceIndex = index.getIndex(ReferenceIndex.class);
+		List<MethodEntry> referenced = new ArrayList<>();
+		for (MethodEntry method : index.getIndex(EntryIndex.class).getMethods()) {
+			for (MethodEntry reference : referenceIndex.getMethodsReferencedBy(method)) {
+				if (reference.getClass() == MethodEntry.class) {
+					referenced.add(reference);
+				}
+			}
+		}
+
+		Assertions.assertFalse(referenced.isEmpty());
+		return referenced;
+	}
+
+	private static void assertPooled(AbstractJarIndex index, List<MethodEntry> entries) {
+		EntryPool pool = index.getEntryPool();
+		for (MethodEntry entry : entries) {
+			Assertions.assertSame(entry, pool.intern(entry));
+			Assertions.assertSame(entry.getParent(), pool.getClassEntry(entry.getParent().getFullName()));
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.tree.MethodImplementationsTreeNode;
+import org.quiltmc.enigma.api.analysis.tree.MethodInheritanceTreeNode;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.translation.VoidTranslator;
+import org.quiltmc.enigma.api.translation.representation.AccessFlags;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.IndexTreeBuilder;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks the equivalent methods found by the resolver against those found by walking the inheritance and implementation trees.
+ */
+public class TestEquivalentMethods {
+	@Test
+	public void bridges() throws Exception {
+		assertMatchesTrees(TestUtil.obfJar("bridge"));
+	}
+
+	@Test
+	public void interfaceUnions() throws Exception {
+		assertMatchesTrees(TestUtil.obfJar("interface_union"));
+	}
+
+	@Test
+	public void inheritanceTree() throws Exception {
+		assertMatchesTrees(TestUtil.obfJar("inheritance_tree"));
+	}
+
+	private static void assertMatchesTrees(Path jar) throws Exception {
+		JarClassProvider jcp = new JarClassProvider(jar);
+		JarIndex index = MainJarIndex.empty();
+		index.indexJar(jcp.getClassNames(), new CachingClassProvider(jcp), ProgressListener.createEmpty());
+		TreeWalker walker = new TreeWalker(index);
+
+		EntryIndex entryIndex = index.getIndex(EntryIndex.class);
+		for (MethodEntry method : entryIndex.getMethods()) {
+			for (MethodEntry entry : List.of(method, new MethodEntry(method.getParent(), method.getName(), method.getDesc()), entryIndex.getDefinition(method))) {
+				Set<MethodEntry> expected = walker.resolveEquivalentMethods(entry);
+				Set<MethodEntry> actual = index.getEntryResolver().resolveEquivalentMethods(entry);
+				Assertions.assertEquals(expected, actual, entry.toString());
+				// equal entries may be definitions or references
+				Assertions.assertEquals(getTypedEntries(expected), getTypedEntries(actual), entry.toString());
+				Assertions.assertSame(actual, index.getEntryResolver().resolveEquivalentMethods(entry));
+			}
+		}
+	}
+
+	private static Set<String> getTypedEntries(Set<MethodEntry> entries) {
+		Set<String> typed = new HashSet<>();
+		for (MethodEntry entry : entries) {
+			typed.add(entry.getClass().getSimpleName() + " " + entry);
+		}
+
+		return typed;
+	}
+
+	/**
+	 * Finds equivalent methods by walking the trees shown in the GUI.
+	 */
+	private static class TreeWalker {
+		private final EntryIndex entryIndex;
+		private final BridgeMethodIndex bridgeMethodIndex;
+		private final IndexTreeBuilder treeBuilder;
+
+		TreeWalker(JarIndex index) {
+			this.entryIndex = index.getIndex(EntryIndex.class);
+			this.bridgeMethodIndex = index.getIndex(BridgeMethodIndex.class);
+			this.treeBuilder = new IndexTreeBuilder(index);
+		}
+
+		Set<MethodEntry> resolveEquivalentMethods(MethodEntry methodEntry) {
+			Set<MethodEntry> set = new HashSet<>();
+			this.resolveEquivalentMethods(set, methodEntry);
+			return set;
+		}
+
+		private void resolveEquivalentMethods(Set<MethodEntry> methodEntries, MethodEntry methodEntry) {
+			AccessFlags access = this.entryIndex.getMethodAccess(methodEntry);
+			if (!canInherit(methodEntry, access)) {
+				methodEntries.add(methodEntry);
+				return;
+			}
+
+			this.resolveEquivalentMethods(methodEntries, this.treeBuilder.buildMethodInheritance(VoidTranslator.INSTANCE, methodEntry));
+		}
+
+		private void resolveEquivalentMethods(Set<MethodEntry> methodEntries, MethodInheritanceTreeNode node) {
+			MethodEntry methodEntry = node.getMethodEntry();
+			if (methodEntries.contains(methodEntry)) {
+				return;
+			}
+
+			AccessFlags flags = this.entryIndex.getMethodAccess(methodEntry);
+			if (flags != null && canInherit(methodEntry, flags)) {
+				methodEntries.add(methodEntry);
+			}
+
+			this.resolveBridgedMethods(methodEntries, methodEntry);
+
+			for (MethodImplementationsTreeNode implementationsNode : this.treeBuilder.buildMethodImplementations(VoidTranslator.INSTANCE, methodEntry)) {
+				this.resolveEquivalentMethods(methodEntries, implementationsNode);
+			}
+
+			for (int i = 0; i < node.getChildCount(); i++) {
+				this.resolveEquivalentMethods(methodEntries, (MethodInheritanceTreeNode) node.getChildAt(i));
+			}
+		}
+
+		private void resolveEquivalentMethods(Set<MethodEntry> methodEntries, MethodImplementationsTreeNode node) {
+			MethodEntry methodEntry = node.getMethodEntry();
+			AccessFlags flags = this.entryIndex.getMethodAccess(methodEntry);
+			if (flags != null && !flags.isPrivate() && !flags.isStatic()) {
+				methodEntries.add(methodEntry);
+			}
+
+			this.resolveBridgedMethods(methodEntries, methodEntry);
+
+			for (int i = 0; i < node.getChildCount(); i++) {
+				this.resolveEquivalentMethods(methodEntries, (MethodImplementationsTreeNode) node.getChildAt(i));
+			}
+		}
+
+		private void resolveBridgedMethods(Set<MethodEntry> methodEntries, MethodEntry methodEntry) {
+			MethodEntry bridgedMethod = this.bridgeMethodIndex.getBridgeFromSpecialized(methodEntry);
+			while (bridgedMethod != null) {
+				this.resolveEquivalentMethods(methodEntries, bridgedMethod);
+				bridgedMethod = this.bridgeMethodIndex.getBridgeFromSpecialized(bridgedMethod);
+			}
+		}
+
+		private static boolean canInherit(MethodEntry entry, AccessFlags access) {
+			return !entry.isConstructor() && !access.isPrivate() && !access.isStatic() && !access.isFinal();
+		}
+	}
+}
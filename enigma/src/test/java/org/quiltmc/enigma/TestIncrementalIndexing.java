@@ -0,0 +1,156 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+import org.quiltmc.enigma.impl.analysis.index.IndexJournal;
+import org.quiltmc.enigma.impl.analysis.index.JarIndexSnapshotCache;
+import org.quiltmc.enigma.util.Utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TestIncrementalIndexing {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final ClassProvider classProvider;
+	private final Set<String> classNames;
+	private final Map<String, String> hashes;
+
+	public TestIncrementalIndexing() throws Exception {
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		this.classProvider = new CachingClassProvider(jcp);
+		this.classNames = new HashSet<>(jcp.getClassNames());
+		this.hashes = Utils.zipClassFingerprints(JAR);
+	}
+
+	@Test
+	public void unchanged() {
+		IndexJournal previous = this.record(this.classNames, this.hashes);
+		this.assertIncremental(this.classNames, previous);
+	}
+
+	@Test
+	public void changed() {
+		Map<String, String> previousHashes = new HashMap<>(this.hashes);
+		List<String> sortedNames = this.classNames.stream().sorted().toList();
+		for (int i = 0; i < sortedNames.size(); i += 2) {
+			previousHashes.put(sortedNames.get(i), "changed");
+		}
+
+		IndexJournal previous = this.record(this.classNames, previousHashes);
+		this.assertIncremental(this.classNames, previous);
+	}
+
+	@Test
+	public void addedAndRemoved() {
+		List<String> sortedNames = this.classNames.stream().sorted().toList();
+		Set<String> previousNames = new HashSet<>(sortedNames.subList(0, sortedNames.size() / 2));
+		Set<String> currentNames = new HashSet<>(sortedNames.subList(sortedNames.size() / 4, sortedNames.size()));
+
+		IndexJournal previous = this.record(previousNames, this.hashes);
+		this.assertIncremental(currentNames, previous);
+	}
+
+	@Test
+	public void journalIsKeyedByJar() throws Exception {
+		Path directory = Files.createTempDirectory("enigmaIndexJournal-");
+		Path copy = directory.resolve("copy.jar");
+		Files.copy(JAR, copy);
+		JarIndexSnapshotCache cache = new JarIndexSnapshotCache(directory.resolve("cache"));
+		byte[] checksum = Utils.zipFingerprint(JAR);
+
+		Assertions.assertEquals(this.classNames, this.indexVisitingClasses(cache, JAR, checksum));
+		// another jar does not replay the journal of the first one, even with the same classes
+		Assertions.assertEquals(this.classNames, this.indexVisitingClasses(cache, copy, checksum));
+		Assertions.assertEquals(Set.of(), this.indexVisitingClasses(cache, JAR, checksum));
+	}
+
+	@Test
+	public void resolutionsAreRecorded() {
+		IndexJournal previous = this.record(this.classNames, this.hashes);
+		IndexJournal current = new IndexJournal(this.hashes);
+		((AbstractJarIndex) MainJarIndex.empty()).indexJar(this.classNames, this.classProvider, ProgressListener.createEmpty(), false, current, previous);
+
+		Assertions.assertFalse(previous.getResolutions().isEmpty());
+		Assertions.assertEquals(new HashSet<>(previous.getResolutions()), new HashSet<>(current.getResolutions()));
+	}
+
+	/**
+	 * {@return the classes which were visited rather than replayed while indexing the jar}
+	 */
+	private Set<String> indexVisitingClasses(JarIndexSnapshotCache cache, Path jar, byte[] checksum) throws Exception {
+		Set<String> visited = ConcurrentHashMap.newKeySet();
+		ClassProvider provider = new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				visited.add(name);
+				return TestIncrementalIndexing.this.classProvider.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return TestIncrementalIndexing.this.classNames;
+			}
+		};
+
+		cache.indexJar(jar, checksum, (AbstractJarIndex) MainJarIndex.empty(), this.classNames, provider, ProgressListener.createEmpty(), false);
+		return visited;
+	}
+
+	private IndexJournal record(Set<String> classNames, Map<String, String> hashes) {
+		IndexJournal journal = new IndexJournal(hashes);
+		((AbstractJarIndex) MainJarIndex.empty()).indexJar(classNames, this.classProvider, ProgressListener.createEmpty(), false, journal, null);
+		return journal;
+	}
+
+	private void assertIncremental(Set<String> classNames, IndexJournal previous) {
+		AbstractJarIndex expected = (AbstractJarIndex) MainJarIndex.empty();
+		expected.indexJar(classNames, this.classProvider, ProgressListener.createEmpty(), false);
+
+		AbstractJarIndex actual = (AbstractJarIndex) MainJarIndex.empty();
+		actual.indexJar(classNames, this.classProvider, ProgressListener.createEmpty(), false, new IndexJournal(this.hashes), previous);
+
+		EntryIndex expectedEntries = expected.getIndex(EntryIndex.class);
+		EntryIndex actualEntries = actual.getIndex(EntryIndex.class);
+		Assertions.assertEquals(new HashSet<>(expectedEntries.getClasses()), new HashSet<>(actualEntries.getClasses()));
+		Assertions.assertEquals(new HashSet<>(expectedEntries.getMethods()), new HashSet<>(actualEntries.getMethods()));
+		Assertions.assertEquals(new HashSet<>(expectedEntries.getFields()), new HashSet<>(actualEntries.getFields()));
+		Assertions.assertEquals(expected.getChildrenByClass(), actual.getChildrenByClass());
+
+		InheritanceIndex expectedInheritance = expected.getIndex(InheritanceIndex.class);
+		InheritanceIndex actualInheritance = actual.getIndex(InheritanceIndex.class);
+		ReferenceIndex expectedReferences = expected.getIndex(ReferenceIndex.class);
+		ReferenceIndex actualReferences = actual.getIndex(ReferenceIndex.class);
+		for (ClassEntry entry : expectedEntries.getClasses()) {
+			Assertions.assertEquals(new HashSet<>(expectedInheritance.getChildren(entry)), new HashSet<>(actualInheritance.getChildren(entry)));
+			Assertions.assertEquals(new HashSet<>(expectedReferences.getReferencesToClass(entry)), new HashSet<>(actualReferences.getReferencesToClass(entry)));
+		}
+
+		for (MethodEntry entry : expectedEntries.getMethods()) {
+			Assertions.assertEquals(new HashSet<>(expectedReferences.getMethodsReferencedBy(entry)), new HashSet<>(actualReferences.getMethodsReferencedBy(entry)));
+			Assertions.assertEquals(new HashSet<>(expectedReferences.getReferencesToMethod(entry)), new HashSet<>(actualReferences.getReferencesToMethod(entry)));
+		}
+
+		Assertions.assertEquals(expected.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized(), actual.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized());
+	}
+}
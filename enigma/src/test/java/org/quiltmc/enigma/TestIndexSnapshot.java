@@ -0,0 +1,139 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.LambdaIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.PackageVisibilityIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.JarIndexSnapshotCache;
+import org.quiltmc.enigma.util.Utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+
+public class TestIndexSnapshot {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final JarIndex indexed;
+	private final JarIndex loaded;
+
+	public TestIndexSnapshot() throws Exception {
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		this.indexed = MainJarIndex.empty();
+		this.indexed.indexJar(jcp.getClassNames(), new CachingClassProvider(jcp), ProgressListener.createEmpty());
+
+		JarIndexSnapshotCache cache = new JarIndexSnapshotCache(Files.createTempDirectory("enigmaIndexSnapshot-"));
+		byte[] checksum = Utils.zipSha1(JAR);
+		cache.save(checksum, this.indexed);
+		this.loaded = cache.load(checksum, MainJarIndex::empty, ProgressListener.createEmpty());
+	}
+
+	@Test
+	public void loaded() throws Exception {
+		Assertions.assertNotNull(this.loaded);
+
+		for (String className : new JarClassProvider(JAR).getClassNames()) {
+			Assertions.assertTrue(this.loaded.isIndexed(className));
+		}
+	}
+
+	@Test
+	public void entries() {
+		EntryIndex expected = this.indexed.getIndex(EntryIndex.class);
+		EntryIndex actual = this.loaded.getIndex(EntryIndex.class);
+
+		Assertions.assertEquals(new HashSet<>(expected.getClasses()), new HashSet<>(actual.getClasses()));
+		Assertions.assertEquals(new HashSet<>(expected.getMethods()), new HashSet<>(actual.getMethods()));
+		Assertions.assertEquals(new HashSet<>(expected.getFields()), new HashSet<>(actual.getFields()));
+
+		for (MethodEntry entry : expected.getMethods()) {
+			Assertions.assertEquals(expected.getMethodAccess(entry), actual.getMethodAccess(entry));
+		}
+
+		Assertions.assertEquals(this.indexed.getChildrenByClass(), this.loaded.getChildrenByClass());
+	}
+
+	@Test
+	public void inheritance() {
+		InheritanceIndex expected = this.indexed.getIndex(InheritanceIndex.class);
+		InheritanceIndex actual = this.loaded.getIndex(InheritanceIndex.class);
+
+		for (ClassEntry entry : this.indexed.getIndex(EntryIndex.class).getClasses()) {
+			Assertions.assertEquals(new HashSet<>(expected.getParents(entry)), new HashSet<>(actual.getParents(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getChildren(entry)), new HashSet<>(actual.getChildren(entry)));
+		}
+	}
+
+	@Test
+	public void references() {
+		ReferenceIndex expected = this.indexed.getIndex(ReferenceIndex.class);
+		ReferenceIndex actual = this.loaded.getIndex(ReferenceIndex.class);
+		EntryIndex entryIndex = this.indexed.getIndex(EntryIndex.class);
+
+		for (MethodEntry entry : entryIndex.getMethods()) {
+			Assertions.assertEquals(new HashSet<>(expected.getMethodsReferencedBy(entry)), new HashSet<>(actual.getMethodsReferencedBy(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getReferencesToMethod(entry)), new HashSet<>(actual.getReferencesToMethod(entry)));
+		}
+
+		for (FieldEntry entry : entryIndex.getFields()) {
+			Assertions.assertEquals(new HashSet<>(expected.getReferencesToField(entry)), new HashSet<>(actual.getReferencesToField(entry)));
+		}
+
+		for (ClassEntry entry : entryIndex.getClasses()) {
+			Assertions.assertEquals(new HashSet<>(expected.getReferencesToClass(entry)), new HashSet<>(actual.getReferencesToClass(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getFieldTypeReferencesToClass(entry)), new HashSet<>(actual.getFieldTypeReferencesToClass(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getMethodTypeReferencesToClass(entry)), new HashSet<>(actual.getMethodTypeReferencesToClass(entry)));
+		}
+	}
+
+	@Test
+	public void processedIndices() {
+		BridgeMethodIndex expectedBridges = this.indexed.getIndex(BridgeMethodIndex.class);
+		BridgeMethodIndex actualBridges = this.loaded.getIndex(BridgeMethodIndex.class);
+		Assertions.assertEquals(expectedBridges.getBridgeToSpecialized(), actualBridges.getBridgeToSpecialized());
+		Assertions.assertEquals(expectedBridges.getSpecializedToBridge(), actualBridges.getSpecializedToBridge());
+
+		PackageVisibilityIndex expectedVisibility = this.indexed.getIndex(PackageVisibilityIndex.class);
+		PackageVisibilityIndex actualVisibility = this.loaded.getIndex(PackageVisibilityIndex.class);
+		for (ClassEntry entry : this.indexed.getIndex(EntryIndex.class).getClasses()) {
+			Assertions.assertEquals(expectedVisibility.getPartition(entry), actualVisibility.getPartition(entry));
+		}
+
+		LambdaIndex expectedLambdas = this.indexed.getIndex(LambdaIndex.class);
+		LambdaIndex actualLambdas = this.loaded.getIndex(LambdaIndex.class);
+		for (MethodEntry entry : this.indexed.getIndex(EntryIndex.class).getMethods()) {
+			Assertions.assertEquals(expectedLambdas.getCaller(entry), actualLambdas.getCaller(entry));
+			Assertions.assertEquals(expectedLambdas.getInternalLambdas(entry), actualLambdas.getInternalLambdas(entry));
+		}
+	}
+
+	@Test
+	public void checksumMismatch() throws Exception {
+		JarIndexSnapshotCache cache = new JarIndexSnapshotCache(Files.createTempDirectory("enigmaIndexSnapshot-"));
+		cache.save(new byte[] {1, 2, 3}, this.indexed);
+
+		Assertions.assertNull(cache.load(new byte[] {3, 2, 1}, MainJarIndex::empty, ProgressListener.createEmpty()));
+		Assertions.assertNotNull(cache.load(new byte[] {1, 2, 3}, MainJarIndex::empty, ProgressListener.createEmpty()));
+	}
+
+	@Test
+	public void configurationMismatch() throws Exception {
+		Path directory = Files.createTempDirectory("enigmaIndexSnapshot-");
+		new JarIndexSnapshotCache(directory, "{\"parallel\":true}").save(new byte[] {1, 2, 3}, this.indexed);
+
+		Assertions.assertNull(new JarIndexSnapshotCache(directory, "{}").load(new byte[] {1, 2, 3}, MainJarIndex::empty, ProgressListener.createEmpty()));
+		Assertions.assertNotNull(new JarIndexSnapshotCache(directory, "{\"parallel\":true}").load(new byte[] {1, 2, 3}, MainJarIndex::empty, ProgressListener.createEmpty()));
+	}
+}
@@ -0,0 +1,85 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassVisitor;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaPlugin;
+import org.quiltmc.enigma.api.EnigmaProfile;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.service.JarIndexerService;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class TestIndexerServices {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	@Test
+	public void servicesRunInOrder() throws Exception {
+		List<String> events = new ArrayList<>();
+		EnigmaPlugin plugin = ctx -> {
+			ctx.registerService(JarIndexerService.TYPE, ctx1 -> JarIndexerService.fromVisitor(new RecordingVisitor("first", events), "test:first"));
+			ctx.registerService(JarIndexerService.TYPE, ctx1 -> new JarIndexerService() {
+				@Override
+				public void acceptJar(Set<String> scope, ClassProvider classProvider, JarIndex jarIndex) {
+					events.add("accept");
+				}
+
+				@Override
+				public String getId() {
+					return "test:accept";
+				}
+			});
+			ctx.registerService(JarIndexerService.TYPE, ctx1 -> JarIndexerService.fromVisitor(new RecordingVisitor("second", events), "test:second"));
+		};
+
+		EnigmaProfile profile = EnigmaProfile.parse(new StringReader("""
+				{
+					"services": {
+						"jar_indexer": [
+							{
+								"id": "test:first"
+							},
+							{
+								"id": "test:accept"
+							},
+							{
+								"id": "test:second"
+							}
+						]
+					}
+				}"""));
+		Enigma enigma = Enigma.builder().setProfile(profile).setPlugins(List.of(plugin)).build();
+		enigma.openJar(JAR, new ClasspathClassProvider(), ProgressListener.createEmpty());
+
+		// every class goes through a service before the next one runs, like it would with acceptJar
+		int accept = events.indexOf("accept");
+		Assertions.assertTrue(accept > 0);
+		Assertions.assertTrue(events.subList(0, accept).stream().allMatch(event -> event.startsWith("first ")));
+		Assertions.assertTrue(events.subList(accept + 1, events.size()).stream().allMatch(event -> event.startsWith("second ")));
+		Assertions.assertEquals(accept, events.size() - accept - 1);
+	}
+
+	private static class RecordingVisitor extends ClassVisitor {
+		private final String id;
+		private final List<String> events;
+
+		RecordingVisitor(String id, List<String> events) {
+			super(Enigma.ASM_VERSION);
+			this.id = id;
+			this.events = events;
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			this.events.add(this.id + " " + name);
+		}
+	}
+}
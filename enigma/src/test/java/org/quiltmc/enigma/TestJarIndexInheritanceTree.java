@@ -75,6 +75,14 @@ public class TestJarIndexInheritanceTree {
 		assertThat(index.getParents(SUB_CLASS_B), contains(BASE_CLASS));
 		assertThat(index.getAncestors(SUB_CLASS_B), containsInAnyOrder(BASE_CLASS));
 		assertThat(index.getChildren(SUB_CLASS_B), is(empty()));
+
+		// ancestry checks
+		assertThat(index.isAncestor(BASE_CLASS, SUB_CLASS_AA), is(true));
+		assertThat(index.isAncestor(SUB_CLASS_A, SUB_CLASS_AA), is(true));
+		assertThat(index.isAncestor(SUB_CLASS_AA, SUB_CLASS_A), is(false));
+		assertThat(index.isAncestor(SUB_CLASS_A, SUB_CLASS_B), is(false));
+		assertThat(index.isAncestor(BASE_CLASS, BASE_CLASS), is(false));
+		assertThat(index.getDescendants(BASE_CLASS), containsInAnyOrder(SUB_CLASS_A, SUB_CLASS_AA, SUB_CLASS_B));
 	}
 
 	@Test
@@ -0,0 +1,105 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.LibrariesJarIndex;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.JdkClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+import org.quiltmc.enigma.impl.analysis.index.JarIndexSnapshotCache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class TestJdkClassProvider {
+	private static final JdkClassProvider PROVIDER = createProvider();
+
+	private static JdkClassProvider createProvider() {
+		try {
+			return new JdkClassProvider();
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	public void listsAndReadsJdkClasses() {
+		Set<String> names = PROVIDER.getClassNames();
+		Assertions.assertTrue(names.containsAll(Set.of("java/lang/Object", "java/util/ArrayList", "java/util/Map$Entry", "javax/net/SocketFactory")));
+		Assertions.assertTrue(names.stream().noneMatch(name -> name.endsWith(".class") || name.endsWith("module-info")));
+
+		ClassNode node = PROVIDER.get("java/util/ArrayList");
+		Assertions.assertNotNull(node);
+		Assertions.assertEquals("java/util/ArrayList", node.name);
+		Assertions.assertEquals("java/util/AbstractList", node.superName);
+		Assertions.assertNull(PROVIDER.get("a/Missing"));
+	}
+
+	@Test
+	public void journalIsReusedAcrossProjects() throws Exception {
+		Path directory = Files.createTempDirectory("enigmaJdkJournal-");
+		Set<String> jdkClassNames = PROVIDER.getClassNames();
+		Set<String> collections = jdkClassNames.stream()
+				.filter(name -> name.startsWith("java/util/") && name.indexOf('/', "java/util/".length()) < 0)
+				.collect(Collectors.toSet());
+		Set<String> someCollections = collections.stream().filter(name -> name.startsWith("java/util/A")).collect(Collectors.toSet());
+		Assertions.assertFalse(someCollections.isEmpty());
+
+		Set<String> firstReads = new HashSet<>();
+		AbstractJarIndex first = indexLibraries(directory, someCollections, jdkClassNames, firstReads);
+		Assertions.assertEquals(someCollections, firstReads);
+
+		// another project with more classes, the classes of the first one are replayed unless they looked up one of the new classes
+		Set<String> secondReads = new HashSet<>();
+		AbstractJarIndex second = indexLibraries(directory, collections, jdkClassNames, secondReads);
+		Set<String> newClasses = new HashSet<>(collections);
+		newClasses.removeAll(someCollections);
+		Assertions.assertTrue(secondReads.containsAll(newClasses));
+		Assertions.assertTrue(secondReads.size() < collections.size());
+
+		Set<String> thirdReads = new HashSet<>();
+		AbstractJarIndex third = indexLibraries(directory, collections, jdkClassNames, thirdReads);
+		Assertions.assertEquals(Set.of(), thirdReads);
+
+		Assertions.assertEquals(getClasses(second), getClasses(third));
+		Assertions.assertTrue(getClasses(second).containsAll(getClasses(first)));
+		ClassEntry arrayList = new ClassEntry("java/util/ArrayList");
+		Assertions.assertEquals(Set.copyOf(second.getIndex(InheritanceIndex.class).getParents(arrayList)), Set.copyOf(third.getIndex(InheritanceIndex.class).getParents(arrayList)));
+		Assertions.assertTrue(third.getIndex(InheritanceIndex.class).getParents(arrayList).contains(new ClassEntry("java/util/AbstractList")));
+	}
+
+	private static AbstractJarIndex indexLibraries(Path directory, Set<String> classNames, Set<String> jdkClassNames, Set<String> reads) {
+		AbstractJarIndex index = (AbstractJarIndex) LibrariesJarIndex.empty();
+		ClassProvider recording = new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				synchronized (reads) {
+					reads.add(name);
+				}
+
+				return PROVIDER.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return PROVIDER.getClassNames();
+			}
+		};
+
+		new JarIndexSnapshotCache(directory).indexLibraries(index, classNames, jdkClassNames, recording, ProgressListener.createEmpty(), false);
+		return index;
+	}
+
+	private static Set<ClassEntry> getClasses(AbstractJarIndex index) {
+		return Set.copyOf(index.getIndex(EntryIndex.class).getClasses());
+	}
+}
@@ -0,0 +1,64 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.impl.analysis.IndexSimpleVerifier;
+
+import java.util.Set;
+
+/**
+ * Checks the hierarchy of JDK classes, which are indexed like any other library when the whole JDK is indexed.
+ */
+public class TestJdkHierarchy {
+	private static final ClassEntry ARRAY_LIST = new ClassEntry("java/util/ArrayList");
+	private static final ClassEntry ABSTRACT_LIST = new ClassEntry("java/util/AbstractList");
+	private static final ClassEntry LIST = new ClassEntry("java/util/List");
+
+	@Test
+	public void jdkParentsAreRecorded() {
+		EntryIndex entryIndex = new EntryIndex();
+		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
+		inheritanceIndex.indexClass(ClassDefEntry.parse(Opcodes.ACC_PUBLIC, "java/util/ArrayList", null, "java/util/AbstractList", new String[] {"java/util/List"}));
+		inheritanceIndex.indexClass(ClassDefEntry.parse(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "java/util/AbstractList", null, "java/util/AbstractCollection", new String[] {"java/util/List"}));
+
+		Assertions.assertEquals(Set.of(ABSTRACT_LIST, LIST), Set.copyOf(inheritanceIndex.getParents(ARRAY_LIST)));
+		Assertions.assertTrue(inheritanceIndex.getChildren(ABSTRACT_LIST).contains(ARRAY_LIST));
+		Assertions.assertTrue(inheritanceIndex.isAncestor(new ClassEntry("java/util/AbstractCollection"), ARRAY_LIST));
+	}
+
+	@Test
+	public void arraysOfInterfacesAcceptArraysOfObjects() {
+		Verifier verifier = new Verifier();
+
+		// merging the types of two arrays of different classes loses their common interfaces, as in the JVM's verifier
+		Assertions.assertTrue(verifier.isAssignable("[Ljava/lang/Runnable;", "[Ljava/lang/Object;"));
+		Assertions.assertTrue(verifier.isAssignable("[Ljava/lang/Cloneable;", "[[I"));
+		Assertions.assertTrue(verifier.isAssignable("[[Ljava/lang/Runnable;", "[[Ljava/lang/Object;"));
+
+		// classes and primitives are still checked
+		Assertions.assertFalse(verifier.isAssignable("[Ljava/lang/String;", "[Ljava/lang/Object;"));
+		Assertions.assertFalse(verifier.isAssignable("[Ljava/lang/Runnable;", "[I"));
+		Assertions.assertFalse(verifier.isAssignable("[Ljava/lang/Runnable;", "Ljava/lang/Object;"));
+		Assertions.assertTrue(verifier.isAssignable("[Ljava/lang/Object;", "[Ljava/lang/String;"));
+	}
+
+	private static class Verifier extends IndexSimpleVerifier {
+		Verifier() {
+			this(new EntryIndex());
+		}
+
+		private Verifier(EntryIndex entryIndex) {
+			super(entryIndex, new InheritanceIndex(entryIndex));
+		}
+
+		boolean isAssignable(String descriptor1, String descriptor2) {
+			return this.isAssignableFrom(Type.getType(descriptor1), Type.getType(descriptor2));
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProfile;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestLazyLibraries {
+	public static final Path JAR = TestUtil.obfJar("inheritance_tree");
+	// none of these classes are referenced by the main jar
+	public static final Path LIBRARY = TestUtil.obfJar("complete");
+
+	@Test
+	public void unreferencedLibrariesAreNotIndexed() throws Exception {
+		Set<String> reads = openJar(true);
+		reads.removeAll(new JarClassProvider(JAR).getClassNames());
+		Assertions.assertEquals(Set.of(), reads);
+	}
+
+	@Test
+	public void librariesAreIndexed() throws Exception {
+		Set<String> reads = openJar(false);
+		Set<String> libraryClasses = new HashSet<>(new JarClassProvider(LIBRARY).getClassNames());
+		libraryClasses.removeAll(new JarClassProvider(JAR).getClassNames());
+		Assertions.assertTrue(reads.containsAll(libraryClasses));
+	}
+
+	private static Set<String> openJar(boolean lazyLibraries) throws Exception {
+		EnigmaProfile profile = EnigmaProfile.parse(new StringReader("""
+				{
+					"services": {},
+					"indexing_parameters": {
+						"lazy_libraries": %s
+					}
+				}""".formatted(lazyLibraries)));
+		Enigma enigma = Enigma.builder().setProfile(profile).build();
+
+		JarClassProvider library = new JarClassProvider(LIBRARY);
+		Set<String> reads = new HashSet<>();
+		enigma.openJar(JAR, new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				reads.add(name);
+				return library.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return library.getClassNames();
+			}
+		}, ProgressListener.createEmpty());
+
+		return reads;
+	}
+}
@@ -0,0 +1,40 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.util.MappedZipFile;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class TestMappedZipFile {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	@Test
+	public void readsLikeZipFile() throws Exception {
+		try (MappedZipFile mapped = MappedZipFile.open(JAR); ZipFile zip = new ZipFile(JAR.toFile())) {
+			Set<String> expectedNames = Collections.list(zip.entries()).stream()
+					.filter(entry -> !entry.isDirectory())
+					.map(ZipEntry::getName)
+					.collect(Collectors.toSet());
+			Assertions.assertEquals(expectedNames, mapped.getNames());
+
+			// read concurrently, like decompiler threads would
+			mapped.getNames().parallelStream().forEach(name -> {
+				try {
+					ZipEntry entry = zip.getEntry(name);
+					Assertions.assertArrayEquals(zip.getInputStream(entry).readAllBytes(), mapped.readBytes(name), name);
+					Assertions.assertEquals(entry.getCrc(), mapped.getCrc(name), name);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+
+			Assertions.assertNull(mapped.read("missing.class"));
+		}
+	}
+}
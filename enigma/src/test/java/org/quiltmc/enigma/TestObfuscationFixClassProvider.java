@@ -0,0 +1,111 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestObfuscationFixClassProvider {
+	public static final Path JAR = TestUtil.obfJar("complete");
+	private static final int THREADS = 4;
+
+	private final JarClassProvider jcp;
+	private final JarIndex index;
+
+	public TestObfuscationFixClassProvider() throws Exception {
+		this.jcp = new JarClassProvider(JAR);
+		this.index = MainJarIndex.empty();
+		this.index.indexJar(this.jcp.getClassNames(), new CachingClassProvider(this.jcp), ProgressListener.createEmpty());
+	}
+
+	@Test
+	public void concurrentMissesReadOnce() throws Exception {
+		String name = this.jcp.getClassNames().iterator().next();
+		AtomicInteger reads = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(THREADS);
+		ObfuscationFixClassProvider provider = new ObfuscationFixClassProvider(new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				reads.incrementAndGet();
+				try {
+					// give the other threads time to miss the cache too
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+
+				return TestObfuscationFixClassProvider.this.jcp.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return TestObfuscationFixClassProvider.this.jcp.getClassNames();
+			}
+		}, this.index);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<ClassNode>> nodes = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				nodes.add(executor.submit(() -> {
+					start.countDown();
+					start.await();
+					return provider.get(name);
+				}));
+			}
+
+			for (Future<ClassNode> node : nodes) {
+				Assertions.assertNotNull(node.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Assertions.assertNotNull(provider.get(name));
+		Assertions.assertEquals(1, reads.get());
+	}
+
+	@Test
+	public void wrappingSharesFixedClasses() {
+		String name = this.jcp.getClassNames().iterator().next();
+		AtomicInteger reads = new AtomicInteger();
+		ObfuscationFixClassProvider provider = new ObfuscationFixClassProvider(new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				reads.incrementAndGet();
+				return TestObfuscationFixClassProvider.this.jcp.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return TestObfuscationFixClassProvider.this.jcp.getClassNames();
+			}
+		}, this.index);
+
+		// like the decompiler of the class handles, which wraps the provider of the project
+		ObfuscationFixClassProvider wrapping = new ObfuscationFixClassProvider(provider, this.index);
+		Assertions.assertNotNull(provider.get(name));
+		Assertions.assertNotNull(wrapping.get(name));
+		Assertions.assertEquals(1, reads.get());
+
+		wrapping.invalidate(name);
+		Assertions.assertNotNull(provider.get(name));
+		Assertions.assertEquals(2, reads.get());
+	}
+}
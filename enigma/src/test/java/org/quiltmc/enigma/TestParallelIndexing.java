@@ -0,0 +1,138 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EnclosingMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
+import org.quiltmc.enigma.api.analysis.index.jar.LambdaIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.PackageVisibilityIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class TestParallelIndexing {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final JarIndex sequential;
+	private final JarIndex parallel;
+
+	public TestParallelIndexing() throws Exception {
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		CachingClassProvider classProvider = new CachingClassProvider(jcp);
+
+		this.sequential = MainJarIndex.empty();
+		this.sequential.indexJar(jcp.getClassNames(), classProvider, ProgressListener.createEmpty(), false);
+
+		this.parallel = MainJarIndex.empty();
+		this.parallel.indexJar(jcp.getClassNames(), classProvider, ProgressListener.createEmpty(), true);
+	}
+
+	@Test
+	public void entries() {
+		EntryIndex expected = this.sequential.getIndex(EntryIndex.class);
+		EntryIndex actual = this.parallel.getIndex(EntryIndex.class);
+
+		Assertions.assertEquals(new HashSet<>(expected.getClasses()), new HashSet<>(actual.getClasses()));
+		Assertions.assertEquals(new HashSet<>(expected.getMethods()), new HashSet<>(actual.getMethods()));
+		Assertions.assertEquals(new HashSet<>(expected.getFields()), new HashSet<>(actual.getFields()));
+	}
+
+	@Test
+	public void childrenByClass() {
+		// merging shards in order must keep the same ordering as a sequential run
+		Assertions.assertEquals(this.sequential.getChildrenByClass(), this.parallel.getChildrenByClass());
+	}
+
+	@Test
+	public void inheritance() {
+		InheritanceIndex expected = this.sequential.getIndex(InheritanceIndex.class);
+		InheritanceIndex actual = this.parallel.getIndex(InheritanceIndex.class);
+
+		for (ClassEntry entry : this.sequential.getIndex(EntryIndex.class).getClasses()) {
+			Assertions.assertEquals(new HashSet<>(expected.getParents(entry)), new HashSet<>(actual.getParents(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getChildren(entry)), new HashSet<>(actual.getChildren(entry)));
+		}
+	}
+
+	@Test
+	public void references() {
+		ReferenceIndex expected = this.sequential.getIndex(ReferenceIndex.class);
+		ReferenceIndex actual = this.parallel.getIndex(ReferenceIndex.class);
+		EntryIndex entryIndex = this.sequential.getIndex(EntryIndex.class);
+
+		for (MethodEntry entry : entryIndex.getMethods()) {
+			Assertions.assertEquals(new HashSet<>(expected.getMethodsReferencedBy(entry)), new HashSet<>(actual.getMethodsReferencedBy(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getReferencesToMethod(entry)), new HashSet<>(actual.getReferencesToMethod(entry)));
+		}
+
+		for (FieldEntry entry : entryIndex.getFields()) {
+			Assertions.assertEquals(new HashSet<>(expected.getReferencesToField(entry)), new HashSet<>(actual.getReferencesToField(entry)));
+		}
+
+		for (ClassEntry entry : entryIndex.getClasses()) {
+			Assertions.assertEquals(new HashSet<>(expected.getReferencesToClass(entry)), new HashSet<>(actual.getReferencesToClass(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getFieldTypeReferencesToClass(entry)), new HashSet<>(actual.getFieldTypeReferencesToClass(entry)));
+			Assertions.assertEquals(new HashSet<>(expected.getMethodTypeReferencesToClass(entry)), new HashSet<>(actual.getMethodTypeReferencesToClass(entry)));
+		}
+	}
+
+	@Test
+	public void bridgesAndLambdas() {
+		BridgeMethodIndex expectedBridges = this.sequential.getIndex(BridgeMethodIndex.class);
+		BridgeMethodIndex actualBridges = this.parallel.getIndex(BridgeMethodIndex.class);
+		Assertions.assertEquals(expectedBridges.getBridgeToSpecialized(), actualBridges.getBridgeToSpecialized());
+		Assertions.assertEquals(expectedBridges.getSpecializedToBridge(), actualBridges.getSpecializedToBridge());
+
+		LambdaIndex expectedLambdas = this.sequential.getIndex(LambdaIndex.class);
+		LambdaIndex actualLambdas = this.parallel.getIndex(LambdaIndex.class);
+		for (MethodEntry entry : this.sequential.getIndex(EntryIndex.class).getMethods()) {
+			Assertions.assertEquals(expectedLambdas.getCaller(entry), actualLambdas.getCaller(entry));
+			Assertions.assertEquals(expectedLambdas.getInternalLambdas(entry), actualLambdas.getInternalLambdas(entry));
+		}
+	}
+
+	@Test
+	public void unshardableIndexerFallsBackToSerial() throws Exception {
+		Thread thread = Thread.currentThread();
+		List<String> classes = new ArrayList<>();
+		JarIndexer indexer = new JarIndexer() {
+			@Override
+			public void indexClass(ClassDefEntry classEntry) {
+				Assertions.assertSame(thread, Thread.currentThread());
+				classes.add(classEntry.getFullName());
+			}
+
+			@Override
+			public String getTranslationKey() {
+				return "test";
+			}
+		};
+
+		EntryIndex entryIndex = new EntryIndex();
+		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
+		ReferenceIndex referenceIndex = new ReferenceIndex();
+		JarIndex index = new MainJarIndex(entryIndex, inheritanceIndex, referenceIndex, new BridgeMethodIndex(entryIndex, inheritanceIndex, referenceIndex),
+				new PackageVisibilityIndex(), new EnclosingMethodIndex(), new LambdaIndex(), indexer);
+
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		index.indexJar(jcp.getClassNames(), new CachingClassProvider(jcp), ProgressListener.createEmpty(), true);
+
+		Assertions.assertEquals(jcp.getClassNames(), new HashSet<>(classes));
+		Assertions.assertEquals(jcp.getClassNames().size(), classes.size());
+	}
+}
@@ -0,0 +1,66 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ReadOnceClassProvider;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class TestReadOnceClassProvider {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final List<String> reads = new ArrayList<>();
+	private final ReadOnceClassProvider provider;
+	private final String a;
+	private final String b;
+
+	public TestReadOnceClassProvider() throws Exception {
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		this.provider = new ReadOnceClassProvider(new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				TestReadOnceClassProvider.this.reads.add(name);
+				return jcp.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return jcp.getClassNames();
+			}
+		});
+
+		List<String> classNames = jcp.getClassNames().stream().sorted().toList();
+		this.a = classNames.get(0);
+		this.b = classNames.get(1);
+	}
+
+	@Test
+	public void readsOnce() {
+		Assertions.assertTrue(this.provider.accept(this.a, new ClassVisitor(Enigma.ASM_VERSION) { }));
+		Assertions.assertTrue(this.provider.accept(this.a, new ClassVisitor(Enigma.ASM_VERSION) { }));
+		Assertions.assertNotNull(this.provider.get(this.a));
+		Assertions.assertEquals(List.of(this.a), this.reads);
+	}
+
+	@Test
+	public void readsAgainOnceReleased() {
+		this.provider.accept(this.a, new ClassVisitor(Enigma.ASM_VERSION) { });
+		this.provider.accept(this.b, new ClassVisitor(Enigma.ASM_VERSION) { });
+		this.provider.release(this.a);
+		this.provider.accept(this.a, new ClassVisitor(Enigma.ASM_VERSION) { });
+		this.provider.accept(this.b, new ClassVisitor(Enigma.ASM_VERSION) { });
+		Assertions.assertEquals(List.of(this.a, this.b, this.a), this.reads);
+
+		this.provider.releaseAll();
+		this.provider.accept(this.b, new ClassVisitor(Enigma.ASM_VERSION) { });
+		Assertions.assertEquals(List.of(this.a, this.b, this.a, this.b), this.reads);
+	}
+}
@@ -0,0 +1,215 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.representation.AccessFlags;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.Signature;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public class TestReferenceIndex {
+	public static final Path JAR = TestUtil.obfJar("complete");
+	// more callers than the builder scans linearly when dropping duplicates
+	private static final int CALLERS = 20;
+
+	private final JarIndex index;
+	private final MethodEntry inherited;
+	private final MethodEntry inheritedFromChild;
+	private final ClassEntry owner;
+	private final List<MethodDefEntry> callers = new ArrayList<>();
+
+	public TestReferenceIndex() throws Exception {
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		this.index = MainJarIndex.empty();
+		this.index.indexJar(jcp.getClassNames(), new CachingClassProvider(jcp), ProgressListener.createEmpty());
+
+		MethodEntry[] inherited = findInheritedMethod(this.index);
+		this.inherited = inherited[0];
+		this.inheritedFromChild = inherited[1];
+		this.owner = this.inheritedFromChild.getParent();
+
+		for (int i = 0; i < CALLERS; i++) {
+			this.callers.add(new MethodDefEntry(this.owner, "caller" + i, new MethodDescriptor("()V"), Signature.createSignature(null), AccessFlags.PUBLIC));
+		}
+	}
+
+	@Test
+	public void processedQueriesMatchResolvedReferences() {
+		ReferenceIndex references = new ReferenceIndex();
+		MethodEntry overload = new MethodEntry(this.owner, "overloaded", new MethodDescriptor("()V"));
+		MethodEntry otherOverload = new MethodEntry(this.owner, "overloaded", new MethodDescriptor("(I)V"));
+		MethodDefEntry caller = this.callers.get(0);
+		MethodDefEntry equalCaller = new MethodDefEntry(this.owner, caller.getName(), caller.getDesc(), caller.getSignature(), AccessFlags.PUBLIC);
+
+		// the same reference twice, and once more through equal instances of another type
+		references.indexMethodReference(caller, this.inherited, ReferenceTargetType.none());
+		references.indexMethodReference(caller, this.inherited, ReferenceTargetType.none());
+		references.indexMethodReference(equalCaller, this.index.getIndex(EntryIndex.class).getDefinition(this.inherited), ReferenceTargetType.none());
+		// resolves to a duplicate of the references above
+		references.indexMethodReference(caller, this.inheritedFromChild, ReferenceTargetType.none());
+
+		for (MethodDefEntry method : this.callers) {
+			references.indexMethodReference(method, overload, ReferenceTargetType.none());
+			references.indexMethodReference(method, otherOverload, ReferenceTargetType.none());
+			references.indexClassReference(method, this.owner, ReferenceTargetType.none());
+			references.indexClassReference(method, new ClassEntry(this.owner.getFullName()), ReferenceTargetType.none());
+		}
+
+		List<MethodEntry> methods = List.of(this.inherited, this.inheritedFromChild, overload, otherOverload);
+		EntryResolver resolver = this.index.getEntryResolver();
+		Map<MethodEntry, Set<EntryReference<MethodEntry, MethodDefEntry>>> methodReferences = resolve(resolver, methods, references::getReferencesToMethod);
+		Map<ClassEntry, Set<EntryReference<ClassEntry, MethodDefEntry>>> classReferences = resolve(resolver, List.of(this.owner), references::getReferencesToClass);
+		Map<MethodEntry, Set<MethodEntry>> referencedMethods = new HashMap<>();
+		for (MethodDefEntry method : this.callers) {
+			for (MethodEntry referenced : references.getMethodsReferencedBy(method)) {
+				referencedMethods.computeIfAbsent(resolver.resolveFirstEntry(method, ResolutionStrategy.RESOLVE_CLOSEST), m -> new HashSet<>())
+						.add(resolver.resolveFirstEntry(referenced, ResolutionStrategy.RESOLVE_CLOSEST));
+			}
+		}
+
+		references.processIndex(this.index);
+
+		Assertions.assertEquals(methodReferences.keySet(), Set.of(this.inherited, overload, otherOverload));
+		Assertions.assertEquals(1, methodReferences.get(this.inherited).size());
+		assertMatches(methodReferences, references::getReferencesToMethod);
+		assertMatches(classReferences, references::getReferencesToClass);
+		assertMatches(referencedMethods, references::getMethodsReferencedBy);
+		Assertions.assertTrue(references.getReferencesToMethod(this.inheritedFromChild).isEmpty());
+		Assertions.assertEquals(Set.of(this.inherited.getParent(), this.owner), references.getReferencedClasses());
+	}
+
+	@Test
+	public void processedIndexRejectsReferences() {
+		ReferenceIndex references = new ReferenceIndex();
+		MethodDefEntry caller = this.callers.get(0);
+		references.indexMethodReference(caller, this.inherited, ReferenceTargetType.none());
+		Assertions.assertThrows(IllegalStateException.class, references::getReferencedClasses);
+
+		references.processIndex(this.index);
+
+		Assertions.assertThrows(IllegalStateException.class, () -> references.indexMethodReference(caller, this.inherited, ReferenceTargetType.none()));
+		Assertions.assertThrows(IllegalStateException.class, () -> references.indexClassReference(caller, this.owner, ReferenceTargetType.none()));
+		Assertions.assertThrows(IllegalStateException.class, () -> references.indexMethod(caller));
+		Assertions.assertThrows(IllegalStateException.class, () -> references.mergeShard(references.createShard()));
+	}
+
+	@Test
+	public void equalEntriesOfDifferentTypesStayApart() {
+		ReferenceIndex references = new ReferenceIndex();
+		MethodDefEntry firstCaller = this.callers.get(0);
+		// the first caller is referenced as a plain method by the others, and is the context of its own references
+		MethodEntry firstCallerReference = new MethodEntry(this.owner, firstCaller.getName(), firstCaller.getDesc());
+		TypeDescriptor ownerType = new TypeDescriptor("L" + this.owner.getFullName() + ";");
+		FieldDefEntry fieldDefinition = new FieldDefEntry(this.owner, "field", ownerType, Signature.createSignature(null), AccessFlags.PUBLIC);
+		FieldEntry field = new FieldEntry(this.owner, "field", ownerType);
+		MethodDefEntry typedMethod = new MethodDefEntry(this.owner, "typed", new MethodDescriptor("(" + ownerType + ")V"), Signature.createSignature(null), AccessFlags.PUBLIC);
+
+		references.indexMethodReference(firstCaller, this.inherited, ReferenceTargetType.none());
+		List<MethodDefEntry> otherCallers = this.callers.subList(1, CALLERS);
+		for (MethodDefEntry caller : otherCallers) {
+			references.indexMethodReference(caller, firstCallerReference, ReferenceTargetType.none());
+			references.indexFieldReference(caller, field, ReferenceTargetType.none());
+		}
+
+		references.indexField(fieldDefinition);
+		references.indexMethod(typedMethod);
+
+		// the tables are built in parallel, and share the ids of their values
+		references.processIndex(this.index);
+
+		for (MethodDefEntry caller : otherCallers) {
+			Collection<MethodEntry> referenced = references.getMethodsReferencedBy(caller);
+			Assertions.assertEquals(List.of(firstCallerReference), List.copyOf(referenced));
+			Assertions.assertSame(MethodEntry.class, referenced.iterator().next().getClass());
+		}
+
+		assertContexts(Set.copyOf(otherCallers), MethodDefEntry.class, references.getReferencesToMethod(firstCallerReference));
+		assertContexts(Set.of(firstCaller), MethodDefEntry.class, references.getReferencesToMethod(this.inherited));
+		assertContexts(Set.copyOf(otherCallers), MethodDefEntry.class, references.getReferencesToField(field));
+		assertContexts(Set.of(fieldDefinition), FieldDefEntry.class, references.getFieldTypeReferencesToClass(this.owner));
+		assertContexts(Set.of(typedMethod), MethodDefEntry.class, references.getMethodTypeReferencesToClass(this.owner));
+	}
+
+	private static <C extends Entry<?>> void assertContexts(Set<C> expected, Class<?> type, Collection<? extends EntryReference<?, C>> references) {
+		Set<C> contexts = new HashSet<>();
+		for (EntryReference<?, C> reference : references) {
+			Assertions.assertSame(type, reference.context.getClass());
+			contexts.add(reference.context);
+		}
+
+		Assertions.assertEquals(expected.size(), references.size());
+		Assertions.assertEquals(expected, contexts);
+	}
+
+	private static <E extends Entry<?>, C extends Entry<?>> Map<E, Set<EntryReference<E, C>>> resolve(EntryResolver resolver, Collection<E> entries, Function<E, Collection<EntryReference<E, C>>> query) {
+		Map<E, Set<EntryReference<E, C>>> resolved = new HashMap<>();
+		for (E entry : entries) {
+			for (EntryReference<E, C> reference : query.apply(entry)) {
+				EntryReference<E, C> resolvedReference = resolver.resolveFirstReference(reference, ResolutionStrategy.RESOLVE_CLOSEST);
+				resolved.computeIfAbsent(resolvedReference.entry, e -> new HashSet<>()).add(resolvedReference);
+			}
+		}
+
+		return resolved;
+	}
+
+	private static <K, V> void assertMatches(Map<K, Set<V>> expected, Function<K, Collection<V>> query) {
+		for (Map.Entry<K, Set<V>> entry : expected.entrySet()) {
+			Collection<V> actual = query.apply(entry.getKey());
+			// duplicates are dropped
+			Assertions.assertEquals(entry.getValue().size(), actual.size());
+			Assertions.assertEquals(entry.getValue(), new HashSet<>(actual));
+		}
+	}
+
+	/**
+	 * {@return a method declared by a class, and the same method on a subclass which doesn't override it}
+	 */
+	private static MethodEntry[] findInheritedMethod(JarIndex index) {
+		EntryIndex entryIndex = index.getIndex(EntryIndex.class);
+		InheritanceIndex inheritanceIndex = index.getIndex(InheritanceIndex.class);
+		for (MethodEntry method : entryIndex.getMethods()) {
+			AccessFlags access = entryIndex.getMethodAccess(method);
+			if (method.isConstructor() || access == null || access.isPrivate() || access.isStatic()) {
+				continue;
+			}
+
+			for (ClassEntry child : inheritanceIndex.getChildren(method.getParent())) {
+				MethodEntry inherited = method.withParent(child);
+				if (!entryIndex.hasMethod(inherited)) {
+					return new MethodEntry[] {method, inherited};
+				}
+			}
+		}
+
+		throw new AssertionError("No inherited method in " + JAR);
+	}
+}
@@ -193,6 +193,37 @@ public class IndexEntryResolverTest {
 		assertResolveIdentity(entry);
 	}
 
+	@Test
+	public void testCachedResolutions() {
+		var baseA = TestEntryFactory.newClass("BaseA");
+		var sub1A = TestEntryFactory.newClass("Sub1A");
+		var entry = TestEntryFactory.newField(sub1A, "field2", "I");
+		var resolved = TestEntryFactory.newField(baseA, "field2", "I");
+		var missing = TestEntryFactory.newField(baseA, "field3", "I");
+
+		IndexEntryResolver cachingResolver = new IndexEntryResolver(index);
+		cachingResolver.invalidateCache();
+		Assertions.assertEquals(List.of(resolved), List.copyOf(cachingResolver.resolveEntry(entry, ResolutionStrategy.RESOLVE_ROOT)));
+		Assertions.assertTrue(cachingResolver.resolveEntry(missing, ResolutionStrategy.RESOLVE_ROOT).isEmpty());
+
+		// only the entries which did not resolve to themselves are cached
+		var cached = cachingResolver.getCachedResolutions();
+		Assertions.assertEquals(2, cached.size());
+		Assertions.assertTrue(cached.contains(new IndexEntryResolver.CachedResolution(entry, ResolutionStrategy.RESOLVE_ROOT, List.of(resolved))));
+		Assertions.assertTrue(cached.contains(new IndexEntryResolver.CachedResolution(missing, ResolutionStrategy.RESOLVE_ROOT, List.of())));
+
+		// cached resolutions are trusted, so a seeded resolution is returned as is
+		cachingResolver.invalidateCache();
+		Assertions.assertTrue(cachingResolver.getCachedResolutions().isEmpty());
+		cachingResolver.cacheResolutions(List.of(new IndexEntryResolver.CachedResolution(entry, ResolutionStrategy.RESOLVE_ROOT, List.of(missing))));
+		Assertions.assertEquals(List.of(missing), List.copyOf(cachingResolver.resolveEntry(entry, ResolutionStrategy.RESOLVE_ROOT)));
+		Assertions.assertEquals(List.of(resolved), List.copyOf(cachingResolver.resolveEntry(entry, ResolutionStrategy.RESOLVE_CLOSEST)));
+
+		// until the cache is invalidated
+		cachingResolver.invalidateCache();
+		Assertions.assertEquals(List.of(resolved), List.copyOf(cachingResolver.resolveEntry(entry, ResolutionStrategy.RESOLVE_ROOT)));
+	}
+
 	private static void clazz(ClassNode classNode) {
 		CLASSES.put(classNode.name, classNode);
 	}
@@ -0,0 +1,84 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.CompactEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class TestCompactEntryTree {
+	@Test
+	public void behavesLikeHashEntryTree() {
+		List<Entry<?>> entries = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			ClassEntry outer = new ClassEntry("a/C" + i);
+			ClassEntry inner = new ClassEntry(outer, "I");
+			entries.add(outer);
+			entries.add(inner);
+			for (int j = 0; j < 12; j++) {
+				MethodEntry method = new MethodEntry(j % 2 == 0 ? outer : inner, "m" + j, new MethodDescriptor("(II)V"));
+				entries.add(method);
+				entries.add(new LocalVariableEntry(method, 1, "", true, null));
+				entries.add(new LocalVariableEntry(method, 2, "", true, null));
+				entries.add(new FieldEntry(outer, "f" + j, new TypeDescriptor("I")));
+			}
+		}
+
+		CompactEntryTree tree = new CompactEntryTree();
+		EntryTree<EntryMapping> expected = new HashEntryTree<>();
+		Random random = new Random(0);
+		for (int i = 0; i < 50000; i++) {
+			Entry<?> entry = entries.get(random.nextInt(entries.size()));
+			switch (random.nextInt(4)) {
+				case 0, 1 -> {
+					EntryMapping mapping = new EntryMapping("name" + random.nextInt(20));
+					tree.insert(entry, mapping);
+					expected.insert(entry, mapping);
+				}
+				case 2 -> {
+					tree.insert(entry, null);
+					expected.insert(entry, null);
+				}
+				default -> Assertions.assertEquals(expected.remove(entry), tree.remove(entry), entry.toString());
+			}
+
+			Entry<?> query = entries.get(random.nextInt(entries.size()));
+			Assertions.assertEquals(expected.get(query), tree.get(query), query.toString());
+			Assertions.assertEquals(new HashSet<>(expected.getChildren(query)), new HashSet<>(tree.getChildren(query)), query.toString());
+		}
+
+		Assertions.assertEquals(expected.getAllEntries().collect(Collectors.toSet()), tree.getAllEntries().collect(Collectors.toSet()));
+		for (EntryTreeNode<EntryMapping> node : tree) {
+			Assertions.assertFalse(node.isEmpty(), node.getEntry().toString());
+		}
+
+		entries.forEach(tree::remove);
+		Assertions.assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	public void internsMappings() {
+		CompactEntryTree tree = new CompactEntryTree();
+		ClassEntry first = new ClassEntry("a/A");
+		ClassEntry second = new ClassEntry("a/B");
+		tree.insert(first, new EntryMapping("name"));
+		tree.insert(second, new EntryMapping("name"));
+
+		Assertions.assertSame(tree.get(first), tree.get(second));
+	}
+}
@@ -0,0 +1,219 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.ConcurrentEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestConcurrentEntryTree {
+	private static List<Entry<?>> createEntries(ClassEntry outer) {
+		List<Entry<?>> entries = new ArrayList<>();
+		ClassEntry inner = new ClassEntry(outer, "I");
+		entries.add(outer);
+		entries.add(inner);
+		for (int i = 0; i < 20; i++) {
+			MethodEntry method = new MethodEntry(i % 2 == 0 ? outer : inner, "m" + i, new MethodDescriptor("(I)V"));
+			entries.add(method);
+			entries.add(new LocalVariableEntry(method, 1, "", true, null));
+		}
+
+		return entries;
+	}
+
+	@Test
+	public void behavesLikeHashEntryTree() {
+		List<Entry<?>> entries = IntStream.range(0, 10)
+				.mapToObj(i -> createEntries(new ClassEntry("a/C" + i)))
+				.flatMap(List::stream)
+				.toList();
+
+		EntryTree<EntryMapping> tree = new ConcurrentEntryTree<>();
+		EntryTree<EntryMapping> expected = new HashEntryTree<>();
+		Random random = new Random(0);
+		for (int i = 0; i < 50000; i++) {
+			Entry<?> entry = entries.get(random.nextInt(entries.size()));
+			switch (random.nextInt(3)) {
+				case 0 -> {
+					EntryMapping mapping = new EntryMapping("name" + i);
+					tree.insert(entry, mapping);
+					expected.insert(entry, mapping);
+				}
+				case 1 -> {
+					tree.insert(entry, null);
+					expected.insert(entry, null);
+				}
+				default -> Assertions.assertEquals(expected.remove(entry), tree.remove(entry), entry.toString());
+			}
+
+			Entry<?> query = entries.get(random.nextInt(entries.size()));
+			Assertions.assertEquals(expected.get(query), tree.get(query), query.toString());
+			Assertions.assertEquals(new HashSet<>(expected.getChildren(query)), new HashSet<>(tree.getChildren(query)), query.toString());
+		}
+
+		Assertions.assertEquals(expected.getAllEntries().collect(Collectors.toSet()), tree.getAllEntries().collect(Collectors.toSet()));
+		for (EntryTreeNode<EntryMapping> node : tree) {
+			Assertions.assertFalse(node.isEmpty(), node.getEntry().toString());
+		}
+
+		entries.forEach(tree::remove);
+		Assertions.assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	public void writesFromMultipleThreads() throws InterruptedException {
+		EntryTree<EntryMapping> tree = new ConcurrentEntryTree<>();
+		List<List<Entry<?>>> classes = IntStream.range(0, 4)
+				.mapToObj(i -> createEntries(new ClassEntry("a/C" + i)))
+				.toList();
+
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Thread> threads = new ArrayList<>();
+		for (List<Entry<?>> entries : classes) {
+			// each writer checks its own class, while every writer also reads the others
+			threads.add(new Thread(() -> {
+				for (int round = 0; round < 200; round++) {
+					for (Entry<?> entry : entries) {
+						EntryMapping mapping = new EntryMapping(entry.getName() + round);
+						tree.insert(entry, mapping);
+						if (!mapping.equals(tree.get(entry))) {
+							failed.set(true);
+						}
+					}
+
+					tree.getAllEntries().count();
+					for (Entry<?> entry : entries) {
+						tree.remove(entry);
+						if (tree.get(entry) != null) {
+							failed.set(true);
+						}
+					}
+				}
+
+				entries.forEach(entry -> tree.insert(entry, new EntryMapping(entry.getName())));
+			}));
+		}
+
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assertions.assertFalse(failed.get());
+		for (List<Entry<?>> entries : classes) {
+			for (Entry<?> entry : entries) {
+				Assertions.assertEquals(new EntryMapping(entry.getName()), tree.get(entry), entry.toString());
+			}
+		}
+	}
+
+	@Test
+	public void snapshotsAreIndependent() {
+		List<Entry<?>> entries = IntStream.range(0, 10)
+				.mapToObj(i -> createEntries(new ClassEntry("a/C" + i)))
+				.flatMap(List::stream)
+				.toList();
+
+		List<ConcurrentEntryTree<EntryMapping>> trees = new ArrayList<>(List.of(new ConcurrentEntryTree<>()));
+		List<EntryTree<EntryMapping>> expectedTrees = new ArrayList<>(List.of(new HashEntryTree<>()));
+		Random random = new Random(0);
+		for (int i = 0; i < 20000; i++) {
+			// writes go to the tree or to any of its snapshots, each of which must only see its own writes
+			int index = random.nextInt(trees.size());
+			ConcurrentEntryTree<EntryMapping> tree = trees.get(index);
+			EntryTree<EntryMapping> expected = expectedTrees.get(index);
+			Entry<?> entry = entries.get(random.nextInt(entries.size()));
+			switch (random.nextInt(4)) {
+				case 0, 1 -> {
+					EntryMapping mapping = new EntryMapping("name" + i);
+					tree.insert(entry, mapping);
+					expected.insert(entry, mapping);
+				}
+				case 2 -> Assertions.assertEquals(expected.remove(entry), tree.remove(entry), entry.toString());
+				default -> {
+					if (random.nextInt(50) == 0) {
+						trees.add(tree.snapshot());
+						expectedTrees.add(new HashEntryTree<>(expected));
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < trees.size(); i++) {
+			Assertions.assertEquals(toMap(expectedTrees.get(i)), toMap(trees.get(i)));
+		}
+	}
+
+	@Test
+	public void snapshotsWhileWriting() throws InterruptedException {
+		ConcurrentEntryTree<EntryMapping> tree = new ConcurrentEntryTree<>();
+		List<List<Entry<?>>> classes = IntStream.range(0, 4)
+				.mapToObj(i -> createEntries(new ClassEntry("a/C" + i)))
+				.toList();
+
+		AtomicBoolean done = new AtomicBoolean();
+		List<Thread> threads = new ArrayList<>();
+		for (List<Entry<?>> entries : classes) {
+			threads.add(new Thread(() -> {
+				for (int round = 0; round < 200; round++) {
+					for (Entry<?> entry : entries) {
+						tree.insert(entry, new EntryMapping(entry.getName() + round));
+					}
+				}
+			}));
+		}
+
+		List<ConcurrentEntryTree<EntryMapping>> snapshots = new ArrayList<>();
+		List<Map<Entry<?>, EntryMapping>> expectedSnapshots = new ArrayList<>();
+		Thread snapshotter = new Thread(() -> {
+			while (!done.get()) {
+				ConcurrentEntryTree<EntryMapping> snapshot = tree.snapshot();
+				snapshots.add(snapshot);
+				expectedSnapshots.add(toMap(snapshot));
+			}
+		});
+
+		snapshotter.start();
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		done.set(true);
+		snapshotter.join();
+
+		// later writes never show up in earlier snapshots
+		for (int i = 0; i < snapshots.size(); i++) {
+			Assertions.assertEquals(expectedSnapshots.get(i), toMap(snapshots.get(i)));
+		}
+
+		for (List<Entry<?>> entries : classes) {
+			for (Entry<?> entry : entries) {
+				Assertions.assertEquals(new EntryMapping(entry.getName() + 199), tree.get(entry), entry.toString());
+			}
+		}
+	}
+
+	private static Map<Entry<?>, EntryMapping> toMap(EntryTree<EntryMapping> tree) {
+		Map<Entry<?>, EntryMapping> map = new HashMap<>();
+		tree.getAllEntries().forEach(entry -> map.put(entry, tree.get(entry)));
+		return map;
+	}
+}
@@ -0,0 +1,77 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.MappingJournal;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+
+import java.util.List;
+
+public class TestMappingJournal {
+	private static final ClassEntry CLASS = new ClassEntry("a/A");
+	private static final FieldEntry FIELD = new FieldEntry(CLASS, "a", new TypeDescriptor("I"));
+
+	@Test
+	public void recordsChangesInOrder() {
+		DeltaTrackingTree<EntryMapping> tree = new DeltaTrackingTree<>();
+		MappingJournal<EntryMapping> journal = tree.getJournal();
+		Assertions.assertEquals(0L, journal.getLastSequence());
+
+		tree.insert(CLASS, new EntryMapping("Named"));
+		tree.insert(FIELD, new EntryMapping("first"));
+		tree.takeDelta();
+		tree.insert(FIELD, new EntryMapping("second"));
+		tree.remove(CLASS);
+
+		Assertions.assertEquals(4L, journal.getLastSequence());
+		Assertions.assertEquals(List.of(
+				new MappingJournal.Change<>(3, FIELD, new EntryMapping("first"), new EntryMapping("second")),
+				new MappingJournal.Change<>(4, CLASS, new EntryMapping("Named"), null)
+		), journal.getChangesSince(2));
+		Assertions.assertEquals(4, journal.getChangesSince(0).size());
+		Assertions.assertTrue(journal.getChangesSince(4).isEmpty());
+	}
+
+	@Test
+	public void keepsSequencesWhenDiscarding() {
+		DeltaTrackingTree<EntryMapping> tree = new DeltaTrackingTree<>();
+		MappingJournal<EntryMapping> journal = tree.getJournal();
+		for (int i = 0; i < 10; i++) {
+			tree.insert(FIELD, new EntryMapping("name" + i));
+		}
+
+		journal.discardUntil(6);
+		tree.insert(FIELD, null);
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> journal.getChangesSince(5));
+		List<MappingJournal.Change<EntryMapping>> changes = journal.getChangesSince(6);
+		Assertions.assertEquals(5, changes.size());
+		Assertions.assertEquals(7L, changes.get(0).sequence());
+		Assertions.assertEquals(new MappingJournal.Change<>(11, FIELD, new EntryMapping("name9"), null), changes.get(4));
+	}
+
+	@Test
+	public void discardsChangesOfEarlierDeltas() {
+		DeltaTrackingTree<EntryMapping> tree = new DeltaTrackingTree<>();
+		MappingJournal<EntryMapping> journal = tree.getJournal();
+		tree.insert(CLASS, new EntryMapping("Named"));
+		tree.takeDelta();
+		tree.insert(FIELD, new EntryMapping("field"));
+		tree.takeDelta();
+		tree.remove(FIELD);
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> journal.getChangesSince(0));
+		Assertions.assertEquals(List.of(
+				new MappingJournal.Change<>(2, FIELD, null, new EntryMapping("field")),
+				new MappingJournal.Change<>(3, FIELD, new EntryMapping("field"), null)
+		), journal.getChangesSince(1));
+
+		tree.takeDelta();
+		Assertions.assertEquals(1, journal.getChangesSince(2).size());
+		Assertions.assertEquals(3L, journal.getLastSequence());
+	}
+}
@@ -0,0 +1,93 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.translation.MappingTranslator;
+import org.quiltmc.enigma.api.translation.TranslateResult;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+public class TestMappingTranslator {
+	private static final ClassEntry ROOT_CLASS = new ClassEntry("a/A");
+	private static final ClassEntry CHILD_CLASS = new ClassEntry("a/B");
+	private static final MethodEntry ROOT_METHOD = new MethodEntry(ROOT_CLASS, "a", new MethodDescriptor("()V"));
+	private static final MethodEntry CHILD_METHOD = ROOT_METHOD.withParent(CHILD_CLASS);
+	private static final FieldEntry FIELD = new FieldEntry(CHILD_CLASS, "a", new TypeDescriptor("I"));
+
+	private final DeltaTrackingTree<EntryMapping> mappings = new DeltaTrackingTree<>();
+	private final MappingTranslator translator = MappingTranslator.cached(this.mappings, new InheritingResolver());
+
+	@Test
+	public void changesDropStaleTranslations() {
+		Assertions.assertEquals(FIELD, this.translator.translate(FIELD));
+
+		// without invalidating, the cache is stamped with an older generation
+		this.mappings.insert(FIELD, new EntryMapping("named"));
+		Assertions.assertEquals("named", this.translator.translate(FIELD).getName());
+
+		this.mappings.insert(FIELD, new EntryMapping("renamed"));
+		this.mappings.insert(ROOT_METHOD, new EntryMapping("method"));
+		this.translator.invalidate(ROOT_METHOD);
+		Assertions.assertEquals("renamed", this.translator.translate(FIELD).getName());
+	}
+
+	@Test
+	public void invalidatesDependentTranslations() {
+		this.mappings.insert(ROOT_METHOD, new EntryMapping("method"));
+		this.mappings.insert(FIELD, new EntryMapping("field"));
+		Assertions.assertEquals("method", this.translator.translate(CHILD_METHOD).getName());
+		TranslateResult<FieldEntry> field = this.translator.extendedTranslate(FIELD);
+
+		this.mappings.insert(ROOT_METHOD, new EntryMapping("renamed"));
+		this.translator.invalidate(ROOT_METHOD);
+
+		// the inherited method reads the mapping of its root
+		Assertions.assertEquals("renamed", this.translator.translate(CHILD_METHOD).getName());
+		Assertions.assertEquals("renamed", this.translator.translate(ROOT_METHOD).getName());
+		Assertions.assertSame(field, this.translator.extendedTranslate(FIELD));
+	}
+
+	@Test
+	public void classChangesDropAllTranslations() {
+		TranslateResult<FieldEntry> field = this.translator.extendedTranslate(FIELD);
+
+		this.mappings.insert(CHILD_CLASS, new EntryMapping("a/Named"));
+		this.translator.invalidate(CHILD_CLASS);
+
+		Assertions.assertNotSame(field, this.translator.extendedTranslate(FIELD));
+		Assertions.assertEquals("a/Named", this.translator.translate(FIELD).getParent().getFullName());
+	}
+
+	/**
+	 * Resolves the child method to the root method, and every other entry to itself.
+	 */
+	private static class InheritingResolver implements EntryResolver {
+		@Override
+		@SuppressWarnings("unchecked")
+		public <E extends Entry<?>> Collection<E> resolveEntry(E entry, ResolutionStrategy strategy) {
+			return Collections.singleton(CHILD_METHOD.equals(entry) ? (E) ROOT_METHOD : entry);
+		}
+
+		@Override
+		public Set<Entry<?>> resolveEquivalentEntries(Entry<?> entry) {
+			return Collections.singleton(entry);
+		}
+
+		@Override
+		public Set<MethodEntry> resolveEquivalentMethods(MethodEntry methodEntry) {
+			return Collections.singleton(methodEntry);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.CompactEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.ConcurrentEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.MergedEntryMappingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.MergedMappingTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class TestMergedEntryMappingTree {
+	@Test
+	public void walksEveryNodeOnce() {
+		EntryTree<EntryMapping> main = new PersistentEntryTree<>();
+		EntryTree<EntryMapping> secondary = new HashEntryTree<>();
+		Set<Entry<?>> expected = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			ClassEntry classEntry = new ClassEntry("a/C" + i);
+			FieldEntry field = new FieldEntry(classEntry, "f", new TypeDescriptor("I"));
+			FieldEntry otherField = new FieldEntry(classEntry, "g", new TypeDescriptor("I"));
+			if (i % 3 != 0) {
+				main.insert(field, new EntryMapping("main" + i));
+			}
+
+			if (i % 2 == 0) {
+				secondary.insert(otherField, new EntryMapping("secondary" + i));
+				expected.add(otherField);
+			}
+
+			if (i % 3 != 0) {
+				expected.add(field);
+			}
+
+			if (i % 3 != 0 || i % 2 == 0) {
+				expected.add(classEntry);
+			}
+		}
+
+		MergedEntryMappingTree merged = new MergedEntryMappingTree(main, secondary);
+
+		List<Entry<?>> walked = new ArrayList<>();
+		for (EntryTreeNode<EntryMapping> node : merged) {
+			walked.add(node.getEntry());
+		}
+
+		Assertions.assertEquals(expected.size(), walked.size());
+		Assertions.assertEquals(expected, new HashSet<>(walked));
+		Assertions.assertEquals(expected, merged.getAllEntries().collect(Collectors.toSet()));
+		Assertions.assertEquals(expected, StreamSupport.stream(merged.spliterator(), true).map(EntryTreeNode::getEntry).collect(Collectors.toSet()));
+	}
+
+	@Test
+	public void mergesChildNodes() {
+		ClassEntry classEntry = new ClassEntry("a/C");
+		FieldEntry mainField = new FieldEntry(classEntry, "f", new TypeDescriptor("I"));
+		FieldEntry sharedField = new FieldEntry(classEntry, "g", new TypeDescriptor("I"));
+		FieldEntry secondaryField = new FieldEntry(classEntry, "h", new TypeDescriptor("I"));
+
+		EntryTree<EntryMapping> main = new PersistentEntryTree<>();
+		main.insert(mainField, new EntryMapping("mainF"));
+		main.insert(sharedField, new EntryMapping("mainG"));
+
+		List<EntryTree<EntryMapping>> secondaries = List.of(new HashEntryTree<>(), new PersistentEntryTree<>(), new ConcurrentEntryTree<>(), new CompactEntryTree());
+		for (EntryTree<EntryMapping> secondary : secondaries) {
+			secondary.insert(classEntry, new EntryMapping("secondaryC"));
+			secondary.insert(sharedField, new EntryMapping("secondaryG"));
+			secondary.insert(secondaryField, new EntryMapping("secondaryH"));
+
+			EntryTreeNode<EntryMapping> node = new MergedEntryMappingTree(main, secondary).findNode(classEntry);
+			Assertions.assertTrue(node instanceof MergedMappingTreeNode);
+			Assertions.assertEquals("secondaryC", node.getValue().targetName());
+
+			Collection<? extends EntryTreeNode<EntryMapping>> children = node.getChildNodes();
+			Assertions.assertFalse(children.isEmpty());
+			Assertions.assertEquals(3, children.size());
+			Assertions.assertEquals(
+					Map.of(mainField, "mainF", sharedField, "mainG", secondaryField, "secondaryH"),
+					children.stream().collect(Collectors.toMap(EntryTreeNode::getEntry, child -> child.getValue().targetName()))
+			);
+
+			Assertions.assertTrue(node.getChildNode(sharedField) instanceof MergedMappingTreeNode);
+			Assertions.assertEquals("mainF", node.getChildNode(mainField).getValue().targetName());
+			Assertions.assertEquals("secondaryH", node.getChildNode(secondaryField).getValue().targetName());
+			Assertions.assertNull(node.getChildNode(new FieldEntry(classEntry, "i", new TypeDescriptor("I"))));
+		}
+	}
+}
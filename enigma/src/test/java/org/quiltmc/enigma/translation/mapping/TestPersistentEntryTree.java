@@ -0,0 +1,137 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.mapping.serde.enigma.EnigmaMappingsReader;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.MergedEntryMappingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TestPersistentEntryTree {
+	@Test
+	public void behavesLikeHashEntryTree() {
+		List<Entry<?>> entries = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			ClassEntry outer = new ClassEntry("a/C" + i);
+			ClassEntry inner = new ClassEntry(outer, "I");
+			entries.add(outer);
+			entries.add(inner);
+			for (int j = 0; j < 4; j++) {
+				MethodEntry method = new MethodEntry(j % 2 == 0 ? outer : inner, "m" + j, new MethodDescriptor("(I)V"));
+				entries.add(method);
+				entries.add(new LocalVariableEntry(method, 1, "", true, null));
+				entries.add(new FieldEntry(outer, "f" + j, new TypeDescriptor("I")));
+			}
+		}
+
+		PersistentEntryTree<EntryMapping> tree = new PersistentEntryTree<>();
+		EntryTree<EntryMapping> expected = new HashEntryTree<>();
+		List<PersistentEntryTree<EntryMapping>> snapshots = new ArrayList<>();
+		List<Map<Entry<?>, EntryMapping>> expectedSnapshots = new ArrayList<>();
+		Random random = new Random(0);
+		for (int i = 0; i < 50000; i++) {
+			Entry<?> entry = entries.get(random.nextInt(entries.size()));
+			switch (random.nextInt(3)) {
+				case 0 -> {
+					EntryMapping mapping = new EntryMapping("name" + i);
+					tree.insert(entry, mapping);
+					expected.insert(entry, mapping);
+				}
+				case 1 -> {
+					tree.insert(entry, null);
+					expected.insert(entry, null);
+				}
+				default -> Assertions.assertEquals(expected.remove(entry), tree.remove(entry), entry.toString());
+			}
+
+			Entry<?> query = entries.get(random.nextInt(entries.size()));
+			Assertions.assertEquals(expected.get(query), tree.get(query), query.toString());
+			Assertions.assertEquals(new HashSet<>(expected.getChildren(query)), new HashSet<>(tree.getChildren(query)), query.toString());
+
+			if (i % 10000 == 0) {
+				snapshots.add(tree.snapshot());
+				expectedSnapshots.add(toMap(expected));
+			}
+		}
+
+		Assertions.assertEquals(toMap(expected), toMap(tree));
+		for (EntryTreeNode<EntryMapping> node : tree) {
+			Assertions.assertFalse(node.isEmpty(), node.getEntry().toString());
+		}
+
+		// snapshots keep the mappings they were taken with
+		for (int i = 0; i < snapshots.size(); i++) {
+			Assertions.assertEquals(expectedSnapshots.get(i), toMap(snapshots.get(i)));
+		}
+
+		entries.forEach(tree::remove);
+		Assertions.assertTrue(tree.isEmpty());
+		Assertions.assertFalse(snapshots.get(snapshots.size() - 1).isEmpty());
+	}
+
+	@Test
+	public void snapshotsAreIndependent() {
+		ClassEntry classEntry = new ClassEntry("a/A");
+		FieldEntry field = new FieldEntry(classEntry, "a", new TypeDescriptor("I"));
+
+		PersistentEntryTree<EntryMapping> tree = new PersistentEntryTree<>();
+		tree.insert(field, new EntryMapping("first"));
+		PersistentEntryTree<EntryMapping> snapshot = tree.snapshot();
+
+		tree.insert(field, new EntryMapping("second"));
+		snapshot.insert(classEntry, new EntryMapping("Named"));
+
+		Assertions.assertEquals(new EntryMapping("second"), tree.get(field));
+		Assertions.assertNull(tree.get(classEntry));
+		Assertions.assertEquals(new EntryMapping("first"), snapshot.get(field));
+		Assertions.assertEquals(new EntryMapping("Named"), snapshot.get(classEntry));
+	}
+
+	@Test
+	public void remapperSnapshotsReadMappingsWithoutCopying() throws Exception {
+		Path file = Files.createTempFile("persistentEntryTree", ".mapping");
+		Files.writeString(file, "CLASS a/A b/Named\n\tFIELD a field I\n");
+		EntryTree<EntryMapping> mappings = EnigmaMappingsReader.readFiles(ProgressListener.createEmpty(), file);
+		Files.delete(file);
+		FieldEntry field = new FieldEntry(new ClassEntry("a/A"), "a", new TypeDescriptor("I"));
+
+		EntryRemapper remapper = EntryRemapper.mapped(MainJarIndex.empty(), MappingsIndex.empty(), new PersistentEntryTree<>(), mappings, List.of());
+		EntryTree<EntryMapping> deobfMappings = remapper.getDeobfMappings();
+		Assertions.assertTrue(deobfMappings instanceof PersistentEntryTree);
+		remapper.takeMappingDelta();
+
+		// the snapshot shares the nodes of the remapper's tree rather than copying them
+		MergedEntryMappingTree snapshot = (MergedEntryMappingTree) remapper.getMappingsSnapshot();
+		Assertions.assertSame(deobfMappings.findNode(field), snapshot.mainTree().findNode(field));
+		Assertions.assertEquals(new EntryMapping("field"), snapshot.get(field));
+	}
+
+	private static Map<Entry<?>, EntryMapping> toMap(EntryTree<EntryMapping> tree) {
+		Map<Entry<?>, EntryMapping> map = new HashMap<>();
+		tree.getAllEntries().forEach(entry -> map.put(entry, tree.get(entry)));
+		return map;
+	}
+}